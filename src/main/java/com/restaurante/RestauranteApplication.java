@@ -2,12 +2,15 @@ package com.restaurante;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación Restaurante.
  * Esta clase inicia la aplicación Spring Boot.
+ * Las tareas programadas (volcado de los acumuladores de ventas) se habilitan aquí.
  */
 @SpringBootApplication
+@EnableScheduling
 public class RestauranteApplication {
 
     /**
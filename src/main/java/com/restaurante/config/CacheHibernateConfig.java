@@ -0,0 +1,71 @@
+package com.restaurante.config;
+
+import java.util.Map;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Configuración de la caché de segundo nivel de Hibernate con Caffeine (JCache) en memoria local.
+ * Las regiones se crean con los límites de tamaño y tiempo de vida definidos en
+ * {@link CacheRegionesProperties} y se entregan a Hibernate ya construidas.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheRegionesProperties.class)
+public class CacheHibernateConfig {
+
+    /**
+     * Crea el CacheManager de JCache con una caché acotada por cada región configurada.
+     *
+     * @param propiedades Las regiones definidas en la configuración.
+     * @return El CacheManager que usará Hibernate.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(CacheRegionesProperties propiedades) {
+        CachingProvider proveedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = proveedor.getCacheManager(proveedor.getDefaultURI(), getClass().getClassLoader());
+        for (Map.Entry<String, CacheRegionesProperties.Region> entrada : propiedades.getRegiones().entrySet()) {
+            if (cacheManager.getCache(entrada.getKey()) == null) {
+                cacheManager.createCache(entrada.getKey(), configuracionRegion(entrada.getValue()));
+            }
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Entrega el CacheManager a Hibernate para que use las regiones ya creadas.
+     *
+     * @param cacheManagerHibernate El CacheManager de las regiones.
+     * @return El personalizador de las propiedades de Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheHibernatePropertiesCustomizer(CacheManager cacheManagerHibernate) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+    }
+
+    /**
+     * Traduce los límites de una región a la configuración de Caffeine.
+     * Las entradas se guardan por referencia porque Hibernate ya almacena estado desensamblado inmutable.
+     */
+    private static CaffeineConfiguration<Object, Object> configuracionRegion(CacheRegionesProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setStoreByValue(false);
+        configuracion.setStatisticsEnabled(true);
+        configuracion.setMaximumSize(OptionalLong.of(region.getTamanoMaximo()));
+        if (region.getTtl() != null && !region.getTtl().isZero()) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        return configuracion;
+    }
+}
@@ -0,0 +1,40 @@
+package com.restaurante.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuración de las regiones de la caché de segundo nivel de Hibernate.
+ * Cada región se define en {@code application.properties} con el prefijo
+ * {@code restaurante.cache.regiones.<nombre>}.
+ */
+@Data
+@ConfigurationProperties(prefix = "restaurante.cache")
+public class CacheRegionesProperties {
+
+    /**
+     * Regiones de la caché indexadas por su nombre.
+     */
+    private Map<String, Region> regiones = new LinkedHashMap<>();
+
+    /**
+     * Límites de una región de la caché.
+     */
+    @Data
+    public static class Region {
+        /**
+         * Número máximo de entradas antes de empezar a expulsar.
+         */
+        private long tamanoMaximo = 1000;
+
+        /**
+         * Tiempo de vida de cada entrada desde que se escribe. Cero o nulo indica que no expira.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,50 @@
+package com.restaurante.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Limita la concurrencia contra la base de datos cuando las peticiones se ejecutan en hilos virtuales
+ * ({@code spring.threads.virtual.enabled=true}).
+ * El DataSource se envuelve en un {@link LimitadorConexionesDataSource} con tantos permisos como
+ * {@code restaurante.bd.concurrencia-maxima}, por defecto el tamaño del pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConcurrenciaBdConfig {
+
+    private static final int TAMANO_POOL_POR_DEFECTO = 10;
+
+    /**
+     * Envuelve el DataSource de la aplicación con el limitador de conexiones.
+     * Es estático para registrarse antes de que se cree el DataSource.
+     *
+     * @param entorno El entorno con la configuración de la aplicación.
+     * @return El post-procesador que envuelve el DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor limitadorConexionesPostProcessor(Environment entorno) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof LimitadorConexionesDataSource) {
+                    return bean;
+                }
+                Binder binder = Binder.get(entorno);
+                int tamanoPool = binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class)
+                        .orElse(TAMANO_POOL_POR_DEFECTO);
+                int maximo = binder.bind("restaurante.bd.concurrencia-maxima", Integer.class).orElse(tamanoPool);
+                Duration espera = binder.bind("restaurante.bd.espera-maxima", Duration.class).orElse(Duration.ofSeconds(30));
+                return new LimitadorConexionesDataSource(dataSource, maximo, espera);
+            }
+        };
+    }
+}
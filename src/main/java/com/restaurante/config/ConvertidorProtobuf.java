@@ -0,0 +1,63 @@
+package com.restaurante.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.restaurante.mapper.ProtobufMapper;
+import com.restaurante.util.ApiResponse;
+import com.restaurante.util.FormatoRespuesta;
+
+/**
+ * Escribe las respuestas {@link ApiResponse} en Protocol Buffers con {@link ProtobufMapper}.
+ *
+ * <p>Solo escribe: las peticiones siguen llegando en JSON. Como el tamaño del mensaje se conoce antes
+ * de escribirlo, la respuesta lleva Content-Length y el umbral de compresión se aplica con exactitud.
+ * Las respuestas cuyos datos no tienen mensaje en el esquema las convierte {@link NegociacionProtobuf}
+ * en un 406 antes de llegar aquí.</p>
+ */
+public class ConvertidorProtobuf extends AbstractHttpMessageConverter<ApiResponse<?>> {
+
+    private final ProtobufMapper protobufMapper;
+
+    /**
+     * @param protobufMapper El codificador de los mensajes.
+     */
+    public ConvertidorProtobuf(ProtobufMapper protobufMapper) {
+        super(FormatoRespuesta.PROTOBUF.getTipoContenido());
+        this.protobufMapper = protobufMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Las peticiones en protobuf no están soportadas", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ApiResponse<?> respuesta, MediaType contentType) {
+        return protobufMapper.admite(respuesta.getData()) ? (long) protobufMapper.tamano(respuesta) : null;
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> respuesta, HttpOutputMessage outputMessage) throws IOException {
+        if (!protobufMapper.admite(respuesta.getData())) {
+            throw new HttpMessageNotWritableException("Los datos de la respuesta no tienen representación en protobuf");
+        }
+        protobufMapper.escribir(respuesta, outputMessage.getBody());
+    }
+}
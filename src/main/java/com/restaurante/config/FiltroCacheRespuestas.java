@@ -0,0 +1,158 @@
+package com.restaurante.config;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.restaurante.services.CacheRespuestas;
+import com.restaurante.services.VersionesDatos;
+import com.restaurante.services.VersionesDatos.Recurso;
+import com.restaurante.util.FormatoRespuesta;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Responde las lecturas de catálogo, clientes y perfiles desde {@link CacheRespuestas}, sin pasar
+ * por el controlador, el repositorio ni Jackson.
+ *
+ * <p>La clave combina la ruta, los parámetros, la cabecera X-API-VERSION y el formato negociado. Si la
+ * respuesta no está en la caché, se ejecuta el controlador y se guarda su cuerpo cuando responde 200.
+ * Una respuesta guardada se escribe directamente en la salida, comprimida si el cliente acepta gzip,
+ * y responde 304 si la petición trae su ETag.</p>
+ */
+@Component
+public class FiltroCacheRespuestas extends OncePerRequestFilter {
+
+    private static final String CABECERA_VERSION = "X-API-VERSION";
+
+    /** Rutas cacheadas y el recurso cuya versión invalida sus respuestas. */
+    private static final List<Ruta> RUTAS = List.of(
+            new Ruta("/api/productos", Recurso.PRODUCTOS),
+            new Ruta("/api/productos/{id:\\d+}", Recurso.PRODUCTOS),
+            new Ruta("/api/clientes", Recurso.CLIENTES),
+            new Ruta("/api/perfiles", Recurso.PERFILES),
+            new Ruta("/api/perfiles/{id:\\d+}", Recurso.PERFILES));
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    @Autowired
+    private VersionesDatos versionesDatos;
+
+    @Value("${restaurante.respuestas.cache.habilitada:true}")
+    private boolean habilitada;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitada || !HttpMethod.GET.matches(request.getMethod()) || recursoDe(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Recurso recurso = recursoDe(request);
+        String clave = clave(request);
+        // La versión se lee antes que los datos, como en los ETag de los controladores.
+        long version = versionesDatos.version(recurso);
+
+        CacheRespuestas.Entrada entrada = cacheRespuestas.buscar(clave, version);
+        if (entrada != null) {
+            escribir(entrada, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper envoltorio = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, envoltorio);
+        if (envoltorio.getStatus() == HttpServletResponse.SC_OK && !envoltorio.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            cacheRespuestas.guardar(clave, version, envoltorio.getContentAsByteArray(),
+                    envoltorio.getContentType(), envoltorio.getHeader(HttpHeaders.ETAG));
+        }
+        envoltorio.copyBodyToResponse();
+    }
+
+    /**
+     * Escribe una respuesta guardada, o 304 si el cliente ya tiene su ETag.
+     */
+    private static void escribir(CacheRespuestas.Entrada entrada, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (entrada.getEtag() != null && new ServletWebRequest(request, response).checkNotModified(entrada.getEtag())) {
+            return;
+        }
+        byte[] cuerpo = entrada.getCuerpo();
+        if (entrada.getComprimido() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (aceptaGzip(request)) {
+                cuerpo = entrada.getComprimido();
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entrada.getTipoContenido());
+        if (entrada.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, entrada.getEtag());
+        }
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    private static Recurso recursoDe(HttpServletRequest request) {
+        PathContainer ruta = PathContainer.parsePath(request.getRequestURI());
+        for (Ruta candidata : RUTAS) {
+            if (candidata.patron.matches(ruta)) {
+                return candidata.recurso;
+            }
+        }
+        return null;
+    }
+
+    private static String clave(HttpServletRequest request) {
+        String consulta = request.getQueryString();
+        return request.getRequestURI() + (consulta != null ? "?" + consulta : "")
+                + "|" + request.getHeader(CABECERA_VERSION)
+                + "|" + FormatoRespuesta.negociar(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Indica si la cabecera Accept-Encoding admite gzip con calidad distinta de cero.
+     */
+    private static boolean aceptaGzip(HttpServletRequest request) {
+        String codificaciones = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (codificaciones == null) {
+            return false;
+        }
+        for (String codificacion : codificaciones.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Patrón de ruta cacheada.
+     */
+    private static final class Ruta {
+        private final PathPattern patron;
+        private final Recurso recurso;
+
+        private Ruta(String patron, Recurso recurso) {
+            this.patron = PathPatternParser.defaultInstance.parse(patron);
+            this.recurso = recurso;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.restaurante.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Hace efectivo {@code server.compression.min-response-size} en las respuestas que Jackson escribe
+ * en flujo, sin longitud conocida.
+ *
+ * <p>El servidor solo compara el umbral con la cabecera Content-Length, de modo que sin ella comprime
+ * cualquier cuerpo. Este filtro retiene el cuerpo hasta el umbral: si la respuesta termina antes, la
+ * envía con su Content-Length y el servidor no la comprime; si lo supera, vuelca lo retenido y el
+ * resto sigue en flujo como antes. El flujo SSE y las exportaciones no se retienen.</p>
+ */
+@Component
+public class FiltroLongitudRespuestas extends OncePerRequestFilter {
+
+    /** Rutas que escriben en flujo de forma asíncrona y no deben esperar al umbral. */
+    private static final List<PathPattern> RUTAS_EN_FLUJO = List.of(
+            PathPatternParser.defaultInstance.parse("/api/pedidos/stream"),
+            PathPatternParser.defaultInstance.parse("/api/pedidos/exportar"));
+
+    @Value("${server.compression.enabled:false}")
+    private boolean compresionHabilitada;
+
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize umbral;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!compresionHabilitada) {
+            return true;
+        }
+        PathContainer ruta = PathContainer.parsePath(request.getRequestURI());
+        return RUTAS_EN_FLUJO.stream().anyMatch(patron -> patron.matches(ruta));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RespuestaRetenida retenida = new RespuestaRetenida(response, (int) umbral.toBytes());
+        filterChain.doFilter(request, retenida);
+        if (request.isAsyncStarted()) {
+            retenida.volcar();
+        } else {
+            retenida.terminar();
+        }
+    }
+
+    /**
+     * Respuesta que retiene el cuerpo en memoria hasta superar el umbral.
+     */
+    private static final class RespuestaRetenida extends HttpServletResponseWrapper {
+
+        private final int umbral;
+
+        private final ByteArrayOutputStream retenido = new ByteArrayOutputStream();
+
+        /** Si ya se escribe directamente en la respuesta original. */
+        private boolean directo;
+
+        private ServletOutputStream salida;
+
+        private PrintWriter escritor;
+
+        private RespuestaRetenida(HttpServletResponse response, int umbral) {
+            super(response);
+            this.umbral = umbral;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (salida == null) {
+                salida = new Salida();
+            }
+            return salida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (escritor == null) {
+                escritor = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return escritor;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (escritor != null) {
+                escritor.flush();
+            }
+            if (directo) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            retenido.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            retenido.reset();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            retenido.reset();
+            directo = true;
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            retenido.reset();
+            directo = true;
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            retenido.reset();
+            directo = true;
+            super.sendRedirect(location);
+        }
+
+        /**
+         * Escribe lo retenido en la respuesta original y deja de retener.
+         */
+        private void volcar() throws IOException {
+            if (escritor != null) {
+                escritor.flush();
+            }
+            soltar();
+        }
+
+        /**
+         * Completa la respuesta: si el cuerpo no superó el umbral, lo envía con su Content-Length.
+         */
+        private void terminar() throws IOException {
+            if (escritor != null) {
+                escritor.flush();
+            }
+            if (!directo && retenido.size() > 0 && !isCommitted()) {
+                setContentLength(retenido.size());
+            }
+            soltar();
+        }
+
+        private void soltar() throws IOException {
+            if (!directo) {
+                directo = true;
+                if (retenido.size() > 0) {
+                    retenido.writeTo(getResponse().getOutputStream());
+                    retenido.reset();
+                }
+            }
+        }
+
+        /**
+         * Flujo de salida que retiene hasta el umbral y después escribe en la respuesta original.
+         */
+        private final class Salida extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                if (directo) {
+                    getResponse().getOutputStream().write(b);
+                    return;
+                }
+                retenido.write(b);
+                comprobarUmbral();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (directo) {
+                    getResponse().getOutputStream().write(b, off, len);
+                    return;
+                }
+                retenido.write(b, off, len);
+                comprobarUmbral();
+            }
+
+            /**
+             * Mientras se retiene, vaciar no escribe nada: Jackson vacía el flujo al terminar cada cuerpo.
+             */
+            @Override
+            public void flush() throws IOException {
+                if (directo) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("La respuesta retenida no admite escritura no bloqueante");
+            }
+
+            private void comprobarUmbral() throws IOException {
+                if (retenido.size() >= umbral) {
+                    soltar();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.restaurante.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.restaurante.mapper.ProtobufMapper;
+
+/**
+ * Formatos binarios de respuesta, elegidos por la cabecera Accept (ver {@code FormatoRespuesta}).
+ *
+ * <p>CBOR y Smile usan la misma configuración de Jackson que el JSON de Spring Boot, por lo que
+ * devuelven la misma estructura. Sustituyen a los convertidores por defecto en su posición, detrás
+ * del de JSON, y el de protobuf se añade al final: sin cabecera Accept la respuesta sigue siendo JSON.
+ * La compresión gzip la aplica el servidor según {@code server.compression.*}.</p>
+ */
+@Configuration
+public class FormatosRespuestaConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ProtobufMapper protobufMapper;
+
+    /**
+     * @param builders Constructores de ObjectMapper con la configuración de Spring Boot.
+     * @return El convertidor de CBOR.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        return new MappingJackson2CborHttpMessageConverter(builders.getObject().factory(new CBORFactory()).build());
+    }
+
+    /**
+     * @param builders Constructores de ObjectMapper con la configuración de Spring Boot.
+     * @return El convertidor de Smile.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        return new MappingJackson2SmileHttpMessageConverter(builders.getObject().factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ConvertidorProtobuf(protobufMapper));
+    }
+}
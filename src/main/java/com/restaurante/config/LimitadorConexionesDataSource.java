@@ -0,0 +1,140 @@
+package com.restaurante.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que limita el número de conexiones en uso a la vez con un semáforo justo.
+ *
+ * <p>Con hilos virtuales puede haber miles de peticiones bloqueadas en la base de datos al mismo tiempo.
+ * El semáforo las ordena en una cola FIFO antes de llegar al pool, de modo que el pool solo ve tantos
+ * hilos como conexiones tiene y no reparte conexiones a ráfagas ni agota su propio tiempo de espera.
+ * El permiso se libera al cerrar la conexión.</p>
+ */
+public class LimitadorConexionesDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final long esperaMaximaNanos;
+
+    /**
+     * @param destino      El DataSource real (normalmente el pool de conexiones).
+     * @param maximo       El número máximo de conexiones en uso a la vez.
+     * @param esperaMaxima El tiempo máximo que un hilo espera un permiso antes de fallar.
+     */
+    public LimitadorConexionesDataSource(DataSource destino, int maximo, Duration esperaMaxima) {
+        super(destino);
+        this.permisos = new Semaphore(maximo, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return limitar(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return limitar(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Espera un permiso respetando el orden de llegada.
+     * @throws SQLException Si se agota la espera o se interrumpe el hilo.
+     */
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No hay conexiones disponibles: se agotó la espera del limitador");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Se interrumpió la espera de una conexión", e);
+        }
+    }
+
+    /**
+     * Obtiene la conexión del destino y la envuelve para liberar el permiso al cerrarla.
+     * Si no se obtiene la conexión, el permiso se libera inmediatamente.
+     */
+    private Connection limitar(Apertura apertura) throws SQLException {
+        Connection conexion;
+        try {
+            conexion = apertura.abrir();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConexionLimitada(conexion));
+    }
+
+    @FunctionalInterface
+    private interface Apertura {
+        Connection abrir() throws SQLException;
+    }
+
+    /**
+     * Delega todas las llamadas en la conexión real y libera el permiso, una sola vez, al cerrarla.
+     */
+    private final class ConexionLimitada implements InvocationHandler {
+        private final Connection conexion;
+        private final AtomicBoolean cerrada = new AtomicBoolean();
+
+        private ConexionLimitada(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    try {
+                        conexion.close();
+                    } finally {
+                        if (cerrada.compareAndSet(false, true)) {
+                            permisos.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada.get() || conexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
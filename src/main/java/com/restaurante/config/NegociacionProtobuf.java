@@ -0,0 +1,45 @@
+package com.restaurante.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.restaurante.mapper.ProtobufMapper;
+import com.restaurante.util.ApiResponse;
+
+/**
+ * Completa la negociación del formato protobuf con los datos de la respuesta.
+ *
+ * <p>Los controladores devuelven {@code ResponseEntity<?>}, así que al elegir el convertidor solo se
+ * sabe que el cuerpo es un {@link ApiResponse}. Si el cliente pidió protobuf y los datos no tienen
+ * mensaje en el esquema, la respuesta pasa a ser un 406 sin datos, que sí se puede codificar, en lugar
+ * de fallar al escribir con un 500.</p>
+ */
+@ControllerAdvice
+public class NegociacionProtobuf implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private ProtobufMapper protobufMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return ConvertidorProtobuf.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof ApiResponse<?> respuesta && !protobufMapper.admite(respuesta.getData())) {
+            response.setStatusCode(HttpStatus.NOT_ACCEPTABLE);
+            return new ApiResponse<>(false, "Esta respuesta no tiene representación en protobuf; pídala en JSON, CBOR o Smile", null);
+        }
+        return body;
+    }
+}
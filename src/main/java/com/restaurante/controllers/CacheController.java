@@ -0,0 +1,57 @@
+package com.restaurante.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.restaurante.dto.EstadisticasCacheRespuestasDTO;
+import com.restaurante.dto.EstadisticasRegionCacheDTO;
+import com.restaurante.services.CacheService;
+import com.restaurante.util.ApiResponse;
+
+/**
+ * Controlador REST para consultar el estado de la caché de segundo nivel y de la caché de respuestas.
+ * Version: 1.1.0
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private CacheService cacheService;
+
+    /**
+     * Obtiene los aciertos, fallos y escrituras de cada región de la caché.
+     *
+     * @return ResponseEntity con las métricas por región.
+     */
+    @GetMapping(value = "/estadisticas", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> estadisticasRegiones() {
+        try {
+            List<EstadisticasRegionCacheDTO> estadisticas = cacheService.estadisticasRegiones();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Estadísticas de la caché obtenidas con éxito", estadisticas));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Obtiene las entradas, la memoria ocupada, los aciertos y las expulsiones de la caché de respuestas.
+     *
+     * @return ResponseEntity con las métricas de la caché de respuestas.
+     */
+    @GetMapping(value = "/respuestas", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> estadisticasRespuestas() {
+        try {
+            EstadisticasCacheRespuestasDTO estadisticas = cacheService.estadisticasRespuestas();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Estadísticas de la caché de respuestas obtenidas con éxito", estadisticas));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+}
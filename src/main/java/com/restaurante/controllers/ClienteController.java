@@ -8,13 +8,23 @@ package com.restaurante.controllers;
 
 import com.restaurante.domain.Cliente;
 import com.restaurante.dto.ClienteDTO;
+import com.restaurante.dto.ResultadoIdDTO;
+import com.restaurante.dto.ResultadoImportacionDTO;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.mapper.ClienteMapper;
 import com.restaurante.services.ClienteService;
+import com.restaurante.services.ImportacionService;
+import com.restaurante.services.VersionesDatos;
 import com.restaurante.util.ApiResponse;
+import com.restaurante.util.Campos;
+import com.restaurante.util.FormatoExportacion;
+import com.restaurante.util.ListaIds;
+import com.restaurante.util.Paginacion;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,14 +33,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Controlador REST para gestionar operaciones relacionadas con los clientes.
@@ -43,35 +58,71 @@ public class ClienteController {
     private ClienteService clienteService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ClienteMapper clienteMapper;
+
+    @Autowired
+    private VersionesDatos versionesDatos;
+
+    @Autowired
+    private ImportacionService importacionService;
     private static final Logger logger = LoggerFactory.getLogger(ClienteController.class);
     
     
     /**
-     * Obtiene todos los clientes.
+     * Obtiene una página de clientes usando paginación por cursor.
+     * Responde 304 sin consultar la base de datos si el ETag de la petición coincide con la versión de los clientes.
      *
-     * @return ResponseEntity con la lista de clientes y un mensaje de éxito.
+     * @param after   Cursor devuelto en la página anterior (opcional).
+     * @param limit   Tamaño de página solicitado (opcional, limitado por el servidor).
+     * @param fields  Campos a devolver separados por comas (opcional); por ejemplo {@code id,nombre}.
+     * @param ids     IDs de los clientes separados por comas (opcional); si se indican, se devuelve un resultado
+     *                por cada ID en el mismo orden, marcando los que no existen, en lugar de una página.
+     * @param request La petición, con la cabecera If-None-Match opcional.
+     * @return ResponseEntity con la lista de clientes, el cursor siguiente y un mensaje de éxito.
      * @throws EntityNotFoundException Si no se encuentran clientes.
      */
     @GetMapping(headers="X-API-VERSION=1.1.0")
-    public ResponseEntity<?> obtenerTodos() throws EntityNotFoundException{
+    public ResponseEntity<?> obtenerTodos(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                          @RequestParam(value = "fields", required = false) String fields,
+                                          @RequestParam(value = "ids", required = false) String ids,
+                                          WebRequest request) throws EntityNotFoundException{
+        if (request.checkNotModified(versionesDatos.etag(VersionesDatos.Recurso.CLIENTES, request.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
         try {
-            List<Cliente> clientes = clienteService.listarTodos();
+            if (ids != null) {
+                if (fields != null) {
+                    throw new IllegalOperationException("El parámetro ids no se puede combinar con fields");
+                }
+                List<Long> solicitados = ListaIds.parsear(ids);
+                List<ClienteDTO> encontrados = clienteMapper.toDTOs(clienteService.buscarPorIds(new HashSet<>(solicitados)));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Clientes obtenidos con éxito",
+                        ResultadoIdDTO.enOrden(solicitados, encontrados, ClienteDTO::getId)));
+            }
+            if (fields != null) {
+                Slice<Map<String, Object>> clientes = clienteService.listarCampos(fields, Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+                if (!clientes.hasContent()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                         .body(new ApiResponse<>(false, "No se encontraron clientes", null));
+                }
+                return ResponseEntity.ok(new ApiResponse<>(true, "Lista de clientes obtenida con éxito", clientes.getContent(),
+                                                           Paginacion.siguienteCursor(clientes, cliente -> (Long) cliente.get(Campos.ID))));
+            }
+            Slice<Cliente> clientes = clienteService.listarPagina(Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
             
-            if (clientes.isEmpty()) {
+            if (!clientes.hasContent()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                                      .body(new ApiResponse<>(false, "No se encontraron clientes", null));
             }
             
-            List<ClienteDTO> clienteDTOs = clientes.stream()
-                                                   .map(cliente -> modelMapper.map(cliente, ClienteDTO.class))
-                                                   .collect(Collectors.toList());
+            List<ClienteDTO> clienteDTOs = clienteMapper.toDTOs(clientes.getContent());
 
-            ApiResponse<List<ClienteDTO>> response = new ApiResponse<>(true, "Lista de clientes obtenida con éxito", clienteDTOs);
+            ApiResponse<List<ClienteDTO>> response = new ApiResponse<>(true, "Lista de clientes obtenida con éxito", clienteDTOs,
+                                                                       Paginacion.siguienteCursor(clientes, Cliente::getId));
             return ResponseEntity.ok(response);
-        } catch (EntityNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                                 .body(new ApiResponse<>(false, "No se encontraron clientes", null));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             // Logging del error
             logger.error("Error al obtener la lista de clientes", e);
@@ -81,22 +132,51 @@ public class ClienteController {
     }
 
 
+    /**
+     * Busca clientes por el principio del nombre o del correo, o por el principio o el final del teléfono,
+     * sin distinguir mayúsculas ni tildes.
+     *
+     * @param q     El texto buscado: parte de un nombre, de un correo o al menos tres dígitos de un teléfono.
+     * @param limit Número máximo de clientes (opcional, limitado por el servidor).
+     * @return ResponseEntity con los clientes encontrados, o un mensaje de error si la búsqueda no es válida.
+     */
+    @GetMapping(value="/buscar", headers="X-API-VERSION=1.1.0")
+    public ResponseEntity<?> buscar(@RequestParam("q") String q,
+                                    @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            List<ClienteDTO> clientes = clienteMapper.toDTOs(clienteService.buscar(q, Paginacion.limitar(limit)));
+            return ResponseEntity.ok(new ApiResponse<>(true, "Clientes encontrados con éxito", clientes));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            logger.error("Error al buscar clientes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
     /**
      * Obtiene un cliente por su ID.
      *
-     * @param id El ID del cliente.
+     * @param id     El ID del cliente.
+     * @param fields Campos a devolver separados por comas (opcional).
      * @return ResponseEntity con el cliente y un mensaje de éxito, o un mensaje de error si no se encuentra el cliente.
      */
     @GetMapping(value="/{id}", headers="X-API-VERSION=1.1.0")
-    public ResponseEntity<?> obtenerPorId(@PathVariable Long id) {
+    public ResponseEntity<?> obtenerPorId(@PathVariable Long id,
+                                          @RequestParam(value = "fields", required = false) String fields) {
     	try {
+            if (fields != null) {
+                return ResponseEntity.ok(new ApiResponse<>(true, "Cliente obtenido con éxito", clienteService.buscarCamposPorId(id, fields)));
+            }
             Cliente cliente = clienteService.buscarPorId(id);
-            ClienteDTO clienteDTO = modelMapper.map(cliente, ClienteDTO.class);
+            ClienteDTO clienteDTO = clienteMapper.toDTO(cliente);
 
             ApiResponse<ClienteDTO> response = new ApiResponse<>(true, "Cliente obtenido con éxito", clienteDTO);
             return ResponseEntity.ok(response);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
@@ -111,12 +191,14 @@ public class ClienteController {
     @PostMapping(headers="X-API-VERSION=1.1.0")
     public ResponseEntity<?> guardar(@RequestBody ClienteDTO clienteDTO) {
     	try {
-            Cliente cliente = modelMapper.map(clienteDTO, Cliente.class);
+            Cliente cliente = clienteMapper.toEntity(clienteDTO);
             clienteService.grabar(cliente);
 
-            ClienteDTO savedClienteDTO = modelMapper.map(cliente, ClienteDTO.class);
+            ClienteDTO savedClienteDTO = clienteMapper.toDTO(cliente);
             ApiResponse<ClienteDTO> response = new ApiResponse<>(true, "Cliente guardado con éxito", savedClienteDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
@@ -153,17 +235,52 @@ public class ClienteController {
     @PutMapping(value="/{id}", headers="X-API-VERSION=1.1.0")
     public ResponseEntity<ApiResponse<ClienteDTO>> actualizar(@PathVariable Long id, @RequestBody ClienteDTO clienteDTO) {
         try {
-            Cliente cliente = modelMapper.map(clienteDTO, Cliente.class);
+            Cliente cliente = clienteMapper.toEntity(clienteDTO);
             clienteService.actualizar(id, cliente);
 
-            ClienteDTO updatedClienteDTO = modelMapper.map(cliente, ClienteDTO.class);
+            ClienteDTO updatedClienteDTO = clienteMapper.toDTO(cliente);
             ApiResponse<ClienteDTO> response = new ApiResponse<>(true, "Cliente actualizado con éxito", updatedClienteDTO);
             return ResponseEntity.ok(response);
         } catch (EntityNotFoundException e) {
         	return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Importa clientes desde un fichero CSV (con cabecera) o NDJSON enviado como cuerpo de la petición.
+     * El fichero se lee en streaming y se guarda por lotes.
+     * Columnas: {@code nombre} (obligatoria), {@code correoElectronico} y {@code numeroTelefonico}.
+     * Devuelve 201 si se guardaron todas las filas, 207 con el motivo de cada fila rechazada si alguna se saltó,
+     * o 400 con el informe si la importación se detuvo sin guardar nada.
+     *
+     * @param continuar     true para saltar las filas no válidas; false (por defecto) para detenerse en la primera.
+     * @param tipoContenido La cabecera Content-Type: {@code text/csv} o {@code application/x-ndjson}.
+     * @param entrada       El contenido del fichero.
+     * @return ResponseEntity con el número de filas leídas, guardadas y rechazadas, o un mensaje de error.
+     */
+    @PostMapping(value = "/importar", headers = "X-API-VERSION=1.1.0", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importarClientes(@RequestParam(value = "continuar", defaultValue = "false") boolean continuar,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoContenido,
+                                              InputStream entrada) {
+        try {
+            FormatoExportacion formato = FormatoExportacion.desdeTipoContenido(tipoContenido);
+            ResultadoImportacionDTO resultado = importacionService.importarClientes(entrada, formato, continuar);
+            if (resultado.isDetenida()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(false, "Importación detenida en una fila rechazada; no se guardó ninguna fila", resultado));
+            }
+            String mensaje = "Importación terminada: " + resultado.getGuardadas() + " clientes guardados, "
+                    + resultado.getRechazadas() + " rechazados";
+            HttpStatus estado = resultado.getRechazadas() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(estado).body(new ApiResponse<>(resultado.getRechazadas() == 0, mensaje, resultado));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
     }
-    
 }
@@ -6,16 +6,37 @@
 
 package com.restaurante.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.restaurante.domain.Pedido;
+import com.restaurante.domain.PedidoVista;
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.dto.ColaEstadoDTO;
 import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoSolicitudDTO;
+import com.restaurante.dto.ResultadoIdDTO;
+import com.restaurante.dto.ResultadoLoteDTO;
+import com.restaurante.dto.ResumenIngresosDTO;
+import com.restaurante.dto.TicketPedidoDTO;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.exception.QueueFullException;
+import com.restaurante.mapper.PedidoMapper;
+import com.restaurante.services.FlujoPedidoService;
+import com.restaurante.services.IngestaPedidoService;
 import com.restaurante.services.PedidoService;
+import com.restaurante.services.PedidoVistaService;
 import com.restaurante.util.ApiResponse;
+import com.restaurante.util.Campos;
+import com.restaurante.util.FormatoExportacion;
+import com.restaurante.util.ListaIds;
+import com.restaurante.util.Paginacion;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,12 +45,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para gestionar operaciones relacionadas con los pedidos.
@@ -41,45 +68,226 @@ public class PedidoController {
     @Autowired
     private PedidoService pedidoService;
     @Autowired
-    private ModelMapper modelMapper;
+    private PedidoMapper pedidoMapper;
+    @Autowired
+    private IngestaPedidoService ingestaPedidoService;
+    @Autowired
+    private FlujoPedidoService flujoPedidoService;
+    @Autowired
+    private PedidoVistaService pedidoVistaService;
 
     /**
-     * Obtiene todos los pedidos.
+     * Obtiene una página de pedidos usando paginación por cursor.
      *
-     * @return ResponseEntity con la lista de pedidos y un mensaje de éxito.
+     * @param after Cursor devuelto en la página anterior (opcional).
+     * @param limit Tamaño de página solicitado (opcional, limitado por el servidor).
+     * @param fields Campos a devolver separados por comas (opcional); por ejemplo {@code id,estado,fecha}.
+     * @param ids    IDs de los pedidos separados por comas (opcional); si se indican, se devuelve un resultado
+     *               por cada ID en el mismo orden, marcando los que no existen, en lugar de una página.
+     * @return ResponseEntity con la lista de pedidos, el cursor siguiente y un mensaje de éxito.
      * @throws EntityNotFoundException Si no se encuentran pedidos.
      */
     @GetMapping(headers = "X-API-VERSION=1.1.0")
-    public ResponseEntity<?> listarTodos() throws EntityNotFoundException  {
+    public ResponseEntity<?> listarTodos(@RequestParam(value = "after", required = false) String after,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         @RequestParam(value = "fields", required = false) String fields,
+                                         @RequestParam(value = "ids", required = false) String ids) throws EntityNotFoundException  {
         try {
-            List<Pedido> pedidos = pedidoService.listarTodos();
-            List<PedidoDTO> pedidosDTO = pedidos.stream()
-                    .map(pedido -> modelMapper.map(pedido, PedidoDTO.class))
-                    .collect(Collectors.toList());
+            if (ids != null) {
+                if (fields != null) {
+                    throw new IllegalOperationException("El parámetro ids no se puede combinar con fields");
+                }
+                List<Long> solicitados = ListaIds.parsear(ids);
+                List<PedidoDTO> encontrados = pedidoMapper.toDTOs(pedidoService.buscarPorIds(new HashSet<>(solicitados)));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Pedidos obtenidos con éxito",
+                        ResultadoIdDTO.enOrden(solicitados, encontrados, PedidoDTO::getId)));
+            }
+            if (fields != null) {
+                Slice<Map<String, Object>> pedidos = pedidoService.listarCampos(fields, Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Lista de pedidos obtenida con éxito", pedidos.getContent(),
+                        Paginacion.siguienteCursor(pedidos, pedido -> (Long) pedido.get(Campos.ID))));
+            }
+            Slice<Pedido> pedidos = pedidoService.listarPagina(Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+            List<PedidoDTO> pedidosDTO = pedidoMapper.toDTOs(pedidos.getContent());
 
-            ApiResponse<List<PedidoDTO>> response = new ApiResponse<>(true, "Lista de pedidos obtenida con éxito", pedidosDTO);
+            ApiResponse<List<PedidoDTO>> response = new ApiResponse<>(true, "Lista de pedidos obtenida con éxito", pedidosDTO,
+                    Paginacion.siguienteCursor(pedidos, Pedido::getId));
             return ResponseEntity.ok(response);
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
     }
 
     /**
-     * Obtiene un pedido por su ID.
+     * Exporta los pedidos en streaming, leyendo las filas directamente de un cursor de base de datos.
+     *
+     * @param formato Formato de salida: {@code ndjson} (por defecto) o {@code csv}.
+     * @param desde   Fecha mínima (inclusive) de los pedidos (opcional, ISO-8601).
+     * @param hasta   Fecha máxima (exclusiva) de los pedidos (opcional, ISO-8601).
+     * @param estado  Estado de los pedidos (opcional).
+     * @return ResponseEntity cuyo cuerpo se escribe fila a fila, o un mensaje de error si el formato o el estado no son válidos.
+     * @throws IllegalOperationException Si el formato o el estado no son válidos.
+     */
+    @GetMapping(value = "/export", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(value = "formato", defaultValue = "ndjson") String formato,
+                                                          @RequestParam(value = "desde", required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                                          @RequestParam(value = "hasta", required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+                                                          @RequestParam(value = "estado", required = false) String estado)
+                                                          throws IllegalOperationException {
+        FormatoExportacion formatoExportacion = FormatoExportacion.desde(formato);
+        EstadoPedido filtroEstado = EstadoPedido.buscar(estado);
+        if (estado != null && filtroEstado == null) {
+            throw new IllegalOperationException("El estado proporcionado no es válido.");
+        }
+        StreamingResponseBody cuerpo = salida -> pedidoService.exportar(desde, hasta, filtroEstado, formatoExportacion, salida);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getTipoContenido()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=pedidos." + formatoExportacion.getExtension())
+                .body(cuerpo);
+    }
+
+    /**
+     * Obtiene el número de pedidos y los ingresos de un periodo con una sola consulta agregada
+     * sobre los totales almacenados.
+     *
+     * @param desde Fecha mínima (inclusive) de los pedidos (ISO-8601).
+     * @param hasta Fecha máxima (exclusiva) de los pedidos (ISO-8601).
+     * @return ResponseEntity con el resumen de ingresos, o un mensaje de error si el rango no es válido.
+     */
+    @GetMapping(value = "/ingresos", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> resumirIngresos(@RequestParam("desde") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                             @RequestParam("hasta") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        if (!desde.isBefore(hasta)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, "La fecha 'desde' debe ser anterior a 'hasta'", null));
+        }
+        try {
+            ResumenIngresosDTO resumen = pedidoService.resumirIngresos(desde, hasta);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Resumen de ingresos obtenido con éxito", resumen));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Obtiene los siguientes pedidos de un estado, del más antiguo al más reciente, sin consultar
+     * la base de datos mientras las colas en memoria estén cargadas.
+     *
+     * @param estado Estado de los pedidos (por defecto, pendiente).
+     * @param limit  Número máximo de IDs (opcional, limitado por el servidor).
+     * @return ResponseEntity con el total de pedidos del estado y los IDs de los siguientes.
+     */
+    @GetMapping(value = "/cola", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> siguientesPorEstado(@RequestParam(value = "estado", defaultValue = "pendiente") String estado,
+                                                 @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            ColaEstadoDTO cola = pedidoService.siguientesPorEstado(estado, Paginacion.limitar(limit));
+            return ResponseEntity.ok(new ApiResponse<>(true, "Siguientes pedidos obtenidos con éxito", cola));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Abre un flujo Server-Sent Events con los cambios de pedidos confirmados (creación, cambios de estado,
+     * modificaciones y eliminaciones), para que las pantallas no tengan que consultar el listado periódicamente.
+     * No exige la cabecera X-API-VERSION porque {@code EventSource} no permite enviar cabeceras propias.
+     *
+     * @param estados         Estados que interesan (opcional, repetible); se envían los cambios que entran o salen de ellos.
+     * @param ultimoEventoId  ID del último evento recibido, enviado por el navegador al reconectar.
+     * @return El emisor de eventos {@code pedido}; un evento {@code reinicio} indica que se perdieron cambios.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter flujo(@RequestParam(value = "estado", required = false) Set<String> estados,
+                            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return flujoPedidoService.suscribir(estados, ultimoEventoId);
+    }
+
+    /**
+     * Obtiene una página de la vista de lectura de pedidos, con el nombre del cliente y de los productos,
+     * usando paginación por cursor. Cada página es una única consulta por rango de IDs, sin joins.
+     *
+     * @param after Cursor devuelto en la página anterior (opcional).
+     * @param limit Tamaño de página solicitado (opcional, limitado por el servidor).
+     * @return ResponseEntity con la lista de pedidos, el cursor siguiente y un mensaje de éxito.
+     */
+    @GetMapping(value = "/vista", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> listarVista(@RequestParam(value = "after", required = false) String after,
+                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            Slice<PedidoVista> pedidos = pedidoVistaService.listarPagina(Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+            ApiResponse<List<PedidoVista>> response = new ApiResponse<>(true, "Lista de pedidos obtenida con éxito", pedidos.getContent(),
+                    Paginacion.siguienteCursor(pedidos, PedidoVista::getId));
+            return ResponseEntity.ok(response);
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Obtiene un pedido de la vista de lectura por su ID, con una consulta por clave primaria.
      *
      * @param id El ID del pedido.
      * @return ResponseEntity con el pedido y un mensaje de éxito, o un mensaje de error si no se encuentra el pedido.
      */
+    @GetMapping(value = "/vista/{id}", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> buscarEnVista(@PathVariable("id") Long id) {
+        try {
+            PedidoVista pedido = pedidoVistaService.buscarPorId(id);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Pedido obtenido con éxito", pedido));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Regenera la vista de lectura de pedidos desde las tablas de pedidos, clientes y productos.
+     *
+     * @return ResponseEntity con el número de pedidos proyectados.
+     */
+    @PostMapping(value = "/vista/reconstruir", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> reconstruirVista() {
+        try {
+            long proyectados = pedidoVistaService.reconstruir();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Vista de pedidos reconstruida con éxito", proyectados));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Obtiene un pedido por su ID.
+     *
+     * @param id     El ID del pedido.
+     * @param fields Campos a devolver separados por comas (opcional).
+     * @return ResponseEntity con el pedido y un mensaje de éxito, o un mensaje de error si no se encuentra el pedido.
+     */
     @GetMapping(value = "/{id}", headers = "X-API-VERSION=1.1.0")
-    public ResponseEntity<?> buscarPorId(@PathVariable("id") Long id) {
+    public ResponseEntity<?> buscarPorId(@PathVariable("id") Long id,
+                                         @RequestParam(value = "fields", required = false) String fields) {
         try {
+            if (fields != null) {
+                return ResponseEntity.ok(new ApiResponse<>(true, "Pedido obtenido con éxito", pedidoService.buscarCamposPorId(id, fields)));
+            }
             Pedido pedido = pedidoService.buscarPorId(id);
-            PedidoDTO pedidoDTO = modelMapper.map(pedido, PedidoDTO.class);
+            PedidoDTO pedidoDTO = pedidoMapper.toDTO(pedido);
 
             ApiResponse<PedidoDTO> response = new ApiResponse<>(true, "Pedido obtenido con éxito", pedidoDTO);
             return ResponseEntity.ok(response);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
@@ -87,20 +295,88 @@ public class PedidoController {
 
     /**
      * Crea un nuevo pedido.
+     * Si se envía la cabecera {@code Idempotency-Key}, un reintento con la misma clave recibe la respuesta
+     * dada la primera vez en lugar de crear otro pedido.
      *
-     * @param pedido El pedido que se desea crear.
+     * @param pedido            El pedido que se desea crear.
+     * @param claveIdempotencia Clave de idempotencia de la petición (opcional).
      * @return ResponseEntity con el pedido creado y un mensaje de éxito, o un mensaje de error si falla la operación.
      */
     @PostMapping(value = "/crear", headers = "X-API-VERSION=1.1.0")
-    public ResponseEntity<?> crearPedido(@RequestBody Pedido pedido) {
+    public ResponseEntity<?> crearPedido(@RequestBody Pedido pedido,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
         try {
-            Pedido nuevoPedido = pedidoService.crearPedido(pedido);
+            JsonNode nuevoPedido = pedidoService.crearPedido(pedido, claveIdempotencia);
             return new ResponseEntity<>(nuevoPedido, HttpStatus.CREATED);
         } catch (IllegalOperationException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    /**
+     * Crea varios pedidos en una sola petición.
+     * Devuelve 201 si se crearon todos, o 207 con el resultado de cada pedido si alguno fue rechazado.
+     *
+     * @param pedidos Los pedidos que se desean crear.
+     * @return ResponseEntity con el resultado de cada pedido, o un mensaje de error si el lote no es válido.
+     */
+    @PostMapping(value = "/batch", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> crearPedidosEnLote(@RequestBody List<PedidoSolicitudDTO> pedidos) {
+        try {
+            List<ResultadoLoteDTO> resultados = pedidoService.crearPedidosEnLote(pedidos);
+            long rechazados = resultados.stream().filter(resultado -> !resultado.isExito()).count();
+            String mensaje = "Lote procesado: " + (resultados.size() - rechazados) + " pedidos creados, " + rechazados + " rechazados";
+
+            HttpStatus estado = rechazados == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(estado).body(new ApiResponse<>(rechazados == 0, mensaje, resultados));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Encola un pedido para crearlo en segundo plano y devuelve un ticket sin esperar a la base de datos.
+     * Devuelve 503 con la cabecera Retry-After si la cola de ingesta está llena o la aplicación se está deteniendo.
+     *
+     * @param pedido El pedido que se desea crear.
+     * @return ResponseEntity 202 con el ticket pendiente, o un mensaje de error si el pedido no es válido.
+     */
+    @PostMapping(value = "/async", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> encolarPedido(@RequestBody PedidoSolicitudDTO pedido) {
+        try {
+            TicketPedidoDTO ticket = ingestaPedidoService.encolar(pedido);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/pedidos/async/" + ticket.getTicket())
+                    .body(new ApiResponse<>(true, "Pedido recibido", ticket));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Consulta el estado de un pedido encolado con {@code POST /api/pedidos/async}.
+     *
+     * @param ticket El ticket devuelto al encolar el pedido.
+     * @return ResponseEntity con el estado del ticket y, si ya se guardó, el ID del pedido.
+     */
+    @GetMapping(value = "/async/{ticket}", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> consultarTicket(@PathVariable("ticket") String ticket) {
+        try {
+            TicketPedidoDTO estado = ingestaPedidoService.consultar(ticket);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Estado del pedido obtenido con éxito", estado));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
     /**
      * Actualiza un pedido por su ID.
      *
@@ -8,16 +8,22 @@
 package com.restaurante.controllers;
 
 import com.restaurante.domain.Perfil;
+import com.restaurante.dto.ResultadoIdDTO;
 import com.restaurante.exception.ErrorResponse;
 import com.restaurante.exception.IllegalOperationException;
 import com.restaurante.services.PerfilService;
+import com.restaurante.util.ApiResponse;
+import com.restaurante.util.ListaIds;
+import com.restaurante.util.Paginacion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.persistence.EntityNotFoundException;
 
+import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -32,19 +38,35 @@ public class PerfilController {
     private PerfilService perfilService;
 
     /**
-     * Obtiene todos los perfiles de usuario.
+     * Obtiene una página de perfiles de usuario usando paginación por cursor.
      *
-     * @return ResponseEntity con la lista de perfiles o sin contenido si no hay perfiles.
+     * @param after Cursor devuelto en la página anterior (opcional).
+     * @param limit Tamaño de página solicitado (opcional, limitado por el servidor).
+     * @param ids   IDs de los perfiles separados por comas (opcional); si se indican, se devuelve un resultado
+     *              por cada ID en el mismo orden, marcando los que no existen, en lugar de una página.
+     * @return ResponseEntity con la lista de perfiles y el cursor siguiente, o sin contenido si no hay perfiles.
      */
     @GetMapping(headers = "X-API-VERSION=1.1.0")
-    public ResponseEntity<?> obtenerTodos() {
+    public ResponseEntity<?> obtenerTodos(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "limit", required = false) Integer limit,
+                                          @RequestParam(value = "ids", required = false) String ids) {
         try {
-            List<Perfil> perfiles = perfilService.listarTodos();
-            if (perfiles == null || perfiles.isEmpty()) {
+            if (ids != null) {
+                List<Long> solicitados = ListaIds.parsear(ids);
+                List<Perfil> encontrados = perfilService.buscarPorIds(new HashSet<>(solicitados));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Perfiles obtenidos con éxito",
+                        ResultadoIdDTO.enOrden(solicitados, encontrados, Perfil::getId)));
+            }
+            Slice<Perfil> perfiles = perfilService.listarPagina(Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+            if (!perfiles.hasContent()) {
                 return ResponseEntity.noContent().build();
             } else {
-                return ResponseEntity.ok(perfiles);
+                List<Perfil> contenido = perfiles.getContent();
+                return ResponseEntity.ok(new ApiResponse<>(true, "Lista de perfiles obtenida con éxito", contenido,
+                        Paginacion.siguienteCursor(perfiles, Perfil::getId)));
             }
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ErrorResponse("Error interno del servidor"));
         }
@@ -7,19 +7,33 @@
 
 package com.restaurante.controllers;
 
+import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.restaurante.domain.Producto;
+import com.restaurante.dto.EstadisticasCatalogoDTO;
 import com.restaurante.dto.ProductoDTO;
+import com.restaurante.dto.ResultadoIdDTO;
+import com.restaurante.dto.ResultadoImportacionDTO;
+import com.restaurante.mapper.ProductoMapper;
+import com.restaurante.services.ImportacionService;
 import com.restaurante.services.ProductoService;
+import com.restaurante.services.VersionesDatos;
 import com.restaurante.util.ApiResponse;
+import com.restaurante.util.Campos;
+import com.restaurante.util.FormatoExportacion;
+import com.restaurante.util.ListaIds;
+import com.restaurante.util.Paginacion;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.IllegalOperationException;
 
@@ -34,23 +48,57 @@ public class ProductoController {
     @Autowired
     private ProductoService productoService;
     @Autowired
-    private ModelMapper modelMapper;
+    private ProductoMapper productoMapper;
+    @Autowired
+    private VersionesDatos versionesDatos;
+
+    @Autowired
+    private ImportacionService importacionService;
 
     /**
-     * Obtiene todos los productos.
+     * Obtiene una página de productos usando paginación por cursor.
+     * Responde 304 sin leer el catálogo si el ETag de la petición coincide con la versión del catálogo.
      *
-     * @return ResponseEntity con la lista de productos.
+     * @param after   Cursor devuelto en la página anterior (opcional).
+     * @param limit   Tamaño de página solicitado (opcional, limitado por el servidor).
+     * @param fields  Campos a devolver separados por comas (opcional); por ejemplo {@code id,nombre,precio}.
+     * @param ids     IDs de los productos separados por comas (opcional); si se indican, se devuelve un resultado
+     *                por cada ID en el mismo orden, marcando los que no existen, en lugar de una página.
+     * @param request La petición, con la cabecera If-None-Match opcional.
+     * @return ResponseEntity con la lista de productos y el cursor siguiente.
      */
     @GetMapping(headers = "X-API-VERSION=1.1.0")
-    public ResponseEntity<?> listarProductos() throws EntityNotFoundException {
+    public ResponseEntity<?> listarProductos(@RequestParam(value = "after", required = false) String after,
+                                             @RequestParam(value = "limit", required = false) Integer limit,
+                                             @RequestParam(value = "fields", required = false) String fields,
+                                             @RequestParam(value = "ids", required = false) String ids,
+                                             WebRequest request) throws EntityNotFoundException {
+        if (request.checkNotModified(versionesDatos.etag(VersionesDatos.Recurso.PRODUCTOS, request.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
     	try {
-            List<Producto> productos = productoService.listarTodos();
-            List<ProductoDTO> productosDTOS = productos.stream()
-                    .map(producto -> modelMapper.map(producto, ProductoDTO.class))
-                    .collect(Collectors.toList());
+            if (ids != null) {
+                if (fields != null) {
+                    throw new IllegalOperationException("El parámetro ids no se puede combinar con fields");
+                }
+                List<Long> solicitados = ListaIds.parsear(ids);
+                List<ProductoDTO> encontrados = productoMapper.toDTOs(productoService.buscarPorIds(new HashSet<>(solicitados)));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Productos obtenidos con éxito",
+                        ResultadoIdDTO.enOrden(solicitados, encontrados, ProductoDTO::getId)));
+            }
+            if (fields != null) {
+                Slice<Map<String, Object>> productos = productoService.listarCampos(fields, Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+                return ResponseEntity.ok(new ApiResponse<>(true, "Lista de productos obtenida con éxito", productos.getContent(),
+                        Paginacion.siguienteCursor(productos, producto -> (Long) producto.get(Campos.ID))));
+            }
+            Slice<Producto> productos = productoService.listarPagina(Paginacion.decodificarCursor(after), Paginacion.limitar(limit));
+            List<ProductoDTO> productosDTOS = productoMapper.toDTOs(productos.getContent());
 
-            ApiResponse<List<ProductoDTO>> response = new ApiResponse<>(true, "Lista de productos obtenida con éxito", productosDTOS);
+            ApiResponse<List<ProductoDTO>> response = new ApiResponse<>(true, "Lista de productos obtenida con éxito", productosDTOS,
+                    Paginacion.siguienteCursor(productos, Producto::getId));
             return ResponseEntity.ok(response);
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
@@ -58,20 +106,33 @@ public class ProductoController {
 
     /**
      * Obtiene un producto por su ID.
+     * Responde 304 sin leer el catálogo si el ETag de la petición coincide con la versión del catálogo.
      *
-     * @param id El ID del producto.
+     * @param id      El ID del producto.
+     * @param fields  Campos a devolver separados por comas (opcional).
+     * @param request La petición, con la cabecera If-None-Match opcional.
      * @return ResponseEntity con el producto encontrado o un mensaje de error si no se encuentra.
      */
     @GetMapping(value = "/{id}", headers = "X-API-VERSION=1.1.0")
-    public ResponseEntity<?> obtenerProductoPorId(@PathVariable Long id) {
+    public ResponseEntity<?> obtenerProductoPorId(@PathVariable Long id,
+                                                  @RequestParam(value = "fields", required = false) String fields,
+                                                  WebRequest request) {
+        if (request.checkNotModified(versionesDatos.etag(VersionesDatos.Recurso.PRODUCTOS, request.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
     	try {
+            if (fields != null) {
+                return ResponseEntity.ok(new ApiResponse<>(true, "Productos obtenidos con éxito", productoService.buscarCamposPorId(id, fields)));
+            }
             Producto producto = productoService.buscarPorId(id);
-            ProductoDTO productoDTO = modelMapper.map(producto, ProductoDTO.class);
+            ProductoDTO productoDTO = productoMapper.toDTO(producto);
 
             ApiResponse<ProductoDTO> response = new ApiResponse<>(true, "Productos obtenidos con éxito", productoDTO);
             return ResponseEntity.ok(response);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
@@ -86,12 +147,14 @@ public class ProductoController {
     @PostMapping(headers = "X-API-VERSION=1.1.0")
     public ResponseEntity<?> guardarProducto(@RequestBody ProductoDTO productoDTO) {
     	 try {
-             Producto producto = modelMapper.map(productoDTO, Producto.class);
+             Producto producto = productoMapper.toEntity(productoDTO);
              productoService.grabar(producto);
 
-             ProductoDTO savedProductoDTO = modelMapper.map(producto, ProductoDTO.class);
+             ProductoDTO savedProductoDTO = productoMapper.toDTO(producto);
              ApiResponse<ProductoDTO> response = new ApiResponse<>(true, "Producto guardado con éxito", savedProductoDTO);
              return ResponseEntity.status(HttpStatus.CREATED).body(response);
+         } catch (IllegalOperationException e) {
+             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
          } catch (Exception e) {
              return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
          }
@@ -107,14 +170,16 @@ public class ProductoController {
     @PutMapping(value = "/{id}", headers = "X-API-VERSION=1.1.0")
     public ResponseEntity<?> actualizarProducto(@PathVariable Long id, @RequestBody ProductoDTO productoDTO) {
     	 try {
-             Producto producto = modelMapper.map(productoDTO, Producto.class);
+             Producto producto = productoMapper.toEntity(productoDTO);
              productoService.actualizar(id, producto);
 
-             ProductoDTO updatedProductoDTO = modelMapper.map(producto, ProductoDTO.class);
+             ProductoDTO updatedProductoDTO = productoMapper.toDTO(producto);
              ApiResponse<ProductoDTO> response = new ApiResponse<>(true, "Producto actualizado con éxito", updatedProductoDTO);
              return ResponseEntity.ok(response);
          } catch (EntityNotFoundException e) {
          	return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null));
+         } catch (IllegalOperationException e) {
+             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
          } catch (Exception e) {
              return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
          }
@@ -140,6 +205,85 @@ public class ProductoController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
         }
     }
-    
-   
+
+    /**
+     * Busca productos por palabras o prefijos de su nombre y descripción, sin distinguir mayúsculas ni tildes.
+     * La búsqueda se resuelve en el índice en memoria del catálogo, sin consultar la base de datos.
+     *
+     * @param q     El texto buscado.
+     * @param limit Número máximo de productos (opcional, limitado por el servidor).
+     * @return ResponseEntity con los productos ordenados por relevancia, o un mensaje de error si la búsqueda no es válida.
+     */
+    @GetMapping(value = "/buscar", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> buscarProductos(@RequestParam("q") String q,
+                                             @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            List<ProductoDTO> productos = productoMapper.toDTOs(productoService.buscar(q, Paginacion.limitar(limit)));
+            return ResponseEntity.ok(new ApiResponse<>(true, "Productos encontrados con éxito", productos));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Obtiene las métricas de la instantánea en memoria del catálogo.
+     *
+     * @return ResponseEntity con los aciertos, fallos y recargas del catálogo.
+     */
+    @GetMapping(value = "/catalogo/estadisticas", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> estadisticasCatalogo() {
+        EstadisticasCatalogoDTO estadisticas = productoService.estadisticasCatalogo();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Estadísticas del catálogo obtenidas con éxito", estadisticas));
+    }
+
+    /**
+     * Fuerza la reconstrucción de la instantánea en memoria del catálogo.
+     *
+     * @return ResponseEntity con las métricas del catálogo tras la recarga.
+     */
+    @PostMapping(value = "/catalogo/refrescar", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> refrescarCatalogo() {
+        try {
+            productoService.refrescarCatalogo();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Catálogo recargado con éxito", productoService.estadisticasCatalogo()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+
+    /**
+     * Importa productos desde un fichero CSV (con cabecera) o NDJSON enviado como cuerpo de la petición.
+     * El fichero se lee en streaming y se guarda por lotes.
+     * Columnas: {@code nombre} (obligatoria), {@code precio} (obligatoria) y {@code descripcion}.
+     * Devuelve 201 si se guardaron todas las filas, 207 con el motivo de cada fila rechazada si alguna se saltó,
+     * o 400 con el informe si la importación se detuvo sin guardar nada.
+     *
+     * @param continuar     true para saltar las filas no válidas; false (por defecto) para detenerse en la primera.
+     * @param tipoContenido La cabecera Content-Type: {@code text/csv} o {@code application/x-ndjson}.
+     * @param entrada       El contenido del fichero.
+     * @return ResponseEntity con el número de filas leídas, guardadas y rechazadas, o un mensaje de error.
+     */
+    @PostMapping(value = "/importar", headers = "X-API-VERSION=1.1.0", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importarProductos(@RequestParam(value = "continuar", defaultValue = "false") boolean continuar,
+                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoContenido,
+                                               InputStream entrada) {
+        try {
+            FormatoExportacion formato = FormatoExportacion.desdeTipoContenido(tipoContenido);
+            ResultadoImportacionDTO resultado = importacionService.importarProductos(entrada, formato, continuar);
+            if (resultado.isDetenida()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponse<>(false, "Importación detenida en una fila rechazada; no se guardó ninguna fila", resultado));
+            }
+            String mensaje = "Importación terminada: " + resultado.getGuardadas() + " productos guardados, "
+                    + resultado.getRechazadas() + " rechazados";
+            HttpStatus estado = resultado.getRechazadas() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(estado).body(new ApiResponse<>(resultado.getRechazadas() == 0, mensaje, resultado));
+        } catch (IllegalOperationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
 }
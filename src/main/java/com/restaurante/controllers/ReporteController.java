@@ -0,0 +1,52 @@
+package com.restaurante.controllers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.restaurante.dto.VentaProductoDTO;
+import com.restaurante.services.ReporteService;
+import com.restaurante.util.ApiResponse;
+
+/**
+ * Controlador REST para los informes de ventas.
+ * Version: 1.1.0
+ */
+@RestController
+@RequestMapping("/api/reportes")
+public class ReporteController {
+
+    @Autowired
+    private ReporteService reporteService;
+
+    /**
+     * Obtiene las unidades e ingresos por producto de un día o de una hora, contando los pedidos entregados.
+     *
+     * @param fecha      El día consultado (ISO-8601, {@code yyyy-MM-dd}).
+     * @param hora       La hora del día, de 0 a 23 (opcional).
+     * @param productoId El ID de un producto para limitar el informe (opcional).
+     * @return ResponseEntity con las ventas por producto, o un mensaje de error si la hora no es válida.
+     */
+    @GetMapping(value = "/ventas", headers = "X-API-VERSION=1.1.0")
+    public ResponseEntity<?> ventas(@RequestParam("fecha") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+                                    @RequestParam(value = "hora", required = false) Integer hora,
+                                    @RequestParam(value = "productoId", required = false) Long productoId) {
+        if (hora != null && (hora < 0 || hora > 23)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(false, "La hora debe estar entre 0 y 23", null));
+        }
+        try {
+            List<VentaProductoDTO> ventas = reporteService.ventas(fecha, hora, productoId);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Informe de ventas obtenido con éxito", ventas));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(false, "Error interno del servidor", null));
+        }
+    }
+}
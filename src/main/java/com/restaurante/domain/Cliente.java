@@ -2,15 +2,26 @@ package com.restaurante.domain;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.restaurante.util.TextoNormalizado;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 /**
@@ -20,7 +31,18 @@ import lombok.Data;
  * Clase que representa un cliente en la persistencia.
  */
 @Entity
+@Table(
+    uniqueConstraints = @UniqueConstraint(name = "uk_cliente_nombre", columnNames = "nombre"),
+    indexes = {
+        @Index(name = "idx_cliente_nombre_busqueda", columnList = "nombre_busqueda"),
+        @Index(name = "idx_cliente_correo_busqueda", columnList = "correo_busqueda"),
+        @Index(name = "idx_cliente_telefono_busqueda", columnList = "telefono_busqueda"),
+        @Index(name = "idx_cliente_telefono_invertido", columnList = "telefono_invertido")
+    }
+)
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente")
 public class Cliente {
     /** 
      * Representa el identificador único para la entidad Cliente. 
@@ -32,6 +54,7 @@ public class Cliente {
     /** 
      * Representa el nombre del cliente. 
      * Limitado a un máximo de 100 caracteres.
+     * Es único: lo garantiza el índice {@code uk_cliente_nombre}.
      */
     
     private String nombre;
@@ -65,6 +88,47 @@ public class Cliente {
     @OneToMany(mappedBy = "cliente")
     @JsonIgnore // Esta anotación evita la serialización de la lista de pedidos en JSON
     private List<Pedido> pedidos;
-}
 
+    /**
+     * Nombre normalizado (minúsculas, sin tildes ni signos) para buscar por prefijo con su índice.
+     */
+    @JsonIgnore
+    @Column(name = "nombre_busqueda", length = 100)
+    private String nombreBusqueda;
+
+    /**
+     * Correo electrónico en minúsculas para buscar por prefijo con su índice.
+     */
+    @JsonIgnore
+    @Column(name = "correo_busqueda", length = 100)
+    private String correoBusqueda;
 
+    /**
+     * Dígitos del número telefónico, para buscar por el principio del número.
+     */
+    @JsonIgnore
+    @Column(name = "telefono_busqueda", length = 20)
+    private String telefonoBusqueda;
+
+    /**
+     * Dígitos del número telefónico en orden inverso, para buscar por el final del número
+     * como un prefijo con su índice.
+     */
+    @JsonIgnore
+    @Column(name = "telefono_invertido", length = 20)
+    private String telefonoInvertido;
+
+    /**
+     * Recalcula las columnas de búsqueda a partir del nombre, el correo y el teléfono.
+     * Se ejecuta antes de cada inserción y actualización.
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalizarBusqueda() {
+        nombreBusqueda = nombre != null ? TextoNormalizado.frase(nombre) : null;
+        correoBusqueda = correoElectronico != null ? TextoNormalizado.normalizar(correoElectronico.trim()) : null;
+        String digitos = numeroTelefonico != null ? TextoNormalizado.digitos(numeroTelefonico) : null;
+        telefonoBusqueda = digitos;
+        telefonoInvertido = digitos != null ? new StringBuilder(digitos).reverse().toString() : null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.restaurante.domain;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Estados de un pedido y transiciones permitidas entre ellos.
+ *
+ * <p>En la API se usa el nombre en minúsculas ({@code "en proceso"}); en la base de datos, un código de un
+ * carácter (ver {@link EstadoPedidoConverter}). Las tablas de búsqueda y de transiciones se construyen una
+ * sola vez, de modo que validar un estado o una transición no crea objetos.</p>
+ */
+public enum EstadoPedido {
+
+    PENDIENTE('P', "pendiente"),
+    EN_PROCESO('E', "en proceso"),
+    ENTREGADO('D', "entregado");
+
+    private static final Map<String, EstadoPedido> POR_NOMBRE = new HashMap<>();
+    private static final EstadoPedido[] POR_CODIGO = new EstadoPedido[128];
+
+    static {
+        for (EstadoPedido estado : values()) {
+            POR_NOMBRE.put(estado.nombre, estado);
+            POR_CODIGO[estado.codigo] = estado;
+        }
+        PENDIENTE.siguientes = EnumSet.of(EN_PROCESO);
+        EN_PROCESO.siguientes = EnumSet.of(PENDIENTE, ENTREGADO);
+        ENTREGADO.siguientes = EnumSet.noneOf(EstadoPedido.class);
+    }
+
+    private final char codigo;
+    private final String nombre;
+    private Set<EstadoPedido> siguientes;
+
+    EstadoPedido(char codigo, String nombre) {
+        this.codigo = codigo;
+        this.nombre = nombre;
+    }
+
+    /**
+     * @return El código de un carácter con el que se guarda el estado.
+     */
+    public char getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * @return El nombre del estado en la API.
+     */
+    @JsonValue
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Indica si un pedido en este estado puede pasar al indicado.
+     *
+     * @param destino El estado de destino.
+     * @return true si la transición está permitida.
+     */
+    public boolean puedePasarA(EstadoPedido destino) {
+        return siguientes.contains(destino);
+    }
+
+    /**
+     * @return true si ningún estado sigue a este.
+     */
+    public boolean esFinal() {
+        return siguientes.isEmpty();
+    }
+
+    /**
+     * Busca un estado por su nombre, sin distinguir mayúsculas.
+     *
+     * @param nombre El nombre del estado.
+     * @return El estado, o null si el nombre es nulo o no corresponde a ninguno.
+     */
+    public static EstadoPedido buscar(String nombre) {
+        if (nombre == null) {
+            return null;
+        }
+        EstadoPedido estado = POR_NOMBRE.get(nombre);
+        return estado != null ? estado : POR_NOMBRE.get(nombre.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Obtiene un estado por su nombre para la deserialización JSON.
+     *
+     * @param nombre El nombre del estado.
+     * @return El estado, o null si el nombre es nulo.
+     * @throws IllegalArgumentException Si el nombre no corresponde a ningún estado.
+     */
+    @JsonCreator
+    public static EstadoPedido desdeNombre(String nombre) {
+        EstadoPedido estado = buscar(nombre);
+        if (estado == null && nombre != null) {
+            throw new IllegalArgumentException("Estado de pedido no válido: " + nombre);
+        }
+        return estado;
+    }
+
+    /**
+     * Obtiene un estado por su código de base de datos.
+     *
+     * @param codigo El código del estado.
+     * @return El estado.
+     * @throws IllegalArgumentException Si el código no corresponde a ningún estado.
+     */
+    public static EstadoPedido desdeCodigo(char codigo) {
+        EstadoPedido estado = codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : null;
+        if (estado == null) {
+            throw new IllegalArgumentException("Código de estado de pedido no válido: " + codigo);
+        }
+        return estado;
+    }
+}
@@ -0,0 +1,21 @@
+package com.restaurante.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda {@link EstadoPedido} como un único carácter en lugar de su nombre.
+ */
+@Converter(autoApply = true)
+public class EstadoPedidoConverter implements AttributeConverter<EstadoPedido, Character> {
+
+    @Override
+    public Character convertToDatabaseColumn(EstadoPedido estado) {
+        return estado != null ? estado.getCodigo() : null;
+    }
+
+    @Override
+    public EstadoPedido convertToEntityAttribute(Character codigo) {
+        return codigo != null ? EstadoPedido.desdeCodigo(codigo) : null;
+    }
+}
@@ -1,18 +1,27 @@
 package com.restaurante.domain;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 /**
@@ -23,8 +32,37 @@ import lombok.Data;
  */
 @Entity
 @Data
+@Table(
+    indexes = {
+        @Index(name = "idx_pedido_fecha", columnList = "fecha"),
+        @Index(name = "idx_pedido_estado", columnList = "estado")
+    },
+    uniqueConstraints = @UniqueConstraint(name = "uk_pedido_clave_idempotencia", columnNames = "clave_idempotencia")
+)
+@NamedEntityGraph(
+    name = Pedido.GRAFO_LISTADO, // Listados: cliente y perfil en la misma consulta; las líneas se cargan por lotes
+    attributeNodes = @NamedAttributeNode(value = "cliente", subgraph = "cliente"),
+    subgraphs = @NamedSubgraph(name = "cliente", attributeNodes = @NamedAttributeNode("perfil"))
+)
+@NamedEntityGraph(
+    name = Pedido.GRAFO_DETALLE, // Detalle: cliente, perfil y líneas en una sola consulta
+    attributeNodes = {
+        @NamedAttributeNode(value = "cliente", subgraph = "cliente"),
+        @NamedAttributeNode("lineas")
+    },
+    subgraphs = @NamedSubgraph(name = "cliente", attributeNodes = @NamedAttributeNode("perfil"))
+)
 public class Pedido {
 
+    /** Nombre del grafo de carga usado en los listados de pedidos. */
+    public static final String GRAFO_LISTADO = "Pedido.listado";
+
+    /** Nombre del grafo de carga usado en el detalle de un pedido. */
+    public static final String GRAFO_DETALLE = "Pedido.detalle";
+
+    /** Longitud máxima de la clave de idempotencia. */
+    public static final int LONGITUD_CLAVE_IDEMPOTENCIA = 100;
+
     /** 
      * Representa el identificador único para el pedido. 
      */
@@ -34,19 +72,22 @@ public class Pedido {
     
     /** 
      * Representa la cantidad del producto en el pedido. 
+     * Cuando el pedido tiene líneas es la suma de sus unidades.
      */
     private int cantidad;
     
     /** 
      * Representa la fecha y hora en que se realizó el pedido. 
+     * Está indexada para los listados e informes por rango de fechas.
      */
     private LocalDateTime fecha;
     
     /** 
      * Representa el estado del pedido. 
-     * Puede tener valores como "En proceso", "Completado", "Cancelado", etc.
+     * Se guarda como un código de un carácter y está indexado para consultar los pedidos de un estado.
      */
-    private String estado;
+    @Column(length = 1)
+    private EstadoPedido estado;
 
     /** 
      * Relación muchos a uno con la entidad Cliente. 
@@ -58,15 +99,69 @@ public class Pedido {
     private Cliente cliente;
 
     /** 
-     * Relación muchos a muchos con la entidad Producto. 
-     * Indica los productos incluidos en el pedido.
+     * Representa el importe total del pedido: la suma de cantidad por precio unitario de sus líneas.
+     * Se recalcula cada vez que cambian las líneas, de modo que los informes lo leen sin recorrerlas.
      */
-    @JsonIgnore // Ignora la serialización de este campo en JSON
-    @ManyToMany // Relación muchos a muchos con la entidad Producto
-    @JoinTable(
-        name = "producto_pedido", // Nombre de la tabla intermedia
-        joinColumns = @JoinColumn(name = "pedido_id"), // Columna que referencia a esta entidad en la tabla intermedia
-        inverseJoinColumns = @JoinColumn(name = "producto_id") // Columna que referencia a la entidad Producto en la tabla intermedia
-    )
-    private List<Producto> productos;
+    private double total;
+
+    /** 
+     * Clave de idempotencia enviada en la cabecera {@code Idempotency-Key} al crear el pedido.
+     * Es única, de modo que un reintento no puede crear un segundo pedido aunque llegue a la vez que el original.
+     */
+    @JsonIgnore
+    @Column(name = "clave_idempotencia", length = Pedido.LONGITUD_CLAVE_IDEMPOTENCIA)
+    private String claveIdempotencia;
+
+    /** 
+     * Relación uno a muchos con la entidad PedidoLinea. 
+     * Indica los productos incluidos en el pedido, con su cantidad y precio.
+     */
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<PedidoLinea> lineas = new ArrayList<>();
+
+    /**
+     * Añade una línea al pedido capturando el precio actual del producto y recalcula el total.
+     * @param producto El producto pedido.
+     * @param cantidad Las unidades pedidas.
+     * @return La línea añadida.
+     */
+    public PedidoLinea agregarLinea(Producto producto, int cantidad) {
+        PedidoLinea linea = new PedidoLinea();
+        linea.setPedido(this);
+        linea.setProducto(producto);
+        linea.setCantidad(cantidad);
+        linea.setPrecioUnitario(producto.getPrecio());
+        lineas.add(linea);
+        recalcularTotal();
+        return linea;
+    }
+
+    /**
+     * Elimina todas las líneas del pedido y deja el total a cero.
+     */
+    public void vaciarLineas() {
+        lineas.clear();
+        recalcularTotal();
+    }
+
+    /**
+     * Recalcula el total y la cantidad del pedido a partir de sus líneas.
+     * Si el pedido no tiene líneas se conserva la cantidad indicada.
+     * Se invoca al añadir o vaciar líneas y antes de insertar el pedido.
+     */
+    @PrePersist
+    public void recalcularTotal() {
+        if (lineas == null || lineas.isEmpty()) {
+            total = 0;
+            return;
+        }
+        long centimos = 0;
+        int unidades = 0;
+        for (PedidoLinea linea : lineas) {
+            centimos += linea.subtotalCentimos();
+            unidades += linea.getCantidad();
+        }
+        total = centimos / 100.0;
+        cantidad = unidades;
+    }
 }
@@ -0,0 +1,70 @@
+package com.restaurante.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Entidad que representa una línea de un pedido: un producto, la cantidad pedida
+ * y el precio unitario vigente cuando se hizo el pedido.
+ */
+@Entity
+@Data
+@Table(name = "pedido_linea")
+public class PedidoLinea {
+
+    /**
+     * Representa el identificador único de la línea.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Relación muchos a uno con la entidad Pedido.
+     * Indica el pedido al que pertenece la línea.
+     */
+    @JsonIgnore // Evita el ciclo pedido -> línea -> pedido en JSON
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    private Pedido pedido;
+
+    /**
+     * Relación muchos a uno con la entidad Producto.
+     * Indica el producto pedido en esta línea.
+     */
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // Permite serializar el proxy perezoso
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    private Producto producto;
+
+    /**
+     * Representa las unidades pedidas del producto.
+     */
+    private int cantidad;
+
+    /**
+     * Representa el precio unitario del producto en el momento del pedido.
+     */
+    private double precioUnitario;
+
+    /**
+     * @return El importe de la línea en céntimos, redondeando el precio unitario al céntimo.
+     */
+    public long subtotalCentimos() {
+        return Math.round(precioUnitario * 100) * cantidad;
+    }
+}
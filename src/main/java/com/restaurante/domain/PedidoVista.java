@@ -0,0 +1,72 @@
+package com.restaurante.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.restaurante.dto.PedidoVistaLineaDTO;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Vista de lectura desnormalizada de un pedido: una fila por pedido con el nombre del cliente y las líneas,
+ * con el nombre de cada producto, en una columna JSON. Se mantiene a partir de los eventos de pedidos,
+ * clientes y productos, y se puede regenerar desde las tablas de origen.
+ * Nunca se escribe desde las peticiones de escritura.
+ */
+@Entity
+@Data
+@Table(name = "pedido_vista", indexes = @Index(name = "idx_pedido_vista_cliente", columnList = "cliente_id"))
+public class PedidoVista {
+
+    /**
+     * Representa el identificador del pedido, que también identifica la fila de la vista.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Representa la fecha del pedido.
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Representa el estado del pedido.
+     */
+    @Column(length = 1)
+    private EstadoPedido estado;
+
+    /**
+     * Representa la cantidad de productos del pedido.
+     */
+    private int cantidad;
+
+    /**
+     * Representa el importe total del pedido.
+     */
+    private double total;
+
+    /**
+     * Representa el identificador del cliente, o null si el pedido no tiene.
+     */
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    /**
+     * Representa el nombre del cliente en el momento de la última proyección.
+     */
+    private String clienteNombre;
+
+    /**
+     * Representa las líneas del pedido con el nombre de cada producto.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<PedidoVistaLineaDTO> lineas;
+}
@@ -2,19 +2,24 @@ package com.restaurante.domain;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 /**
  * Entidad que representa un producto en el sistema.
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_producto_nombre", columnNames = "nombre"))
 @Data
 public class Producto {
     /** 
@@ -27,6 +32,7 @@ public class Producto {
     /** 
      * Representa el nombre del producto. 
      * Limitado a un máximo de 100 caracteres.
+     * Es único: lo garantiza el índice {@code uk_producto_nombre}.
      */
     private String nombre;
     
@@ -51,9 +57,10 @@ public class Producto {
     private Producto variante; // Producto que actúa como variante de este producto
 
     /** 
-     * Relación muchos a muchos con la entidad Pedido. 
-     * Indica los pedidos en los que este producto ha sido incluido.
+     * Relación uno a muchos con la entidad PedidoLinea. 
+     * Indica las líneas de pedido en las que este producto ha sido incluido.
      */
-    @ManyToMany(mappedBy = "productos") // Define una relación muchos a muchos con la entidad Pedido, representando la relación entre los productos y los pedidos
-    private List<Pedido> pedidos; // Pedidos asociados a este producto
+    @JsonIgnore // Evita cargar y serializar las líneas de pedido de cada producto
+    @OneToMany(mappedBy = "producto")
+    private List<PedidoLinea> lineas;
 }
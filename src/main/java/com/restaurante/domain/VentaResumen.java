@@ -0,0 +1,61 @@
+package com.restaurante.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad que representa las ventas acumuladas de un producto en una hora.
+ * La tabla la alimenta el acumulador de ventas en memoria, nunca los pedidos directamente.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "venta_resumen")
+public class VentaResumen {
+
+    /**
+     * Clave compuesta por el producto y la hora.
+     */
+    @EmbeddedId
+    private Clave id;
+
+    /**
+     * Representa las unidades vendidas del producto en la hora.
+     */
+    private long unidades;
+
+    /**
+     * Representa los ingresos del producto en la hora, en céntimos.
+     */
+    private long ingresosCentimos;
+
+    /**
+     * Clave de una fila de ventas acumuladas.
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Representa el identificador del producto.
+         */
+        private Long productoId;
+
+        /**
+         * Representa el inicio de la hora (minutos y segundos a cero).
+         */
+        private LocalDateTime hora;
+    }
+}
@@ -0,0 +1,30 @@
+package com.restaurante.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los siguientes pedidos de un estado, del más antiguo al más reciente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColaEstadoDTO {
+    /**
+     * Estado consultado.
+     */
+    private String estado;
+
+    /**
+     * Número total de pedidos en ese estado.
+     */
+    private long total;
+
+    /**
+     * IDs de los siguientes pedidos, limitados al número solicitado.
+     */
+    private List<Long> pedidosIds;
+}
@@ -0,0 +1,43 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de la caché de respuestas serializadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheRespuestasDTO {
+    /**
+     * Respuestas guardadas en la caché.
+     */
+    private int entradas;
+
+    /**
+     * Bytes ocupados por las respuestas guardadas, incluidas sus copias comprimidas.
+     */
+    private long bytes;
+
+    /**
+     * Bytes máximos de la caché.
+     */
+    private long bytesMaximos;
+
+    /**
+     * Peticiones respondidas desde la caché.
+     */
+    private long aciertos;
+
+    /**
+     * Peticiones que tuvieron que ejecutar el controlador.
+     */
+    private long fallos;
+
+    /**
+     * Respuestas descartadas por falta de espacio.
+     */
+    private long expulsiones;
+}
@@ -0,0 +1,40 @@
+package com.restaurante.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de la instantánea en memoria del catálogo de productos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCatalogoDTO {
+    /**
+     * Número de productos contenidos en la instantánea actual.
+     */
+    private int productos;
+
+    /**
+     * Lecturas resueltas desde la instantánea.
+     */
+    private long aciertos;
+
+    /**
+     * Lecturas que tuvieron que consultar la base de datos.
+     */
+    private long fallos;
+
+    /**
+     * Número de veces que se ha reconstruido la instantánea.
+     */
+    private long recargas;
+
+    /**
+     * Fecha y hora de la última reconstrucción, o null si aún no se ha cargado.
+     */
+    private LocalDateTime ultimaRecarga;
+}
@@ -0,0 +1,38 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de una región de la caché de segundo nivel de Hibernate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasRegionCacheDTO {
+    /**
+     * Nombre de la región.
+     */
+    private String region;
+
+    /**
+     * Lecturas resueltas desde la caché.
+     */
+    private long aciertos;
+
+    /**
+     * Lecturas que no encontraron la entrada en la caché.
+     */
+    private long fallos;
+
+    /**
+     * Entradas escritas en la caché.
+     */
+    private long escrituras;
+
+    /**
+     * Entradas presentes en memoria, o -1 si el proveedor no lo informa.
+     */
+    private long elementos;
+}
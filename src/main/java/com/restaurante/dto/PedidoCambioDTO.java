@@ -0,0 +1,65 @@
+package com.restaurante.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un cambio de pedido enviado a los suscriptores de {@code /api/pedidos/stream}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoCambioDTO {
+
+    public static final String CREADO = "creado";
+    public static final String ACTUALIZADO = "actualizado";
+    public static final String ELIMINADO = "eliminado";
+
+    /**
+     * Número de secuencia del cambio; se envía también como ID del evento.
+     */
+    private long secuencia;
+
+    /**
+     * Tipo de cambio: {@value #CREADO}, {@value #ACTUALIZADO} o {@value #ELIMINADO}.
+     */
+    private String tipo;
+
+    /**
+     * ID del pedido afectado.
+     */
+    private Long pedidoId;
+
+    /**
+     * Estado anterior del pedido, o null si se acaba de crear.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String estadoAnterior;
+
+    /**
+     * Estado actual del pedido, o null si se eliminó.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String estado;
+
+    /**
+     * Fecha del pedido.
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * ID del cliente del pedido, o null si no tiene.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long clienteId;
+
+    /**
+     * Importe total del pedido.
+     */
+    private double total;
+}
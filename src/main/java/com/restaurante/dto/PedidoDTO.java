@@ -4,7 +4,6 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.restaurante.domain.Cliente;
-import com.restaurante.domain.Producto;
 
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -40,7 +39,12 @@ public class PedidoDTO {
     private Cliente cliente;
     
     /** 
-     * Lista de productos incluidos en el pedido. 
+     * Importe total del pedido. 
      */
-    private List<Producto> productos;
+    private double total;
+    
+    /** 
+     * Líneas del pedido: producto, cantidad y precio unitario. 
+     */
+    private List<PedidoLineaDTO> lineas;
 }
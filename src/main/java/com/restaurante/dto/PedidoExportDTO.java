@@ -0,0 +1,55 @@
+package com.restaurante.dto;
+
+import java.time.LocalDateTime;
+
+import com.restaurante.domain.EstadoPedido;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO plano que representa una fila de la exportación de pedidos.
+ * Se construye directamente en la consulta JPQL, por lo que no se cargan entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoExportDTO {
+    /**
+     * Identificador único del pedido.
+     */
+    private Long id;
+
+    /**
+     * Fecha en la que se realizó el pedido.
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Estado actual del pedido.
+     */
+    private String estado;
+
+    /**
+     * Cantidad de productos en el pedido.
+     */
+    private int cantidad;
+
+    /**
+     * Importe total del pedido.
+     */
+    private double total;
+
+    /**
+     * Identificador del cliente que realizó el pedido.
+     */
+    private Long clienteId;
+
+    /**
+     * Constructor usado por la consulta de exportación, que lee el estado como enumerado.
+     */
+    public PedidoExportDTO(Long id, LocalDateTime fecha, EstadoPedido estado, int cantidad, double total, Long clienteId) {
+        this(id, fecha, estado != null ? estado.getNombre() : null, cantidad, total, clienteId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO que representa una línea de un pedido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoLineaDTO {
+    /**
+     * ID del producto pedido.
+     */
+    private Long productoId;
+
+    /**
+     * Unidades pedidas del producto.
+     */
+    private int cantidad;
+
+    /**
+     * Precio unitario del producto en el momento del pedido. Se ignora en las solicitudes.
+     */
+    private double precioUnitario;
+
+    /**
+     * Importe de la línea (cantidad por precio unitario). Se ignora en las solicitudes.
+     */
+    private double subtotal;
+}
@@ -0,0 +1,48 @@
+package com.restaurante.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de entrada de un pedido dentro de una carga por lotes.
+ * Las asociaciones se indican por ID para no tener que cargar las entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoSolicitudDTO {
+    /**
+     * Cantidad de productos en el pedido.
+     */
+    private int cantidad;
+
+    /**
+     * Fecha en la que se realizó el pedido.
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Estado inicial del pedido.
+     */
+    private String estado;
+
+    /**
+     * ID del cliente que realiza el pedido.
+     */
+    private Long clienteId;
+
+    /**
+     * IDs de los productos incluidos en el pedido, con una unidad de cada uno.
+     * Forma abreviada de {@link #lineas}; ambas listas se suman.
+     */
+    private List<Long> productosIds;
+
+    /**
+     * Líneas del pedido con el producto y las unidades pedidas. El precio se toma del producto.
+     */
+    private List<PedidoLineaDTO> lineas;
+}
@@ -0,0 +1,38 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea de pedido desnormalizada de la vista de lectura, con el nombre del producto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoVistaLineaDTO {
+    /**
+     * ID del producto pedido.
+     */
+    private Long productoId;
+
+    /**
+     * Nombre del producto.
+     */
+    private String productoNombre;
+
+    /**
+     * Unidades pedidas del producto.
+     */
+    private int cantidad;
+
+    /**
+     * Precio unitario del producto en el momento del pedido.
+     */
+    private double precioUnitario;
+
+    /**
+     * Importe de la línea (cantidad por precio unitario).
+     */
+    private double subtotal;
+}
@@ -2,8 +2,6 @@ package com.restaurante.dto;
 
 import java.util.List;
 
-import com.restaurante.domain.Producto;
-
 import lombok.Data;
 
 /**
@@ -39,5 +37,5 @@ public class ProductoDTO {
     /** 
      * Lista de IDs de los pedidos asociados a este producto. 
      */
-    private List<Producto> pedidosIds;
+    private List<Long> pedidosIds;
 }
@@ -0,0 +1,61 @@
+package com.restaurante.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de un ID pedido en el parámetro {@code ids}.
+ *
+ * @param <T> El tipo del elemento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoIdDTO<T> {
+    /**
+     * ID solicitado.
+     */
+    private Long id;
+
+    /**
+     * Indica si existe un elemento con ese ID.
+     */
+    private boolean encontrado;
+
+    /**
+     * El elemento, o null si no existe.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private T dato;
+
+    /**
+     * Ordena los elementos encontrados según los IDs pedidos y marca los que no existen.
+     * @param ids         Los IDs pedidos, en orden y con los repetidos.
+     * @param encontrados Los elementos encontrados, en cualquier orden.
+     * @param idDe        Función que obtiene el ID de un elemento.
+     * @param <T>         El tipo de los elementos.
+     * @return Un resultado por cada ID pedido, en el mismo orden.
+     */
+    public static <T> List<ResultadoIdDTO<T>> enOrden(List<Long> ids, Collection<T> encontrados, Function<T, Long> idDe) {
+        Map<Long, T> porId = new HashMap<>();
+        for (T elemento : encontrados) {
+            porId.put(idDe.apply(elemento), elemento);
+        }
+        List<ResultadoIdDTO<T>> resultados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T elemento = porId.get(id);
+            resultados.add(new ResultadoIdDTO<>(id, elemento != null, elemento));
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,42 @@
+package com.restaurante.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de una importación masiva desde un fichero CSV o NDJSON.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionDTO {
+    /**
+     * Filas leídas del fichero, sin contar la cabecera ni las líneas vacías.
+     */
+    private int leidas;
+
+    /**
+     * Filas guardadas.
+     */
+    private int guardadas;
+
+    /**
+     * Filas rechazadas.
+     */
+    private int rechazadas;
+
+    /**
+     * Indica si la importación se detuvo en la primera fila rechazada sin guardar ninguna.
+     */
+    private boolean detenida;
+
+    /**
+     * Filas rechazadas con su posición (empezando en 0, sin contar la cabecera) y el motivo;
+     * solo se incluyen las primeras si hay muchas.
+     */
+    private List<ResultadoLoteDTO> errores = new ArrayList<>();
+}
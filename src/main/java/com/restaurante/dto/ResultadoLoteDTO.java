@@ -0,0 +1,57 @@
+package com.restaurante.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de un elemento de una carga por lotes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    /**
+     * Posición del elemento en el lote recibido (empezando en 0).
+     */
+    private int indice;
+
+    /**
+     * Indica si el elemento se guardó.
+     */
+    private boolean exito;
+
+    /**
+     * ID asignado al elemento guardado, o null si falló.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long id;
+
+    /**
+     * Motivo del fallo, o null si se guardó.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String mensaje;
+
+    /**
+     * Crea el resultado de un elemento guardado.
+     * @param indice La posición del elemento en el lote.
+     * @param id     El ID asignado.
+     * @return El resultado correcto.
+     */
+    public static ResultadoLoteDTO correcto(int indice, Long id) {
+        return new ResultadoLoteDTO(indice, true, id, null);
+    }
+
+    /**
+     * Crea el resultado de un elemento rechazado.
+     * @param indice  La posición del elemento en el lote.
+     * @param mensaje El motivo del rechazo.
+     * @return El resultado fallido.
+     */
+    public static ResultadoLoteDTO fallido(int indice, String mensaje) {
+        return new ResultadoLoteDTO(indice, false, null, mensaje);
+    }
+}
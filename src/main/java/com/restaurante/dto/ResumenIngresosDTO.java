@@ -0,0 +1,23 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los ingresos de los pedidos de un periodo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenIngresosDTO {
+    /**
+     * Número de pedidos del periodo.
+     */
+    private long pedidos;
+
+    /**
+     * Suma de los totales de los pedidos del periodo.
+     */
+    private double ingresos;
+}
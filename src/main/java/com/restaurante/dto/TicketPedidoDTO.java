@@ -0,0 +1,63 @@
+package com.restaurante.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado de un pedido recibido por la ingesta asíncrona.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketPedidoDTO {
+
+    public static final String PENDIENTE = "pendiente";
+    public static final String CREADO = "creado";
+    public static final String RECHAZADO = "rechazado";
+
+    /**
+     * Identificador del ticket devuelto al encolar el pedido.
+     */
+    private String ticket;
+
+    /**
+     * Estado del ticket: {@value #PENDIENTE}, {@value #CREADO} o {@value #RECHAZADO}.
+     */
+    private String estado;
+
+    /**
+     * ID del pedido guardado, o null si aún no se ha guardado o fue rechazado.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long pedidoId;
+
+    /**
+     * Motivo del rechazo, o null si no fue rechazado.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String mensaje;
+
+    /**
+     * Crea el ticket de un pedido recién encolado.
+     * @param ticket El identificador del ticket.
+     * @return El ticket pendiente.
+     */
+    public static TicketPedidoDTO pendiente(String ticket) {
+        return new TicketPedidoDTO(ticket, PENDIENTE, null, null);
+    }
+
+    /**
+     * Crea el ticket resuelto a partir del resultado de su pedido en el lote guardado.
+     * @param ticket    El identificador del ticket.
+     * @param resultado El resultado del pedido en el lote.
+     * @return El ticket creado o rechazado.
+     */
+    public static TicketPedidoDTO resuelto(String ticket, ResultadoLoteDTO resultado) {
+        return resultado.isExito()
+                ? new TicketPedidoDTO(ticket, CREADO, resultado.getId(), null)
+                : new TicketPedidoDTO(ticket, RECHAZADO, null, resultado.getMensaje());
+    }
+}
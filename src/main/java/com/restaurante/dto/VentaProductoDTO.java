@@ -0,0 +1,39 @@
+package com.restaurante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las ventas de un producto en un periodo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VentaProductoDTO {
+    /**
+     * ID del producto.
+     */
+    private Long productoId;
+
+    /**
+     * Unidades vendidas en el periodo.
+     */
+    private long unidades;
+
+    /**
+     * Ingresos del periodo.
+     */
+    private double ingresos;
+
+    /**
+     * Constructor usado por las consultas agregadas, que devuelven los ingresos en céntimos.
+     *
+     * @param productoId       ID del producto.
+     * @param unidades         Unidades vendidas.
+     * @param ingresosCentimos Ingresos en céntimos.
+     */
+    public VentaProductoDTO(Long productoId, Long unidades, Long ingresosCentimos) {
+        this(productoId, unidades, ingresosCentimos / 100.0);
+    }
+}
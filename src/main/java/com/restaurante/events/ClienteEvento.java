@@ -0,0 +1,15 @@
+package com.restaurante.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado por el servicio de clientes cuando se crea, modifica o elimina un cliente.
+ * Los oyentes lo procesan una vez confirmada la transacción que lo originó.
+ */
+@Value
+public class ClienteEvento {
+    /**
+     * Identificador del cliente afectado.
+     */
+    Long clienteId;
+}
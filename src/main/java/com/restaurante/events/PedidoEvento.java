@@ -0,0 +1,68 @@
+package com.restaurante.events;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.dto.PedidoLineaDTO;
+
+import lombok.Value;
+
+/**
+ * Evento publicado por el servicio de pedidos cuando se crea, modifica o elimina un pedido.
+ * Lleva los datos del pedido antes y después del cambio para que los oyentes no tengan que
+ * consultar la base de datos. Los oyentes lo procesan una vez confirmada la transacción que lo originó.
+ */
+@Value
+public class PedidoEvento {
+    /**
+     * Identificador del pedido afectado.
+     */
+    Long pedidoId;
+
+    /**
+     * Datos del pedido antes del cambio, o null si el pedido se acaba de crear.
+     */
+    Datos anterior;
+
+    /**
+     * Datos del pedido después del cambio, o null si el pedido se eliminó.
+     */
+    Datos actual;
+
+    /**
+     * Copia inmutable de los datos de un pedido en un momento dado.
+     */
+    @Value
+    public static class Datos {
+        /**
+         * Fecha del pedido.
+         */
+        LocalDateTime fecha;
+
+        /**
+         * Estado del pedido.
+         */
+        EstadoPedido estado;
+
+        /**
+         * Cantidad de productos del pedido.
+         */
+        int cantidad;
+
+        /**
+         * ID del cliente del pedido, o null si no tiene.
+         */
+        Long clienteId;
+
+        /**
+         * Importe total del pedido.
+         */
+        double total;
+
+        /**
+         * Líneas del pedido.
+         */
+        List<PedidoLineaDTO> lineas;
+    }
+}
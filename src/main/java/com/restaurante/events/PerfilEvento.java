@@ -0,0 +1,15 @@
+package com.restaurante.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado por el servicio de perfiles cuando se crea, modifica o elimina un perfil.
+ * Los oyentes lo procesan una vez confirmada la transacción que lo originó.
+ */
+@Value
+public class PerfilEvento {
+    /**
+     * Identificador del perfil afectado.
+     */
+    Long perfilId;
+}
@@ -0,0 +1,15 @@
+package com.restaurante.events;
+
+import lombok.Value;
+
+/**
+ * Evento publicado por el servicio de productos cuando se crea, modifica o elimina un producto.
+ * Los oyentes lo procesan una vez confirmada la transacción que lo originó.
+ */
+@Value
+public class ProductoEvento {
+    /**
+     * Identificador del producto afectado.
+     */
+    Long productoId;
+}
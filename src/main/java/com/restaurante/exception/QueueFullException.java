@@ -0,0 +1,28 @@
+package com.restaurante.exception;
+
+/**
+ * Excepción que indica que una cola de trabajo está llena y la petición debe reintentarse más tarde.
+ */
+public class QueueFullException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /** Segundos que se recomienda esperar antes de reintentar. */
+    private final long reintentarEnSegundos;
+
+    /**
+     * Constructor que crea una nueva instancia de QueueFullException.
+     * @param message              El mensaje de error.
+     * @param reintentarEnSegundos Los segundos que se recomienda esperar antes de reintentar.
+     */
+    public QueueFullException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    /**
+     * @return Los segundos que se recomienda esperar antes de reintentar.
+     */
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -0,0 +1,37 @@
+package com.restaurante.mapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Utilidades para mapear asociaciones a IDs sin inicializar proxies ni colecciones perezosas.
+ */
+final class Asociaciones {
+
+    private Asociaciones() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    /**
+     * Obtiene los IDs de una colección solo si ya está cargada.
+     *
+     * @param coleccion   La colección asociada (puede ser una colección perezosa de Hibernate).
+     * @param extractorId Función que obtiene el ID de cada elemento.
+     * @param <T>         El tipo de los elementos de la colección.
+     * @return La lista de IDs, o null si la colección es nula o no está inicializada.
+     */
+    static <T> List<Long> idsSiCargada(Collection<T> coleccion, Function<T, Long> extractorId) {
+        if (coleccion == null || !Hibernate.isInitialized(coleccion)) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>(coleccion.size());
+        for (T elemento : coleccion) {
+            ids.add(extractorId.apply(elemento));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,70 @@
+package com.restaurante.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Pedido;
+import com.restaurante.dto.ClienteDTO;
+
+/**
+ * Mapeador escrito a mano entre la entidad Cliente y ClienteDTO.
+ * No usa reflexión y no inicializa asociaciones perezosas.
+ */
+@Component
+public class ClienteMapper {
+
+    /**
+     * Convierte un cliente en su DTO.
+     *
+     * @param cliente El cliente a convertir.
+     * @return El DTO del cliente, o null si el cliente es nulo.
+     */
+    public ClienteDTO toDTO(Cliente cliente) {
+        if (cliente == null) {
+            return null;
+        }
+        ClienteDTO dto = new ClienteDTO();
+        dto.setId(cliente.getId());
+        dto.setNombre(cliente.getNombre());
+        dto.setCorreoElectronico(cliente.getCorreoElectronico());
+        dto.setNumeroTelefonico(cliente.getNumeroTelefonico());
+        dto.setPerfilId(cliente.getPerfil() != null ? cliente.getPerfil().getId() : null);
+        dto.setPedidosIds(Asociaciones.idsSiCargada(cliente.getPedidos(), Pedido::getId));
+        return dto;
+    }
+
+    /**
+     * Convierte una lista de clientes en DTOs.
+     *
+     * @param clientes Los clientes a convertir.
+     * @return La lista de DTOs en el mismo orden.
+     */
+    public List<ClienteDTO> toDTOs(List<Cliente> clientes) {
+        List<ClienteDTO> dtos = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes) {
+            dtos.add(toDTO(cliente));
+        }
+        return dtos;
+    }
+
+    /**
+     * Convierte un DTO en una entidad Cliente con sus datos básicos.
+     *
+     * @param dto El DTO a convertir.
+     * @return La entidad Cliente, o null si el DTO es nulo.
+     */
+    public Cliente toEntity(ClienteDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Cliente cliente = new Cliente();
+        cliente.setId(dto.getId());
+        cliente.setNombre(dto.getNombre());
+        cliente.setCorreoElectronico(dto.getCorreoElectronico());
+        cliente.setNumeroTelefonico(dto.getNumeroTelefonico());
+        return cliente;
+    }
+}
@@ -0,0 +1,75 @@
+package com.restaurante.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.PedidoLinea;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoLineaDTO;
+
+/**
+ * Mapeador escrito a mano entre la entidad Pedido y PedidoDTO.
+ * No usa reflexión; el cliente se copia por referencia y las líneas se convierten a DTO
+ * solo si ya están cargadas.
+ */
+@Component
+public class PedidoMapper {
+
+    /**
+     * Convierte un pedido en su DTO.
+     *
+     * @param pedido El pedido a convertir.
+     * @return El DTO del pedido, o null si el pedido es nulo.
+     */
+    public PedidoDTO toDTO(Pedido pedido) {
+        if (pedido == null) {
+            return null;
+        }
+        PedidoDTO dto = new PedidoDTO();
+        dto.setId(pedido.getId());
+        dto.setCantidad(pedido.getCantidad());
+        dto.setFecha(pedido.getFecha());
+        dto.setEstado(pedido.getEstado() != null ? pedido.getEstado().getNombre() : null);
+        dto.setCliente(pedido.getCliente());
+        dto.setTotal(pedido.getTotal());
+        // Como en ClienteMapper, una colección perezosa sin cargar no se inicializa desde aquí.
+        if (pedido.getLineas() != null && Hibernate.isInitialized(pedido.getLineas())) {
+            List<PedidoLineaDTO> lineas = new ArrayList<>(pedido.getLineas().size());
+            for (PedidoLinea linea : pedido.getLineas()) {
+                lineas.add(toDTO(linea));
+            }
+            dto.setLineas(lineas);
+        }
+        return dto;
+    }
+
+    /**
+     * Convierte una línea de pedido en su DTO sin inicializar el producto: su ID se lee del proxy.
+     *
+     * @param linea La línea a convertir.
+     * @return El DTO de la línea.
+     */
+    public PedidoLineaDTO toDTO(PedidoLinea linea) {
+        Long productoId = linea.getProducto() != null ? linea.getProducto().getId() : null;
+        return new PedidoLineaDTO(productoId, linea.getCantidad(), linea.getPrecioUnitario(),
+                linea.subtotalCentimos() / 100.0);
+    }
+
+    /**
+     * Convierte una lista de pedidos en DTOs.
+     *
+     * @param pedidos Los pedidos a convertir.
+     * @return La lista de DTOs en el mismo orden.
+     */
+    public List<PedidoDTO> toDTOs(List<Pedido> pedidos) {
+        List<PedidoDTO> dtos = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            dtos.add(toDTO(pedido));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,71 @@
+package com.restaurante.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Perfil;
+import com.restaurante.dto.PerfilDTO;
+
+/**
+ * Mapeador escrito a mano entre la entidad Perfil y PerfilDTO.
+ * El cliente se representa por su ID sin inicializar el proxy.
+ */
+@Component
+public class PerfilMapper {
+
+    /**
+     * Convierte un perfil en su DTO.
+     *
+     * @param perfil El perfil a convertir.
+     * @return El DTO del perfil, o null si el perfil es nulo.
+     */
+    public PerfilDTO toDTO(Perfil perfil) {
+        if (perfil == null) {
+            return null;
+        }
+        PerfilDTO dto = new PerfilDTO();
+        dto.setId(perfil.getId());
+        dto.setPreferencias(perfil.getPreferencias());
+        dto.setClienteId(perfil.getCliente() != null ? perfil.getCliente().getId() : null);
+        return dto;
+    }
+
+    /**
+     * Convierte una lista de perfiles en DTOs.
+     *
+     * @param perfiles Los perfiles a convertir.
+     * @return La lista de DTOs en el mismo orden.
+     */
+    public List<PerfilDTO> toDTOs(List<Perfil> perfiles) {
+        List<PerfilDTO> dtos = new ArrayList<>(perfiles.size());
+        for (Perfil perfil : perfiles) {
+            dtos.add(toDTO(perfil));
+        }
+        return dtos;
+    }
+
+    /**
+     * Convierte un DTO en una entidad Perfil. El cliente se representa
+     * únicamente por su ID para que JPA lo resuelva como referencia.
+     *
+     * @param dto El DTO a convertir.
+     * @return La entidad Perfil, o null si el DTO es nulo.
+     */
+    public Perfil toEntity(PerfilDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Perfil perfil = new Perfil();
+        perfil.setId(dto.getId());
+        perfil.setPreferencias(dto.getPreferencias());
+        if (dto.getClienteId() != null) {
+            Cliente cliente = new Cliente();
+            cliente.setId(dto.getClienteId());
+            perfil.setCliente(cliente);
+        }
+        return perfil;
+    }
+}
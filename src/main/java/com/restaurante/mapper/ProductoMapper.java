@@ -0,0 +1,114 @@
+package com.restaurante.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.ProductoDTO;
+
+/**
+ * Mapeador escrito a mano entre la entidad Producto y ProductoDTO.
+ * No usa reflexión: si la variante es un proxy sin inicializar solo se copia su ID,
+ * y los IDs de los pedidos solo se incluyen si sus líneas ya están cargadas.
+ */
+@Component
+public class ProductoMapper {
+
+    /**
+     * Convierte un producto en su DTO, incluyendo su cadena de variantes ya cargadas.
+     *
+     * @param producto El producto a convertir.
+     * @return El DTO del producto, o null si el producto es nulo.
+     */
+    public ProductoDTO toDTO(Producto producto) {
+        return toDTO(producto, new ArrayList<>(2));
+    }
+
+    /**
+     * Convierte una lista de productos en DTOs.
+     *
+     * @param productos Los productos a convertir.
+     * @return La lista de DTOs en el mismo orden.
+     */
+    public List<ProductoDTO> toDTOs(List<Producto> productos) {
+        List<ProductoDTO> dtos = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            dtos.add(toDTO(producto));
+        }
+        return dtos;
+    }
+
+    /**
+     * Convierte un DTO en una entidad Producto. La variante se representa
+     * únicamente por su ID para que JPA la resuelva como referencia.
+     *
+     * @param dto El DTO a convertir.
+     * @return La entidad Producto, o null si el DTO es nulo.
+     */
+    public Producto toEntity(ProductoDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Producto producto = new Producto();
+        producto.setId(dto.getId());
+        producto.setNombre(dto.getNombre());
+        producto.setDescripcion(dto.getDescripcion());
+        producto.setPrecio(dto.getPrecio());
+        if (dto.getVariante() != null && dto.getVariante().getId() != null) {
+            Producto variante = new Producto();
+            variante.setId(dto.getVariante().getId());
+            producto.setVariante(variante);
+        }
+        return producto;
+    }
+
+    /**
+     * Convierte un producto evitando ciclos en la cadena de variantes.
+     *
+     * @param producto  El producto a convertir.
+     * @param visitados Los productos ya convertidos en la cadena actual.
+     * @return El DTO del producto.
+     */
+    private ProductoDTO toDTO(Producto producto, List<Producto> visitados) {
+        if (producto == null) {
+            return null;
+        }
+        ProductoDTO dto = new ProductoDTO();
+        dto.setId(producto.getId());
+        if (!Hibernate.isInitialized(producto)) {
+            return dto;
+        }
+        dto.setNombre(producto.getNombre());
+        dto.setDescripcion(producto.getDescripcion());
+        dto.setPrecio(producto.getPrecio());
+        dto.setPedidosIds(Asociaciones.idsSiCargada(producto.getLineas(), linea -> linea.getPedido().getId()));
+
+        Producto variante = producto.getVariante();
+        if (variante != null) {
+            visitados.add(producto);
+            if (contiene(visitados, variante)) {
+                ProductoDTO referencia = new ProductoDTO();
+                referencia.setId(variante.getId());
+                dto.setVariante(referencia);
+            } else {
+                dto.setVariante(toDTO(variante, visitados));
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Comprueba por identidad si un producto ya fue visitado.
+     */
+    private static boolean contiene(List<Producto> visitados, Producto producto) {
+        for (Producto visitado : visitados) {
+            if (visitado == producto) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
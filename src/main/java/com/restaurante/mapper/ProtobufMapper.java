@@ -0,0 +1,386 @@
+package com.restaurante.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Perfil;
+import com.restaurante.dto.ClienteDTO;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.PedidoLineaDTO;
+import com.restaurante.dto.PerfilDTO;
+import com.restaurante.dto.ProductoDTO;
+import com.restaurante.dto.ResultadoIdDTO;
+import com.restaurante.util.ApiResponse;
+
+/**
+ * Codificador escrito a mano de las respuestas de la API en Protocol Buffers, según el esquema
+ * {@code src/main/proto/restaurante.proto}.
+ *
+ * <p>No usa clases generadas ni reflexión: cada mensaje tiene un método que calcula su tamaño y otro
+ * que lo escribe, porque los mensajes anidados van precedidos de su longitud. Como en proto3, los
+ * valores nulos, cero o vacíos no se escriben. Los perfiles se aceptan como DTO o como entidad,
+ * que es lo que devuelve el controlador de perfiles.</p>
+ */
+@Component
+public class ProtobufMapper {
+
+    private static final DateTimeFormatter FECHA = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /** Números de campo del mensaje Respuesta. */
+    private static final int RESPUESTA_SUCCESS = 1;
+    private static final int RESPUESTA_MESSAGE = 2;
+    private static final int RESPUESTA_PRODUCTOS = 3;
+    private static final int RESPUESTA_CLIENTES = 4;
+    private static final int RESPUESTA_PERFILES = 5;
+    private static final int RESPUESTA_PEDIDOS = 6;
+    private static final int RESPUESTA_NEXT_CURSOR = 7;
+    private static final int RESPUESTA_NO_ENCONTRADOS = 8;
+
+    /**
+     * Indica si los datos de una respuesta tienen representación en el esquema.
+     *
+     * @param datos Los datos de la respuesta: nulo, un DTO admitido o una lista de ellos o de
+     *              {@link ResultadoIdDTO} con DTO admitidos.
+     * @return true si se pueden codificar.
+     */
+    public boolean admite(Object datos) {
+        if (datos instanceof List<?> lista) {
+            for (Object elemento : lista) {
+                if (campoDe(elemento) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return datos == null || campoDe(datos) != 0;
+    }
+
+    /**
+     * Calcula el tamaño codificado de una respuesta.
+     *
+     * @param respuesta La respuesta, con datos admitidos.
+     * @return El número de bytes que escribirá {@link #escribir}.
+     */
+    public int tamano(ApiResponse<?> respuesta) {
+        int tamano = 0;
+        if (respuesta.isSuccess()) {
+            tamano += CodedOutputStream.computeBoolSize(RESPUESTA_SUCCESS, true);
+        }
+        tamano += tamanoTexto(RESPUESTA_MESSAGE, respuesta.getMessage());
+        Object datos = respuesta.getData();
+        if (datos instanceof List<?> lista) {
+            for (Object elemento : lista) {
+                tamano += tamanoElemento(elemento);
+            }
+        } else if (datos != null) {
+            tamano += tamanoElemento(datos);
+        }
+        tamano += tamanoTexto(RESPUESTA_NEXT_CURSOR, respuesta.getNextCursor());
+        return tamano;
+    }
+
+    /**
+     * Escribe una respuesta como mensaje Respuesta.
+     *
+     * @param respuesta La respuesta, con datos admitidos.
+     * @param salida    El flujo de salida; no se cierra.
+     * @throws IOException Si falla la escritura.
+     */
+    public void escribir(ApiResponse<?> respuesta, OutputStream salida) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(salida);
+        if (respuesta.isSuccess()) {
+            out.writeBool(RESPUESTA_SUCCESS, true);
+        }
+        escribirTexto(out, RESPUESTA_MESSAGE, respuesta.getMessage());
+        Object datos = respuesta.getData();
+        if (datos instanceof List<?> lista) {
+            for (Object elemento : lista) {
+                escribirElemento(out, elemento);
+            }
+        } else if (datos != null) {
+            escribirElemento(out, datos);
+        }
+        escribirTexto(out, RESPUESTA_NEXT_CURSOR, respuesta.getNextCursor());
+        out.flush();
+    }
+
+    /**
+     * Obtiene el campo de Respuesta en el que va un elemento de datos, o 0 si no está admitido.
+     */
+    private static int campoDe(Object elemento) {
+        if (elemento instanceof ResultadoIdDTO<?> resultado) {
+            return resultado.getDato() != null ? campoDe(resultado.getDato()) : RESPUESTA_NO_ENCONTRADOS;
+        }
+        if (elemento instanceof ProductoDTO) return RESPUESTA_PRODUCTOS;
+        if (elemento instanceof ClienteDTO) return RESPUESTA_CLIENTES;
+        if (elemento instanceof PerfilDTO || elemento instanceof Perfil) return RESPUESTA_PERFILES;
+        if (elemento instanceof PedidoDTO) return RESPUESTA_PEDIDOS;
+        return 0;
+    }
+
+    /**
+     * Un resultado de {@code ?ids=} se codifica como su elemento, o como ID no encontrado.
+     */
+    private static int tamanoElemento(Object elemento) {
+        if (elemento instanceof ResultadoIdDTO<?> resultado) {
+            return resultado.getDato() != null ? tamanoElemento(resultado.getDato())
+                    : CodedOutputStream.computeInt64Size(RESPUESTA_NO_ENCONTRADOS, resultado.getId());
+        }
+        return tamanoAnidado(campoDe(elemento), tamanoDatos(elemento));
+    }
+
+    private static void escribirElemento(CodedOutputStream out, Object elemento) throws IOException {
+        if (elemento instanceof ResultadoIdDTO<?> resultado) {
+            if (resultado.getDato() != null) {
+                escribirElemento(out, resultado.getDato());
+            } else {
+                out.writeInt64(RESPUESTA_NO_ENCONTRADOS, resultado.getId());
+            }
+            return;
+        }
+        escribirDatos(out, elemento);
+    }
+
+    private static int tamanoDatos(Object elemento) {
+        if (elemento instanceof ProductoDTO producto) return tamanoProducto(producto);
+        if (elemento instanceof ClienteDTO cliente) return tamanoCliente(cliente);
+        if (elemento instanceof PerfilDTO perfil) return tamanoPerfil(perfil.getId(), perfil.getPreferencias(), perfil.getClienteId());
+        if (elemento instanceof Perfil perfil) return tamanoPerfil(perfil.getId(), perfil.getPreferencias(), idCliente(perfil));
+        return tamanoPedido((PedidoDTO) elemento);
+    }
+
+    private static void escribirDatos(CodedOutputStream out, Object elemento) throws IOException {
+        int campo = campoDe(elemento);
+        out.writeTag(campo, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(tamanoDatos(elemento));
+        if (elemento instanceof ProductoDTO producto) {
+            escribirProducto(out, producto);
+        } else if (elemento instanceof ClienteDTO cliente) {
+            escribirCliente(out, cliente);
+        } else if (elemento instanceof PerfilDTO perfil) {
+            escribirPerfil(out, perfil.getId(), perfil.getPreferencias(), perfil.getClienteId());
+        } else if (elemento instanceof Perfil perfil) {
+            escribirPerfil(out, perfil.getId(), perfil.getPreferencias(), idCliente(perfil));
+        } else {
+            escribirPedido(out, (PedidoDTO) elemento);
+        }
+    }
+
+    // Producto: id = 1, nombre = 2, descripcion = 3, precio = 4, variante = 5, pedidos_ids = 6.
+
+    private static int tamanoProducto(ProductoDTO producto) {
+        int tamano = tamanoId(1, producto.getId())
+                + tamanoTexto(2, producto.getNombre())
+                + tamanoTexto(3, producto.getDescripcion())
+                + tamanoDouble(4, producto.getPrecio())
+                + tamanoIds(6, producto.getPedidosIds());
+        if (producto.getVariante() != null) {
+            tamano += tamanoAnidado(5, tamanoProducto(producto.getVariante()));
+        }
+        return tamano;
+    }
+
+    private static void escribirProducto(CodedOutputStream out, ProductoDTO producto) throws IOException {
+        escribirId(out, 1, producto.getId());
+        escribirTexto(out, 2, producto.getNombre());
+        escribirTexto(out, 3, producto.getDescripcion());
+        escribirDouble(out, 4, producto.getPrecio());
+        if (producto.getVariante() != null) {
+            out.writeTag(5, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(tamanoProducto(producto.getVariante()));
+            escribirProducto(out, producto.getVariante());
+        }
+        escribirIds(out, 6, producto.getPedidosIds());
+    }
+
+    // Cliente: id = 1, nombre = 2, correo_electronico = 3, numero_telefonico = 4, perfil_id = 5, pedidos_ids = 6.
+
+    private static int tamanoCliente(ClienteDTO cliente) {
+        return tamanoId(1, cliente.getId())
+                + tamanoTexto(2, cliente.getNombre())
+                + tamanoTexto(3, cliente.getCorreoElectronico())
+                + tamanoTexto(4, cliente.getNumeroTelefonico())
+                + tamanoId(5, cliente.getPerfilId())
+                + tamanoIds(6, cliente.getPedidosIds());
+    }
+
+    private static void escribirCliente(CodedOutputStream out, ClienteDTO cliente) throws IOException {
+        escribirId(out, 1, cliente.getId());
+        escribirTexto(out, 2, cliente.getNombre());
+        escribirTexto(out, 3, cliente.getCorreoElectronico());
+        escribirTexto(out, 4, cliente.getNumeroTelefonico());
+        escribirId(out, 5, cliente.getPerfilId());
+        escribirIds(out, 6, cliente.getPedidosIds());
+    }
+
+    /**
+     * Tamaño del cliente de un pedido, que llega como entidad; solo se usan sus datos propios
+     * para no inicializar asociaciones perezosas.
+     */
+    private static int tamanoClienteDePedido(Cliente cliente) {
+        return tamanoId(1, cliente.getId())
+                + tamanoTexto(2, cliente.getNombre())
+                + tamanoTexto(3, cliente.getCorreoElectronico())
+                + tamanoTexto(4, cliente.getNumeroTelefonico());
+    }
+
+    private static void escribirClienteDePedido(CodedOutputStream out, Cliente cliente) throws IOException {
+        escribirId(out, 1, cliente.getId());
+        escribirTexto(out, 2, cliente.getNombre());
+        escribirTexto(out, 3, cliente.getCorreoElectronico());
+        escribirTexto(out, 4, cliente.getNumeroTelefonico());
+    }
+
+    // Perfil: id = 1, preferencias = 2, cliente_id = 3.
+
+    private static int tamanoPerfil(Long id, String preferencias, Long clienteId) {
+        return tamanoId(1, id) + tamanoTexto(2, preferencias) + tamanoId(3, clienteId);
+    }
+
+    private static void escribirPerfil(CodedOutputStream out, Long id, String preferencias, Long clienteId) throws IOException {
+        escribirId(out, 1, id);
+        escribirTexto(out, 2, preferencias);
+        escribirId(out, 3, clienteId);
+    }
+
+    private static Long idCliente(Perfil perfil) {
+        return perfil.getCliente() != null ? perfil.getCliente().getId() : null;
+    }
+
+    // PedidoLinea: producto_id = 1, cantidad = 2, precio_unitario = 3, subtotal = 4.
+
+    private static int tamanoLinea(PedidoLineaDTO linea) {
+        return tamanoId(1, linea.getProductoId())
+                + tamanoEntero(2, linea.getCantidad())
+                + tamanoDouble(3, linea.getPrecioUnitario())
+                + tamanoDouble(4, linea.getSubtotal());
+    }
+
+    private static void escribirLinea(CodedOutputStream out, PedidoLineaDTO linea) throws IOException {
+        escribirId(out, 1, linea.getProductoId());
+        escribirEntero(out, 2, linea.getCantidad());
+        escribirDouble(out, 3, linea.getPrecioUnitario());
+        escribirDouble(out, 4, linea.getSubtotal());
+    }
+
+    // Pedido: id = 1, cantidad = 2, fecha = 3, estado = 4, cliente = 5, total = 6, lineas = 7.
+
+    private static int tamanoPedido(PedidoDTO pedido) {
+        int tamano = tamanoId(1, pedido.getId())
+                + tamanoEntero(2, pedido.getCantidad())
+                + tamanoTexto(3, pedido.getFecha() != null ? FECHA.format(pedido.getFecha()) : null)
+                + tamanoTexto(4, pedido.getEstado())
+                + tamanoDouble(6, pedido.getTotal());
+        if (pedido.getCliente() != null) {
+            tamano += tamanoAnidado(5, tamanoClienteDePedido(pedido.getCliente()));
+        }
+        if (pedido.getLineas() != null) {
+            for (PedidoLineaDTO linea : pedido.getLineas()) {
+                tamano += tamanoAnidado(7, tamanoLinea(linea));
+            }
+        }
+        return tamano;
+    }
+
+    private static void escribirPedido(CodedOutputStream out, PedidoDTO pedido) throws IOException {
+        escribirId(out, 1, pedido.getId());
+        escribirEntero(out, 2, pedido.getCantidad());
+        escribirTexto(out, 3, pedido.getFecha() != null ? FECHA.format(pedido.getFecha()) : null);
+        escribirTexto(out, 4, pedido.getEstado());
+        if (pedido.getCliente() != null) {
+            out.writeTag(5, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(tamanoClienteDePedido(pedido.getCliente()));
+            escribirClienteDePedido(out, pedido.getCliente());
+        }
+        escribirDouble(out, 6, pedido.getTotal());
+        if (pedido.getLineas() != null) {
+            for (PedidoLineaDTO linea : pedido.getLineas()) {
+                out.writeTag(7, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(tamanoLinea(linea));
+                escribirLinea(out, linea);
+            }
+        }
+    }
+
+    // Campos escalares, omitidos cuando tienen el valor por defecto de proto3.
+
+    private static int tamanoAnidado(int campo, int tamano) {
+        return CodedOutputStream.computeTagSize(campo) + CodedOutputStream.computeUInt32SizeNoTag(tamano) + tamano;
+    }
+
+    private static int tamanoTexto(int campo, String valor) {
+        return valor == null || valor.isEmpty() ? 0 : CodedOutputStream.computeStringSize(campo, valor);
+    }
+
+    private static void escribirTexto(CodedOutputStream out, int campo, String valor) throws IOException {
+        if (valor != null && !valor.isEmpty()) {
+            out.writeString(campo, valor);
+        }
+    }
+
+    private static int tamanoId(int campo, Long valor) {
+        return valor == null || valor == 0 ? 0 : CodedOutputStream.computeInt64Size(campo, valor);
+    }
+
+    private static void escribirId(CodedOutputStream out, int campo, Long valor) throws IOException {
+        if (valor != null && valor != 0) {
+            out.writeInt64(campo, valor);
+        }
+    }
+
+    private static int tamanoEntero(int campo, int valor) {
+        return valor == 0 ? 0 : CodedOutputStream.computeInt32Size(campo, valor);
+    }
+
+    private static void escribirEntero(CodedOutputStream out, int campo, int valor) throws IOException {
+        if (valor != 0) {
+            out.writeInt32(campo, valor);
+        }
+    }
+
+    private static int tamanoDouble(int campo, double valor) {
+        return valor == 0 ? 0 : CodedOutputStream.computeDoubleSize(campo, valor);
+    }
+
+    private static void escribirDouble(CodedOutputStream out, int campo, double valor) throws IOException {
+        if (valor != 0) {
+            out.writeDouble(campo, valor);
+        }
+    }
+
+    /**
+     * Tamaño de un campo repetido de identificadores, empaquetado como en proto3.
+     */
+    private static int tamanoIds(int campo, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        return tamanoAnidado(campo, tamanoIdsSinEtiqueta(ids));
+    }
+
+    private static int tamanoIdsSinEtiqueta(List<Long> ids) {
+        int tamano = 0;
+        for (Long id : ids) {
+            tamano += CodedOutputStream.computeInt64SizeNoTag(id);
+        }
+        return tamano;
+    }
+
+    private static void escribirIds(CodedOutputStream out, int campo, List<Long> ids) throws IOException {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        out.writeTag(campo, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(tamanoIdsSinEtiqueta(ids));
+        for (Long id : ids) {
+            out.writeInt64NoTag(id);
+        }
+    }
+}
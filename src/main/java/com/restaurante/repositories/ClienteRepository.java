@@ -1,20 +1,124 @@
 package com.restaurante.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.restaurante.domain.Cliente;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio de Spring Data JPA para la entidad Cliente.
  */
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRepositoryCustom {
     
     /**
      * Método para buscar clientes por su nombre.
+     * El resultado se guarda en la caché de consultas (región {@code cliente-por-nombre}).
      * @param nombre El nombre del cliente a buscar.
      * @return Una lista de clientes que coinciden con el nombre especificado.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "cliente-por-nombre")
+    })
     List<Cliente> findByNombre(String nombre);
+
+    /**
+     * Obtiene una página de clientes con ID mayor que el indicado, ordenada por ID.
+     * Al devolver un Slice no se ejecuta la consulta {@code COUNT(*)} de la paginación por offset.
+     * @param id       El último ID ya entregado (cursor).
+     * @param pageable La configuración de la página (solo se usa el tamaño).
+     * @return Un Slice con los clientes siguientes al cursor.
+     */
+    @EntityGraph(attributePaths = "perfil")
+    Slice<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Obtiene los clientes con los IDs indicados en una sola consulta {@code IN}, con el mismo grafo que los listados.
+     * @param ids Los IDs buscados.
+     * @return Los clientes que existen, en cualquier orden.
+     */
+    @EntityGraph(attributePaths = "perfil")
+    List<Cliente> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Obtiene cuáles de los IDs indicados corresponden a clientes existentes, sin cargar las entidades.
+     * @param ids Los IDs a comprobar.
+     * @return Los IDs que existen en la base de datos.
+     */
+    @Query("select e.id from Cliente e where e.id in :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene los nombres de todos los clientes, sin cargar las entidades.
+     * @return Los nombres registrados.
+     */
+    @Query("select e.nombre from Cliente e where e.nombre is not null")
+    List<String> buscarNombres();
+
+    /**
+     * Obtiene cuáles de los nombres indicados ya están registrados, sin cargar las entidades.
+     * La comparación sigue la intercalación de la base de datos.
+     * @param nombres Los nombres a comprobar.
+     * @return Los nombres registrados que coinciden, tal como están guardados.
+     */
+    @Query("select e.nombre from Cliente e where e.nombre in :nombres")
+    List<String> buscarNombresExistentes(@Param("nombres") Collection<String> nombres);
+
+    /**
+     * Busca clientes cuyo nombre normalizado empieza por el prefijo, recorriendo un rango de su índice.
+     * @param prefijo  El prefijo ya normalizado.
+     * @param pageable El número máximo de clientes.
+     * @return Los clientes, con su perfil, ordenados por nombre normalizado.
+     */
+    @EntityGraph(attributePaths = "perfil")
+    List<Cliente> findByNombreBusquedaStartingWithOrderByNombreBusquedaAsc(String prefijo, Pageable pageable);
+
+    /**
+     * Busca clientes cuyo correo normalizado empieza por el prefijo, recorriendo un rango de su índice.
+     * @param prefijo  El prefijo ya normalizado.
+     * @param pageable El número máximo de clientes.
+     * @return Los clientes, con su perfil, ordenados por correo.
+     */
+    @EntityGraph(attributePaths = "perfil")
+    List<Cliente> findByCorreoBusquedaStartingWithOrderByCorreoBusquedaAsc(String prefijo, Pageable pageable);
+
+    /**
+     * Busca clientes cuyo teléfono empieza por los dígitos indicados, recorriendo un rango de su índice.
+     * @param digitos  Los primeros dígitos del teléfono.
+     * @param pageable El número máximo de clientes.
+     * @return Los clientes, con su perfil, ordenados por teléfono.
+     */
+    @EntityGraph(attributePaths = "perfil")
+    List<Cliente> findByTelefonoBusquedaStartingWithOrderByTelefonoBusquedaAsc(String digitos, Pageable pageable);
+
+    /**
+     * Busca clientes cuyo teléfono termina en los dígitos indicados, como un prefijo del teléfono invertido.
+     * @param digitosInvertidos Los últimos dígitos del teléfono, en orden inverso.
+     * @param pageable          El número máximo de clientes.
+     * @return Los clientes, con su perfil.
+     */
+    @EntityGraph(attributePaths = "perfil")
+    List<Cliente> findByTelefonoInvertidoStartingWithOrderByTelefonoInvertidoAsc(String digitosInvertidos, Pageable pageable);
+
+    /**
+     * Obtiene clientes cuyas columnas de búsqueda aún no se han calculado, por ejemplo tras la migración,
+     * en orden de id a partir de un cursor.
+     * @param despuesDe El id del último cliente procesado, o 0 para empezar.
+     * @param pageable El número máximo de clientes.
+     * @return Los clientes pendientes.
+     */
+    @Query("select e from Cliente e where e.nombreBusqueda is null and e.nombre is not null and e.id > :despuesDe "
+            + "order by e.id")
+    List<Cliente> buscarSinNormalizar(@Param("despuesDe") long despuesDe, Pageable pageable);
 }
@@ -0,0 +1,58 @@
+package com.restaurante.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.restaurante.domain.Cliente;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación de {@link ClienteRepositoryCustom}: las proyecciones usan el EntityManager y las
+ * inserciones el JdbcTemplate de la aplicación, que participa en la transacción JPA en curso.
+ */
+public class ClienteRepositoryImpl implements ClienteRepositoryCustom {
+
+    private static final String INSERTAR_CLIENTE =
+            "insert into cliente (nombre, correo_electronico, numero_telefonico, nombre_busqueda, correo_busqueda, "
+            + "telefono_busqueda, telefono_invertido) values (?, ?, ?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Slice<Map<String, Object>> buscarCampos(Map<String, String> campos, long despuesDe, int limite) {
+        return ConsultaCampos.pagina(entityManager, Cliente.class, campos, despuesDe, limite);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> buscarCamposPorId(Map<String, String> campos, Long id) {
+        return ConsultaCampos.porId(entityManager, Cliente.class, campos, id);
+    }
+
+    @Override
+    public void insertarEnLote(List<Cliente> clientes) {
+        if (clientes.isEmpty()) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes) {
+            // Lo que haría @PrePersist si el cliente se guardara con JPA.
+            cliente.normalizarBusqueda();
+            filas.add(new Object[] { cliente.getNombre(), cliente.getCorreoElectronico(), cliente.getNumeroTelefonico(),
+                    cliente.getNombreBusqueda(), cliente.getCorreoBusqueda(), cliente.getTelefonoBusqueda(),
+                    cliente.getTelefonoInvertido() });
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_CLIENTE, filas);
+    }
+}
@@ -0,0 +1,97 @@
+package com.restaurante.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Consultas de proyección con los campos elegidos en el parámetro {@code fields}.
+ * Seleccionan solo las columnas de esos campos y devuelven cada fila como un mapa,
+ * sin crear entidades ni proxies en el contexto de persistencia.
+ */
+final class ConsultaCampos {
+
+    private ConsultaCampos() {
+    }
+
+    /**
+     * Obtiene una página de filas con ID mayor que el indicado, ordenada por ID.
+     * @param entityManager El EntityManager de la transacción en curso.
+     * @param entidad       La clase de la entidad consultada.
+     * @param campos        Los campos a devolver y la ruta del atributo de cada uno; debe incluir {@code id}.
+     * @param despuesDe     El último ID ya entregado (cursor).
+     * @param limite        El número máximo de filas.
+     * @return Un Slice con las filas de la página.
+     */
+    static Slice<Map<String, Object>> pagina(EntityManager entityManager, Class<?> entidad, Map<String, String> campos,
+                                             long despuesDe, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<?> raiz = consulta.from(entidad);
+        consulta.multiselect(selecciones(raiz, campos))
+                .where(cb.greaterThan(raiz.get("id"), despuesDe))
+                .orderBy(cb.asc(raiz.get("id")));
+        // Se pide una fila más para saber si hay página siguiente sin contar.
+        List<Tuple> filas = entityManager.createQuery(consulta).setMaxResults(limite + 1).getResultList();
+        boolean haySiguiente = filas.size() > limite;
+        List<Map<String, Object>> contenido = new ArrayList<>(Math.min(filas.size(), limite));
+        for (Tuple fila : filas.subList(0, Math.min(filas.size(), limite))) {
+            contenido.add(aMapa(fila, campos));
+        }
+        return new SliceImpl<>(contenido, PageRequest.of(0, limite), haySiguiente);
+    }
+
+    /**
+     * Obtiene una fila por su ID.
+     * @param entityManager El EntityManager de la transacción en curso.
+     * @param entidad       La clase de la entidad consultada.
+     * @param campos        Los campos a devolver y la ruta del atributo de cada uno.
+     * @param id            El ID buscado.
+     * @return La fila, o vacío si no existe.
+     */
+    static Optional<Map<String, Object>> porId(EntityManager entityManager, Class<?> entidad, Map<String, String> campos, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<?> raiz = consulta.from(entidad);
+        consulta.multiselect(selecciones(raiz, campos)).where(cb.equal(raiz.get("id"), id));
+        return entityManager.createQuery(consulta).getResultStream().findFirst().map(fila -> aMapa(fila, campos));
+    }
+
+    /**
+     * Resuelve la ruta de cada campo. El ID de una asociación muchos a uno ({@code cliente.id})
+     * se lee de la clave foránea, sin unir la tabla asociada.
+     */
+    private static List<Selection<?>> selecciones(Root<?> raiz, Map<String, String> campos) {
+        List<Selection<?>> selecciones = new ArrayList<>(campos.size());
+        for (Map.Entry<String, String> campo : campos.entrySet()) {
+            Path<?> ruta = raiz;
+            for (String atributo : campo.getValue().split("\\.")) {
+                ruta = ruta.get(atributo);
+            }
+            selecciones.add(ruta.alias(campo.getKey()));
+        }
+        return selecciones;
+    }
+
+    private static Map<String, Object> aMapa(Tuple fila, Map<String, String> campos) {
+        Map<String, Object> mapa = new LinkedHashMap<>();
+        for (String campo : campos.keySet()) {
+            mapa.put(campo, fila.get(campo));
+        }
+        return mapa;
+    }
+}
@@ -1,25 +1,162 @@
 package com.restaurante.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.restaurante.domain.Cliente;
+import com.restaurante.domain.EstadoPedido;
 import com.restaurante.domain.Pedido;
-import com.restaurante.domain.Producto;
+import com.restaurante.dto.PedidoExportDTO;
+import com.restaurante.dto.ResumenIngresosDTO;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio de Spring Data JPA para la entidad Pedido.
  */
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, PedidoRepositoryCustom {
     
     /**
-     * Verifica si existe un pedido realizado por un cliente con ciertos productos en una fecha específica.
-     * @param cliente   El cliente asociado al pedido.
-     * @param productos La lista de productos asociados al pedido.
-     * @param fecha     La fecha del pedido.
+     * Verifica si existe un pedido realizado por un cliente que incluya alguno de los productos en una fecha específica.
+     * @param cliente      El cliente asociado al pedido.
+     * @param productosIds Los IDs de los productos del pedido.
+     * @param fecha        La fecha del pedido.
      * @return true si existe un pedido que cumpla con los criterios especificados, false de lo contrario.
      */
-    boolean existsByClienteAndProductosAndFecha(Cliente cliente, List<Producto> productos, LocalDateTime fecha);
+    @Query("select count(p) > 0 from Pedido p join p.lineas l "
+            + "where p.cliente = :cliente and p.fecha = :fecha and l.producto.id in :productosIds")
+    boolean existePedidoSimilar(@Param("cliente") Cliente cliente,
+                                @Param("productosIds") Collection<Long> productosIds,
+                                @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Busca un pedido con su cliente, el perfil del cliente, sus productos y las variantes de estos
+     * en una sola consulta.
+     * @param id El identificador del pedido.
+     * @return Un Optional con el pedido, o vacío si no existe.
+     */
+    @EntityGraph(Pedido.GRAFO_DETALLE)
+    Optional<Pedido> findDetalleById(Long id);
+
+    /**
+     * Busca el pedido creado con una clave de idempotencia, con sus líneas y productos,
+     * para repetir la respuesta de su creación.
+     * @param claveIdempotencia La clave enviada al crear el pedido.
+     * @return Un Optional con el pedido, o vacío si no existe.
+     */
+    @EntityGraph(attributePaths = {"lineas", "lineas.producto"})
+    Optional<Pedido> findByClaveIdempotencia(String claveIdempotencia);
+
+    /**
+     * Busca un pedido por su ID con el cliente, las líneas y sus productos, para devolverlo
+     * completo a un reintento con la misma clave de idempotencia.
+     * @param id El identificador del pedido.
+     * @return Un Optional con el pedido, o vacío si no existe.
+     */
+    @EntityGraph(attributePaths = {"cliente", "lineas", "lineas.producto"})
+    Optional<Pedido> findConLineasById(Long id);
+
+    /**
+     * Busca en una sola consulta las combinaciones cliente, fecha y producto ya registradas
+     * para un conjunto de clientes y fechas. Sustituye a una llamada a
+     * {@link #existePedidoSimilar} por cada pedido de un lote.
+     * @param clientesIds Los IDs de los clientes de los pedidos a comprobar.
+     * @param fechas      Las fechas de los pedidos a comprobar.
+     * @return Filas {@code [clienteId, fecha, productoId]} de los pedidos existentes.
+     */
+    @Query("select distinct c.id, p.fecha, l.producto.id from Pedido p join p.cliente c join p.lineas l "
+            + "where c.id in :clientesIds and p.fecha in :fechas")
+    List<Object[]> buscarCoincidencias(@Param("clientesIds") Collection<Long> clientesIds,
+                                       @Param("fechas") Collection<LocalDateTime> fechas);
+
+    /**
+     * Obtiene una página de pedidos con ID mayor que el indicado, ordenada por ID.
+     * Al devolver un Slice no se ejecuta la consulta {@code COUNT(*)} de la paginación por offset.
+     * @param id       El último ID ya entregado (cursor).
+     * @param pageable La configuración de la página (solo se usa el tamaño).
+     * @return Un Slice con los pedidos siguientes al cursor.
+     */
+    @EntityGraph(Pedido.GRAFO_LISTADO)
+    Slice<Pedido> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Obtiene los pedidos con los IDs indicados en una sola consulta {@code IN}, con el mismo grafo que los listados.
+     * @param ids Los IDs buscados.
+     * @return Los pedidos que existen, en cualquier orden.
+     */
+    @EntityGraph(Pedido.GRAFO_LISTADO)
+    List<Pedido> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Recorre los pedidos que cumplen los filtros como un cursor de solo avance.
+     * Devuelve filas planas construidas en la consulta, por lo que no se gestionan entidades
+     * en el contexto de persistencia. El Stream debe consumirse dentro de una transacción y cerrarse.
+     * @param desde  Fecha mínima (inclusive) del pedido, o null para no filtrar.
+     * @param hasta  Fecha máxima (exclusiva) del pedido, o null para no filtrar.
+     * @param estado Estado del pedido, o null para no filtrar.
+     * @return Un Stream de filas de exportación ordenadas por ID.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.restaurante.dto.PedidoExportDTO(p.id, p.fecha, p.estado, p.cantidad, p.total, c.id) "
+            + "from Pedido p left join p.cliente c "
+            + "where (:desde is null or p.fecha >= :desde) "
+            + "and (:hasta is null or p.fecha < :hasta) "
+            + "and (:estado is null or p.estado = :estado) "
+            + "order by p.id")
+    Stream<PedidoExportDTO> streamParaExportar(@Param("desde") LocalDateTime desde,
+                                               @Param("hasta") LocalDateTime hasta,
+                                               @Param("estado") EstadoPedido estado);
+
+    /**
+     * Obtiene una página de los IDs de los pedidos que tienen alguna línea del producto indicado.
+     * @param productoId El ID del producto.
+     * @param despuesDe  El último ID ya procesado (0 para la primera página).
+     * @param pageable   La configuración de la página (solo se usa el tamaño).
+     * @return Los IDs de los pedidos siguientes al cursor, ordenados.
+     */
+    @Query("select distinct l.pedido.id from PedidoLinea l where l.producto.id = :productoId and l.pedido.id > :despuesDe "
+            + "order by l.pedido.id")
+    List<Long> buscarIdsConProducto(@Param("productoId") Long productoId, @Param("despuesDe") long despuesDe, Pageable pageable);
+
+    /**
+     * Obtiene los IDs de los pedidos de un estado, del más antiguo al más reciente, usando el índice de {@code estado}.
+     * @param estado   Estado de los pedidos.
+     * @param pageable Límite de IDs a devolver.
+     * @return Los IDs ordenados por fecha e ID.
+     */
+    @Query("select p.id from Pedido p where p.estado = :estado order by p.fecha, p.id")
+    List<Long> buscarIdsPorEstado(@Param("estado") EstadoPedido estado, Pageable pageable);
+
+    /**
+     * Cuenta los pedidos de un estado.
+     * @param estado Estado de los pedidos.
+     * @return El número de pedidos.
+     */
+    long countByEstado(EstadoPedido estado);
+
+    /**
+     * Calcula el número de pedidos y la suma de sus totales en un rango de fechas con una sola
+     * consulta agregada sobre la columna {@code total}, usando el índice de {@code fecha}.
+     * @param desde Fecha mínima (inclusive) de los pedidos.
+     * @param hasta Fecha máxima (exclusiva) de los pedidos.
+     * @return El resumen de ingresos del periodo.
+     */
+    @Query("select new com.restaurante.dto.ResumenIngresosDTO(count(p), coalesce(sum(p.total), 0)) "
+            + "from Pedido p where p.fecha >= :desde and p.fecha < :hasta")
+    ResumenIngresosDTO resumirIngresos(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
 }
@@ -0,0 +1,41 @@
+package com.restaurante.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Slice;
+
+import com.restaurante.domain.Pedido;
+
+/**
+ * Operaciones de {@link PedidoRepository} implementadas con JDBC y consultas de proyección.
+ */
+public interface PedidoRepositoryCustom {
+
+    /**
+     * Inserta los pedidos y sus líneas con sentencias JDBC por lotes, sin pasar por el contexto de persistencia.
+     * Debe ejecutarse dentro de una transacción; las entidades ya cargadas no reflejan los nuevos pedidos.
+     * @param pedidos Los pedidos a insertar, ya validados, con el cliente y los productos indicados por ID
+     *                y el total calculado.
+     * @return Los IDs generados, en el mismo orden que los pedidos recibidos.
+     */
+    List<Long> insertarEnLote(List<Pedido> pedidos);
+
+    /**
+     * Obtiene una página de pedidos con ID mayor que el indicado, ordenada por ID, seleccionando solo los campos indicados.
+     * @param campos    Los campos a devolver y la ruta del atributo de cada uno; debe incluir {@code id}.
+     * @param despuesDe El último ID ya entregado (cursor).
+     * @param limite    El número máximo de pedidos.
+     * @return Un Slice con un mapa de campo a valor por cada pedido.
+     */
+    Slice<Map<String, Object>> buscarCampos(Map<String, String> campos, long despuesDe, int limite);
+
+    /**
+     * Obtiene los campos indicados de un pedido.
+     * @param campos Los campos a devolver y la ruta del atributo de cada uno.
+     * @param id     El ID del pedido.
+     * @return Un mapa de campo a valor, o vacío si el pedido no existe.
+     */
+    Optional<Map<String, Object>> buscarCamposPorId(Map<String, String> campos, Long id);
+}
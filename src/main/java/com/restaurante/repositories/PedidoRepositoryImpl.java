@@ -0,0 +1,117 @@
+package com.restaurante.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.PedidoLinea;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación de {@link PedidoRepositoryCustom}.
+ * Las inserciones usan el JdbcTemplate de la aplicación, que participa en la transacción JPA en curso.
+ */
+public class PedidoRepositoryImpl implements PedidoRepositoryCustom {
+
+    private static final String INSERTAR_PEDIDO =
+            "insert into pedido (cantidad, fecha, estado, cliente_id, total) values (?, ?, ?, ?, ?)";
+
+    private static final String INSERTAR_LINEA =
+            "insert into pedido_linea (pedido_id, producto_id, cantidad, precio_unitario) values (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> insertarEnLote(List<Pedido> pedidos) {
+        if (pedidos.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                conexion -> conexion.prepareStatement(INSERTAR_PEDIDO, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Pedido pedido = pedidos.get(i);
+                        ps.setInt(1, pedido.getCantidad());
+                        if (pedido.getFecha() != null) {
+                            ps.setTimestamp(2, Timestamp.valueOf(pedido.getFecha()));
+                        } else {
+                            ps.setNull(2, Types.TIMESTAMP);
+                        }
+                        ps.setString(3, String.valueOf(pedido.getEstado().getCodigo()));
+                        ps.setLong(4, pedido.getCliente().getId());
+                        ps.setDouble(5, pedido.getTotal());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return pedidos.size();
+                    }
+                },
+                claves);
+
+        List<Long> ids = idsGenerados(claves, pedidos.size());
+
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            for (PedidoLinea linea : pedidos.get(i).getLineas()) {
+                filas.add(new Object[] { ids.get(i), linea.getProducto().getId(), linea.getCantidad(), linea.getPrecioUnitario() });
+            }
+        }
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERTAR_LINEA, filas);
+        }
+        return ids;
+    }
+
+    @Override
+    public Slice<Map<String, Object>> buscarCampos(Map<String, String> campos, long despuesDe, int limite) {
+        return ConsultaCampos.pagina(entityManager, Pedido.class, campos, despuesDe, limite);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> buscarCamposPorId(Map<String, String> campos, Long id) {
+        return ConsultaCampos.porId(entityManager, Pedido.class, campos, id);
+    }
+
+    /**
+     * Extrae los IDs generados por el lote de inserciones de pedidos.
+     * @param claves   Las claves devueltas por el driver.
+     * @param esperados El número de pedidos insertados.
+     * @return Los IDs en el orden de inserción.
+     */
+    private static List<Long> idsGenerados(KeyHolder claves, int esperados) {
+        List<Map<String, Object>> filas = claves.getKeyList();
+        if (filas.size() != esperados) {
+            throw new DataRetrievalFailureException(
+                    "Se esperaban " + esperados + " IDs generados y el driver devolvió " + filas.size());
+        }
+        List<Long> ids = new ArrayList<>(esperados);
+        for (Map<String, Object> fila : filas) {
+            ids.add(((Number) fila.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+}
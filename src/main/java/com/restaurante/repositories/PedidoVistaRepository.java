@@ -0,0 +1,54 @@
+package com.restaurante.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.restaurante.domain.PedidoVista;
+
+/**
+ * Repositorio de Spring Data JPA para la vista de lectura de pedidos.
+ */
+public interface PedidoVistaRepository extends JpaRepository<PedidoVista, Long> {
+
+    /**
+     * Obtiene una página de la vista con ID mayor que el indicado, ordenada por ID.
+     * @param id       El último ID ya entregado (cursor).
+     * @param pageable La configuración de la página (solo se usa el tamaño).
+     * @return Un Slice con las filas siguientes al cursor.
+     */
+    Slice<PedidoVista> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Actualiza el nombre del cliente en todas sus filas usando el índice de {@code cliente_id}.
+     * @param clienteId El ID del cliente.
+     * @param nombre    El nombre actual del cliente.
+     * @return El número de filas actualizadas.
+     */
+    @Modifying
+    @Query("update PedidoVista v set v.clienteNombre = :nombre where v.clienteId = :clienteId")
+    int actualizarNombreCliente(@Param("clienteId") Long clienteId, @Param("nombre") String nombre);
+
+    /**
+     * Obtiene los pedidos cuya fila de la vista falta o no coincide con las tablas de pedidos y clientes.
+     * No compara las líneas, que se guardan como JSON.
+     * @return Los IDs de los pedidos a proyectar de nuevo.
+     */
+    @Query("select p.id from Pedido p left join p.cliente c where not exists (select 1 from PedidoVista v"
+            + " where v.id = p.id and v.fecha = p.fecha and v.estado = p.estado and v.cantidad = p.cantidad"
+            + " and v.total = p.total and coalesce(v.clienteId, -1) = coalesce(c.id, -1)"
+            + " and coalesce(v.clienteNombre, '') = coalesce(c.nombre, ''))")
+    List<Long> buscarIdsDesactualizados();
+
+    /**
+     * Obtiene las filas de la vista cuyo pedido ya no existe.
+     * @return Los IDs de las filas a eliminar.
+     */
+    @Query("select v.id from PedidoVista v where not exists (select 1 from Pedido p where p.id = v.id)")
+    List<Long> buscarIdsSinPedido();
+}
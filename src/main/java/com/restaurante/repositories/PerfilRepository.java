@@ -1,6 +1,12 @@
 package com.restaurante.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.restaurante.domain.Perfil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,4 +17,22 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface PerfilRepository extends JpaRepository<Perfil, Long> {
+
+    /**
+     * Obtiene una página de perfiles con ID mayor que el indicado, ordenada por ID.
+     * Al devolver un Slice no se ejecuta la consulta {@code COUNT(*)} de la paginación por offset.
+     * @param id       El último ID ya entregado (cursor).
+     * @param pageable La configuración de la página (solo se usa el tamaño).
+     * @return Un Slice con los perfiles siguientes al cursor.
+     */
+    @EntityGraph(attributePaths = "cliente")
+    Slice<Perfil> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Obtiene los perfiles con los IDs indicados en una sola consulta {@code IN}, con el mismo grafo que los listados.
+     * @param ids Los IDs buscados.
+     * @return Los perfiles que existen, en cualquier orden.
+     */
+    @EntityGraph(attributePaths = "cliente")
+    List<Perfil> findByIdIn(Collection<Long> ids);
 }
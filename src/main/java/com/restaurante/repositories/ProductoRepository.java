@@ -1,7 +1,14 @@
 package com.restaurante.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.restaurante.domain.Producto;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -9,7 +16,7 @@ import java.util.Optional;
  * Proporciona métodos para realizar operaciones CRUD (Crear, Leer, Actualizar, Eliminar)
  * en la base de datos asociada a la entidad Producto.
  */
-public interface ProductoRepository extends JpaRepository<Producto, Long> {
+public interface ProductoRepository extends JpaRepository<Producto, Long>, ProductoRepositoryCustom {
     
     /**
      * Busca un producto por su nombre en la base de datos.
@@ -18,4 +25,58 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
      * @return Un Optional que puede contener el producto si se encuentra, o vacío si no se encuentra.
      */
     Optional<Producto> findByNombre(String nombre);
+
+    /**
+     * Obtiene una página de productos con ID mayor que el indicado, ordenada por ID.
+     * Al devolver un Slice no se ejecuta la consulta {@code COUNT(*)} de la paginación por offset.
+     * @param id       El último ID ya entregado (cursor).
+     * @param pageable La configuración de la página (solo se usa el tamaño).
+     * @return Un Slice con los productos siguientes al cursor.
+     */
+    @EntityGraph(attributePaths = "variante")
+    Slice<Producto> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Obtiene los productos con los IDs indicados en una sola consulta {@code IN}, con el mismo grafo que los listados.
+     * @param ids Los IDs buscados.
+     * @return Los productos que existen, en cualquier orden.
+     */
+    @EntityGraph(attributePaths = "variante")
+    List<Producto> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Obtiene el precio actual de los productos indicados, sin cargar las entidades.
+     * Los IDs que no correspondan a productos existentes no aparecen en el resultado.
+     * @param ids Los IDs de los productos.
+     * @return Filas {@code [id, precio]} de los productos existentes.
+     */
+    @Query("select e.id, e.precio from Producto e where e.id in :ids")
+    List<Object[]> buscarPrecios(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene los nombres de todos los productos, sin cargar las entidades.
+     * @return Los nombres registrados.
+     */
+    @Query("select e.nombre from Producto e where e.nombre is not null")
+    List<String> buscarNombres();
+
+    /**
+     * Obtiene cuáles de los nombres indicados ya están registrados, sin cargar las entidades.
+     * La comparación sigue la intercalación de la base de datos.
+     * @param nombres Los nombres a comprobar.
+     * @return Los nombres registrados que coinciden, tal como están guardados.
+     */
+    @Query("select e.nombre from Producto e where e.nombre in :nombres")
+    List<String> buscarNombresExistentes(@Param("nombres") Collection<String> nombres);
+
+    /**
+     * Busca productos cuyo nombre o descripción contenga el texto, sin distinguir mayúsculas.
+     * Solo se usa mientras la instantánea del catálogo no está cargada.
+     * @param texto    El texto buscado, con los comodines {@code %} y {@code _} escapados con {@code \}.
+     * @param pageable El número máximo de productos.
+     * @return Los productos que coinciden, ordenados por ID.
+     */
+    @Query("select e from Producto e where lower(e.nombre) like lower(concat('%', :texto, '%')) escape '\\' "
+            + "or lower(e.descripcion) like lower(concat('%', :texto, '%')) escape '\\' order by e.id")
+    List<Producto> buscarTexto(@Param("texto") String texto, Pageable pageable);
 }
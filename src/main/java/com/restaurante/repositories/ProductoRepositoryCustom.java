@@ -0,0 +1,40 @@
+package com.restaurante.repositories;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Slice;
+
+import com.restaurante.domain.Producto;
+
+/**
+ * Operaciones de {@link ProductoRepository}: consultas que devuelven solo los campos pedidos en el parámetro
+ * {@code fields} e inserciones por lotes con JDBC.
+ */
+public interface ProductoRepositoryCustom {
+
+    /**
+     * Obtiene una página de productos con ID mayor que el indicado, ordenada por ID, seleccionando solo los campos indicados.
+     * @param campos    Los campos a devolver y la ruta del atributo de cada uno; debe incluir {@code id}.
+     * @param despuesDe El último ID ya entregado (cursor).
+     * @param limite    El número máximo de productos.
+     * @return Un Slice con un mapa de campo a valor por cada producto.
+     */
+    Slice<Map<String, Object>> buscarCampos(Map<String, String> campos, long despuesDe, int limite);
+
+    /**
+     * Obtiene los campos indicados de un producto.
+     * @param campos Los campos a devolver y la ruta del atributo de cada uno.
+     * @param id     El ID del producto.
+     * @return Un mapa de campo a valor, o vacío si el producto no existe.
+     */
+    Optional<Map<String, Object>> buscarCamposPorId(Map<String, String> campos, Long id);
+
+    /**
+     * Inserta los productos con una sentencia JDBC por lotes, sin pasar por el contexto de persistencia.
+     * Debe ejecutarse dentro de una transacción.
+     * @param productos Los productos a insertar, ya validados y con nombres no registrados.
+     */
+    void insertarEnLote(List<Producto> productos);
+}
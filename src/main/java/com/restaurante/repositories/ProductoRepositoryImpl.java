@@ -0,0 +1,53 @@
+package com.restaurante.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.restaurante.domain.Producto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación de {@link ProductoRepositoryCustom}: las proyecciones usan el EntityManager y las
+ * inserciones el JdbcTemplate de la aplicación, que participa en la transacción JPA en curso.
+ */
+public class ProductoRepositoryImpl implements ProductoRepositoryCustom {
+
+    private static final String INSERTAR_PRODUCTO =
+            "insert into producto (nombre, descripcion, precio) values (?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Slice<Map<String, Object>> buscarCampos(Map<String, String> campos, long despuesDe, int limite) {
+        return ConsultaCampos.pagina(entityManager, Producto.class, campos, despuesDe, limite);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> buscarCamposPorId(Map<String, String> campos, Long id) {
+        return ConsultaCampos.porId(entityManager, Producto.class, campos, id);
+    }
+
+    @Override
+    public void insertarEnLote(List<Producto> productos) {
+        if (productos.isEmpty()) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            filas.add(new Object[] { producto.getNombre(), producto.getDescripcion(), producto.getPrecio() });
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_PRODUCTO, filas);
+    }
+}
@@ -0,0 +1,37 @@
+package com.restaurante.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.restaurante.domain.VentaResumen;
+import com.restaurante.dto.VentaProductoDTO;
+
+/**
+ * Repositorio de Spring Data JPA para las ventas acumuladas por producto y hora.
+ */
+public interface VentaResumenRepository extends JpaRepository<VentaResumen, VentaResumen.Clave>, VentaResumenRepositoryCustom {
+
+    /**
+     * Obtiene las filas de ventas desde una hora, para reconstruir los acumuladores en memoria.
+     * @param desde La primera hora incluida.
+     * @return Las filas de ventas desde esa hora.
+     */
+    @Query("select v from VentaResumen v where v.id.hora >= :desde")
+    List<VentaResumen> buscarDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Suma las ventas por producto en un rango de horas. Se usa para periodos anteriores
+     * a los que se conservan en memoria.
+     * @param desde Hora mínima (inclusive).
+     * @param hasta Hora máxima (exclusiva).
+     * @return Las ventas de cada producto en el rango.
+     */
+    @Query("select new com.restaurante.dto.VentaProductoDTO(v.id.productoId, sum(v.unidades), sum(v.ingresosCentimos)) "
+            + "from VentaResumen v where v.id.hora >= :desde and v.id.hora < :hasta "
+            + "group by v.id.productoId order by v.id.productoId")
+    List<VentaProductoDTO> sumarPorProducto(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+}
@@ -0,0 +1,17 @@
+package com.restaurante.repositories;
+
+import java.util.List;
+
+import com.restaurante.domain.VentaResumen;
+
+/**
+ * Operaciones de {@link VentaResumenRepository} implementadas con JDBC.
+ */
+public interface VentaResumenRepositoryCustom {
+
+    /**
+     * Suma los incrementos a las filas existentes o las crea, con una sentencia por lotes.
+     * @param incrementos Las unidades e ingresos a sumar por producto y hora.
+     */
+    void acumular(List<VentaResumen> incrementos);
+}
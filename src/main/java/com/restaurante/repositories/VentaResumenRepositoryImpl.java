@@ -0,0 +1,41 @@
+package com.restaurante.repositories;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.restaurante.domain.VentaResumen;
+
+/**
+ * Implementación JDBC de {@link VentaResumenRepositoryCustom}.
+ */
+public class VentaResumenRepositoryImpl implements VentaResumenRepositoryCustom {
+
+    private static final String ACUMULAR =
+            "insert into venta_resumen (producto_id, hora, unidades, ingresos_centimos) values (?, ?, ?, ?) "
+            + "on duplicate key update unidades = unidades + values(unidades), "
+            + "ingresos_centimos = ingresos_centimos + values(ingresos_centimos)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void acumular(List<VentaResumen> incrementos) {
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>(incrementos.size());
+        for (VentaResumen incremento : incrementos) {
+            filas.add(new Object[] {
+                incremento.getId().getProductoId(),
+                Timestamp.valueOf(incremento.getId().getHora()),
+                incremento.getUnidades(),
+                incremento.getIngresosCentimos()
+            });
+        }
+        jdbcTemplate.batchUpdate(ACUMULAR, filas);
+    }
+}
@@ -0,0 +1,351 @@
+package com.restaurante.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.domain.VentaResumen;
+import com.restaurante.dto.PedidoLineaDTO;
+import com.restaurante.dto.VentaProductoDTO;
+import com.restaurante.events.PedidoEvento;
+import com.restaurante.repositories.VentaResumenRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Acumuladores en memoria de las ventas por producto y por hora y día.
+ *
+ * <p>Un pedido cuenta como venta mientras su estado es {@link EstadoPedido#ENTREGADO}: se suma al entrar en ese
+ * estado y se resta si sale de él. Los importes se guardan en céntimos en arrays de {@code long}
+ * indexados por un índice denso de producto, una cubeta por hora y otra por día, de modo que consultar
+ * un día o una hora recorre solo los productos. Los incrementos pendientes se vuelcan periódicamente
+ * a la tabla {@code venta_resumen}; los periodos que ya no se conservan en memoria se consultan en esa tabla.</p>
+ */
+@Component
+public class AcumuladorVentas {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcumuladorVentas.class);
+
+    /** Estado a partir del cual un pedido cuenta como venta. */
+    static final EstadoPedido ESTADO_VENTA = EstadoPedido.ENTREGADO;
+
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    @Autowired
+    private VentaResumenRepository ventaResumenRepository;
+
+    /** Número de horas hacia atrás que se conservan en memoria. */
+    @Value("${restaurante.ventas.horas-en-memoria:768}")
+    private int horasEnMemoria;
+
+    /** Índice denso de cada producto en los arrays de las cubetas. */
+    private final Map<Long, Integer> indices = new HashMap<>();
+
+    /** ID del producto de cada índice denso. */
+    private long[] productos = new long[CAPACIDAD_INICIAL];
+
+    private int numeroProductos;
+
+    /** Cubetas por hora (horas desde la época). */
+    private final TreeMap<Long, Cubeta> porHora = new TreeMap<>();
+
+    /** Cubetas por día (días desde la época). */
+    private final TreeMap<Long, Cubeta> porDia = new TreeMap<>();
+
+    /** Indica si los acumuladores ya incluyen lo guardado en {@code venta_resumen}. */
+    private volatile boolean cargado;
+
+    /**
+     * Carga en memoria las ventas guardadas de las últimas horas al arrancar la aplicación.
+     * Si la base de datos no está disponible se reintenta en el siguiente volcado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarInicial() {
+        try {
+            cargar();
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron cargar las ventas acumuladas al arrancar", e);
+        }
+    }
+
+    /**
+     * Actualiza los acumuladores después de que se confirme un cambio en un pedido.
+     *
+     * @param evento El evento publicado por el servicio de pedidos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarPedido(PedidoEvento evento) {
+        if (evento.getAnterior() != null && esVenta(evento.getAnterior().getEstado())) {
+            aplicar(evento.getAnterior(), -1);
+        }
+        if (evento.getActual() != null && esVenta(evento.getActual().getEstado())) {
+            aplicar(evento.getActual(), 1);
+        }
+    }
+
+    /**
+     * Obtiene las ventas de cada producto en un día o en una hora de ese día.
+     *
+     * @param dia  El día consultado.
+     * @param hora La hora del día (0-23), o null para el día completo.
+     * @return Las ventas por producto ordenadas por ID, o null si el periodo no se conserva en memoria.
+     */
+    public List<VentaProductoDTO> ventas(LocalDate dia, Integer hora) {
+        long horaInicio = horaDesdeEpoca(dia.atStartOfDay());
+        if (!enMemoria(horaInicio, hora)) {
+            return null;
+        }
+        synchronized (this) {
+            Cubeta cubeta = hora == null ? porDia.get(Math.floorDiv(horaInicio, 24)) : porHora.get(horaInicio + hora);
+            List<VentaProductoDTO> ventas = new ArrayList<>();
+            if (cubeta == null) {
+                return ventas;
+            }
+            for (int i = 0; i < numeroProductos && i < cubeta.unidades.length; i++) {
+                if (cubeta.unidades[i] != 0 || cubeta.centimos[i] != 0) {
+                    ventas.add(new VentaProductoDTO(productos[i], cubeta.unidades[i], cubeta.centimos[i] / 100.0));
+                }
+            }
+            ventas.sort((a, b) -> Long.compare(a.getProductoId(), b.getProductoId()));
+            return ventas;
+        }
+    }
+
+    /**
+     * Obtiene las ventas de un producto en un día o en una hora de ese día, en tiempo constante.
+     *
+     * @param productoId El ID del producto.
+     * @param dia        El día consultado.
+     * @param hora       La hora del día (0-23), o null para el día completo.
+     * @return Las ventas del producto, o null si el periodo no se conserva en memoria.
+     */
+    public VentaProductoDTO ventas(Long productoId, LocalDate dia, Integer hora) {
+        long horaInicio = horaDesdeEpoca(dia.atStartOfDay());
+        if (!enMemoria(horaInicio, hora)) {
+            return null;
+        }
+        synchronized (this) {
+            Cubeta cubeta = hora == null ? porDia.get(Math.floorDiv(horaInicio, 24)) : porHora.get(horaInicio + hora);
+            Integer indice = indices.get(productoId);
+            if (cubeta == null || indice == null || indice >= cubeta.unidades.length) {
+                return new VentaProductoDTO(productoId, 0L, 0.0);
+            }
+            return new VentaProductoDTO(productoId, cubeta.unidades[indice], cubeta.centimos[indice] / 100.0);
+        }
+    }
+
+    /**
+     * Vuelca a {@code venta_resumen} los incrementos acumulados desde el último volcado
+     * y libera las cubetas que ya no se conservan en memoria.
+     */
+    @Scheduled(fixedDelayString = "${restaurante.ventas.intervalo-volcado:30000}")
+    @PreDestroy
+    public void volcar() {
+        if (!cargado) {
+            cargarInicial();
+            if (!cargado) {
+                return;
+            }
+        }
+        List<VentaResumen> incrementos = extraerPendientes();
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        try {
+            ventaResumenRepository.acumular(incrementos);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron volcar {} incrementos de ventas; se reintentará", incrementos.size(), e);
+            restaurarPendientes(incrementos);
+        }
+    }
+
+    /**
+     * Lee las ventas guardadas de las horas que se conservan en memoria y las suma a los acumuladores.
+     * Hasta que termina no se vuelca nada, para no contar dos veces lo que ya esté en la tabla.
+     */
+    private void cargar() {
+        long limite = limiteEnMemoria();
+        List<VentaResumen> filas = ventaResumenRepository.buscarDesde(desdeEpoca(limite));
+        synchronized (this) {
+            for (VentaResumen fila : filas) {
+                sumar(fila.getId().getProductoId(), horaDesdeEpoca(fila.getId().getHora()),
+                        fila.getUnidades(), fila.getIngresosCentimos(), false);
+            }
+            cargado = true;
+        }
+    }
+
+    /**
+     * Suma o resta las líneas de un pedido en la hora y el día de su fecha.
+     */
+    private void aplicar(PedidoEvento.Datos datos, int signo) {
+        if (datos.getFecha() == null) {
+            return;
+        }
+        long hora = horaDesdeEpoca(datos.getFecha());
+        synchronized (this) {
+            for (PedidoLineaDTO linea : datos.getLineas()) {
+                long unidades = (long) signo * linea.getCantidad();
+                long centimos = signo * Math.round(linea.getPrecioUnitario() * 100) * linea.getCantidad();
+                sumar(linea.getProductoId(), hora, unidades, centimos, true);
+            }
+        }
+    }
+
+    /**
+     * Suma unidades e ingresos a la cubeta de la hora y a la del día. Debe llamarse con el monitor tomado.
+     */
+    private void sumar(Long productoId, long hora, long unidades, long centimos, boolean pendiente) {
+        int indice = indice(productoId);
+        Cubeta cubetaHora = porHora.computeIfAbsent(hora, clave -> new Cubeta(productos.length));
+        cubetaHora.sumar(indice, unidades, centimos, pendiente);
+        Cubeta cubetaDia = porDia.computeIfAbsent(Math.floorDiv(hora, 24), clave -> new Cubeta(productos.length));
+        cubetaDia.sumar(indice, unidades, centimos, false);
+    }
+
+    /**
+     * Obtiene el índice denso de un producto, asignándole uno nuevo si no lo tiene.
+     */
+    private int indice(Long productoId) {
+        Integer indice = indices.get(productoId);
+        if (indice != null) {
+            return indice;
+        }
+        if (numeroProductos == productos.length) {
+            productos = Arrays.copyOf(productos, productos.length * 2);
+        }
+        productos[numeroProductos] = productoId;
+        indices.put(productoId, numeroProductos);
+        return numeroProductos++;
+    }
+
+    /**
+     * Extrae y pone a cero los incrementos pendientes, y libera las cubetas antiguas ya volcadas.
+     */
+    private synchronized List<VentaResumen> extraerPendientes() {
+        List<VentaResumen> incrementos = new ArrayList<>();
+        for (Map.Entry<Long, Cubeta> entrada : porHora.entrySet()) {
+            Cubeta cubeta = entrada.getValue();
+            if (!cubeta.conPendientes) {
+                continue;
+            }
+            LocalDateTime hora = desdeEpoca(entrada.getKey());
+            for (int i = 0; i < cubeta.unidades.length && i < numeroProductos; i++) {
+                if (cubeta.unidadesPendientes[i] != 0 || cubeta.centimosPendientes[i] != 0) {
+                    incrementos.add(new VentaResumen(new VentaResumen.Clave(productos[i], hora),
+                            cubeta.unidadesPendientes[i], cubeta.centimosPendientes[i]));
+                    cubeta.unidadesPendientes[i] = 0;
+                    cubeta.centimosPendientes[i] = 0;
+                }
+            }
+            cubeta.conPendientes = false;
+        }
+
+        long limite = limiteEnMemoria();
+        porHora.headMap(limite).clear();
+        Iterator<Long> dias = porDia.keySet().iterator();
+        while (dias.hasNext() && (dias.next() + 1) * 24 <= limite) {
+            dias.remove();
+        }
+        return incrementos;
+    }
+
+    /**
+     * Devuelve a pendientes los incrementos de un volcado fallido.
+     */
+    private synchronized void restaurarPendientes(List<VentaResumen> incrementos) {
+        for (VentaResumen incremento : incrementos) {
+            long hora = horaDesdeEpoca(incremento.getId().getHora());
+            int indice = indice(incremento.getId().getProductoId());
+            Cubeta cubeta = porHora.computeIfAbsent(hora, clave -> new Cubeta(productos.length));
+            cubeta.asegurarCapacidad(indice);
+            cubeta.unidadesPendientes[indice] += incremento.getUnidades();
+            cubeta.centimosPendientes[indice] += incremento.getIngresosCentimos();
+            cubeta.conPendientes = true;
+        }
+    }
+
+    /**
+     * Indica si un día o una hora están completos en memoria.
+     */
+    private boolean enMemoria(long horaInicio, Integer hora) {
+        return cargado && horaInicio + (hora != null ? hora : 0) >= limiteEnMemoria();
+    }
+
+    /**
+     * @return La primera hora (desde la época) que se conserva en memoria.
+     */
+    private long limiteEnMemoria() {
+        return horaDesdeEpoca(LocalDateTime.now()) - horasEnMemoria;
+    }
+
+    private static boolean esVenta(EstadoPedido estado) {
+        return estado == ESTADO_VENTA;
+    }
+
+    private static long horaDesdeEpoca(LocalDateTime fecha) {
+        return Math.floorDiv(fecha.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+
+    private static LocalDateTime desdeEpoca(long hora) {
+        return LocalDateTime.ofEpochSecond(hora * 3600, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Contadores de un periodo (una hora o un día) indexados por el índice denso del producto.
+     */
+    private static final class Cubeta {
+        private long[] unidades;
+        private long[] centimos;
+        private long[] unidadesPendientes;
+        private long[] centimosPendientes;
+        private boolean conPendientes;
+
+        private Cubeta(int capacidad) {
+            unidades = new long[capacidad];
+            centimos = new long[capacidad];
+            unidadesPendientes = new long[capacidad];
+            centimosPendientes = new long[capacidad];
+        }
+
+        private void sumar(int indice, long unidades, long centimos, boolean pendiente) {
+            asegurarCapacidad(indice);
+            this.unidades[indice] += unidades;
+            this.centimos[indice] += centimos;
+            if (pendiente) {
+                unidadesPendientes[indice] += unidades;
+                centimosPendientes[indice] += centimos;
+                conPendientes = true;
+            }
+        }
+
+        private void asegurarCapacidad(int indice) {
+            if (indice < unidades.length) {
+                return;
+            }
+            int capacidad = Math.max(indice + 1, unidades.length * 2);
+            unidades = Arrays.copyOf(unidades, capacidad);
+            centimos = Arrays.copyOf(centimos, capacidad);
+            unidadesPendientes = Arrays.copyOf(unidadesPendientes, capacidad);
+            centimosPendientes = Arrays.copyOf(centimosPendientes, capacidad);
+        }
+    }
+}
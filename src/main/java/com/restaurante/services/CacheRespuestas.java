@@ -0,0 +1,182 @@
+package com.restaurante.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.restaurante.dto.EstadisticasCacheRespuestasDTO;
+
+/**
+ * Caché LRU de cuerpos de respuesta ya serializados, acotada en bytes.
+ *
+ * <p>Cada entrada guarda la versión de sus datos ({@link VersionesDatos}) leída antes de ejecutar el
+ * controlador, y solo se sirve mientras esa versión sigue vigente: las escrituras de los servicios
+ * incrementan la versión al confirmarse y dejan sin validez todas las respuestas del recurso, que se
+ * descartan al consultarlas o por antigüedad. Los cuerpos grandes se guardan también comprimidos con gzip.</p>
+ */
+@Component
+public class CacheRespuestas {
+
+    /** Bytes estimados de cada entrada además de los cuerpos y la clave. */
+    private static final int BYTES_POR_ENTRADA = 128;
+
+    private final long bytesMaximos;
+    private final long comprimirDesde;
+
+    /** Entradas en orden de acceso; protegidas por el monitor de la instancia. */
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+
+    /**
+     * @param tamanoMaximo   Memoria máxima de la caché.
+     * @param comprimirDesde Tamaño a partir del cual se guarda también el cuerpo comprimido.
+     */
+    public CacheRespuestas(@Value("${restaurante.respuestas.cache.tamano-maximo:32MB}") DataSize tamanoMaximo,
+                           @Value("${restaurante.respuestas.cache.comprimir-desde:2KB}") DataSize comprimirDesde) {
+        this.bytesMaximos = tamanoMaximo.toBytes();
+        this.comprimirDesde = comprimirDesde.toBytes();
+    }
+
+    /**
+     * Busca una respuesta cuyos datos sigan vigentes.
+     *
+     * @param clave   La clave de la petición.
+     * @param version La versión actual de los datos de la respuesta.
+     * @return La entrada, o null si no está o es de una versión anterior.
+     */
+    public Entrada buscar(String clave, long version) {
+        synchronized (this) {
+            Entrada entrada = entradas.get(clave);
+            if (entrada != null && entrada.version == version) {
+                aciertos.increment();
+                return entrada;
+            }
+            if (entrada != null) {
+                quitar(clave);
+            }
+        }
+        fallos.increment();
+        return null;
+    }
+
+    /**
+     * Guarda una respuesta. La compresión se hace fuera del bloqueo.
+     *
+     * @param clave        La clave de la petición.
+     * @param version      La versión de los datos leída antes de generar la respuesta.
+     * @param cuerpo       El cuerpo serializado.
+     * @param tipoContenido La cabecera Content-Type.
+     * @param etag         La cabecera ETag, o null.
+     */
+    public void guardar(String clave, long version, byte[] cuerpo, String tipoContenido, String etag) {
+        byte[] comprimido = cuerpo.length >= comprimirDesde ? comprimir(cuerpo) : null;
+        Entrada entrada = new Entrada(version, cuerpo, comprimido, tipoContenido, etag);
+        long tamano = tamano(clave, entrada);
+        if (tamano > bytesMaximos / 8) {
+            return;
+        }
+        synchronized (this) {
+            Entrada anterior = entradas.get(clave);
+            if (anterior != null && anterior.version > version) {
+                return;
+            }
+            quitar(clave);
+            entradas.put(clave, entrada);
+            bytes += tamano;
+            Iterator<Map.Entry<String, Entrada>> antiguas = entradas.entrySet().iterator();
+            while (bytes > bytesMaximos && antiguas.hasNext()) {
+                Map.Entry<String, Entrada> antigua = antiguas.next();
+                bytes -= tamano(antigua.getKey(), antigua.getValue());
+                antiguas.remove();
+                expulsiones.increment();
+            }
+        }
+    }
+
+    /**
+     * @return Las métricas actuales de la caché.
+     */
+    public EstadisticasCacheRespuestasDTO estadisticas() {
+        synchronized (this) {
+            return new EstadisticasCacheRespuestasDTO(entradas.size(), bytes, bytesMaximos,
+                    aciertos.sum(), fallos.sum(), expulsiones.sum());
+        }
+    }
+
+    /**
+     * Quita una entrada y descuenta su tamaño. Se llama con el monitor adquirido.
+     */
+    private void quitar(String clave) {
+        Entrada entrada = entradas.remove(clave);
+        if (entrada != null) {
+            bytes -= tamano(clave, entrada);
+        }
+    }
+
+    private static long tamano(String clave, Entrada entrada) {
+        return BYTES_POR_ENTRADA + 2L * clave.length() + entrada.cuerpo.length
+                + (entrada.comprimido != null ? entrada.comprimido.length : 0);
+    }
+
+    private static byte[] comprimir(byte[] cuerpo) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(cuerpo.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(cuerpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Respuesta guardada; inmutable y compartida entre hilos.
+     */
+    public static final class Entrada {
+        private final long version;
+        private final byte[] cuerpo;
+        private final byte[] comprimido;
+        private final String tipoContenido;
+        private final String etag;
+
+        private Entrada(long version, byte[] cuerpo, byte[] comprimido, String tipoContenido, String etag) {
+            this.version = version;
+            this.cuerpo = cuerpo;
+            this.comprimido = comprimido;
+            this.tipoContenido = tipoContenido;
+            this.etag = etag;
+        }
+
+        /** @return El cuerpo sin comprimir. */
+        public byte[] getCuerpo() {
+            return cuerpo;
+        }
+
+        /** @return El cuerpo comprimido con gzip, o null si es pequeño. */
+        public byte[] getComprimido() {
+            return comprimido;
+        }
+
+        /** @return La cabecera Content-Type. */
+        public String getTipoContenido() {
+            return tipoContenido;
+        }
+
+        /** @return La cabecera ETag, o null. */
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
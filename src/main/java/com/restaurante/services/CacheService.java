@@ -0,0 +1,24 @@
+package com.restaurante.services;
+
+import java.util.List;
+
+import com.restaurante.dto.EstadisticasCacheRespuestasDTO;
+import com.restaurante.dto.EstadisticasRegionCacheDTO;
+
+/**
+ * Interfaz que define los métodos para consultar la caché de segundo nivel y la de respuestas.
+ */
+public interface CacheService {
+
+    /**
+     * Obtiene las métricas de cada región de la caché de segundo nivel y de la caché de consultas.
+     * @return Una lista con las métricas por región.
+     */
+    List<EstadisticasRegionCacheDTO> estadisticasRegiones();
+
+    /**
+     * Obtiene las métricas de la caché de respuestas serializadas.
+     * @return Las métricas de la caché.
+     */
+    EstadisticasCacheRespuestasDTO estadisticasRespuestas();
+}
@@ -0,0 +1,90 @@
+package com.restaurante.services;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.restaurante.dto.EstadisticasCacheRespuestasDTO;
+import com.restaurante.dto.EstadisticasRegionCacheDTO;
+
+/**
+ * Implementación del servicio de consulta de la caché de segundo nivel y de la caché de respuestas.
+ * Las métricas de la caché de segundo nivel se leen de las estadísticas JCache que Caffeine registra
+ * por región, sin activar las estadísticas de Hibernate ({@code hibernate.generate_statistics}).
+ */
+@Service
+public class CacheServiceImp implements CacheService {
+
+    @Autowired
+    private CacheManager cacheManagerHibernate;
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    @Override
+    public List<EstadisticasRegionCacheDTO> estadisticasRegiones() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        TreeSet<String> regiones = new TreeSet<>();
+        cacheManagerHibernate.getCacheNames().forEach(regiones::add);
+
+        List<EstadisticasRegionCacheDTO> resultado = new ArrayList<>(regiones.size());
+        for (String region : regiones) {
+            Cache<Object, Object> cache = cacheManagerHibernate.getCache(region);
+            ObjectName nombre = nombreEstadisticas(region);
+            if (cache == null || !servidor.isRegistered(nombre)) {
+                continue;
+            }
+            CacheStatisticsMXBean metricas = JMX.newMXBeanProxy(servidor, nombre, CacheStatisticsMXBean.class);
+            resultado.add(new EstadisticasRegionCacheDTO(region, metricas.getCacheHits(), metricas.getCacheMisses(),
+                    metricas.getCachePuts(), elementos(cache)));
+        }
+        return resultado;
+    }
+
+    @Override
+    public EstadisticasCacheRespuestasDTO estadisticasRespuestas() {
+        return cacheRespuestas.estadisticas();
+    }
+
+    /**
+     * Construye el nombre JMX con el que el proveedor JCache publica las estadísticas de una región.
+     */
+    private ObjectName nombreEstadisticas(String region) {
+        try {
+            return new ObjectName(String.format("javax.cache:type=CacheStatistics,CacheManager=%s,Cache=%s",
+                    sanear(cacheManagerHibernate.getURI().toString()), sanear(region)));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException("Nombre JMX no válido para la región " + region, e);
+        }
+    }
+
+    /**
+     * Sustituye los caracteres reservados de los nombres JMX igual que al registrarlos.
+     */
+    private static String sanear(String valor) {
+        return valor.replaceAll("[,:=\\n]", ".");
+    }
+
+    /**
+     * Obtiene el número aproximado de entradas de la región, o -1 si el proveedor no lo informa.
+     */
+    private static long elementos(Cache<Object, Object> cache) {
+        try {
+            return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
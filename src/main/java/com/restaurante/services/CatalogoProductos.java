@@ -0,0 +1,348 @@
+package com.restaurante.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.EstadisticasCatalogoDTO;
+import com.restaurante.events.ProductoEvento;
+import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.util.IndiceTexto;
+
+/**
+ * Instantánea inmutable del catálogo de productos, propiedad del servicio de productos.
+ *
+ * <p>La instantánea se reconstruye completa (copy-on-write) cada vez que se confirma una
+ * escritura de productos y se publica con una única escritura volátil, por lo que las lecturas
+ * no usan bloqueos ni consultan la base de datos. Guarda registros inmutables; cada lectura
+ * devuelve productos desconectados creados para esa llamada, de modo que modificarlos no afecta
+ * a la instantánea ni a otros hilos.</p>
+ *
+ * <p>Cada instantánea incluye un índice de texto sobre el nombre y la descripción, de modo que la
+ * búsqueda de productos se mantiene sincronizada con las escrituras sin trabajo adicional.</p>
+ */
+@Component
+public class CatalogoProductos {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoProductos.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private VersionesDatos versionesDatos;
+
+    private volatile Instantanea instantanea;
+
+    /** Peso de las coincidencias en el nombre frente a las de la descripción. */
+    private static final double PESO_NOMBRE = 3;
+    private static final double PESO_DESCRIPCION = 1;
+
+    /** Generación de la última reconstrucción solicitada. */
+    private final AtomicLong generaciones = new AtomicLong();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder recargas = new LongAdder();
+
+    /**
+     * Carga la instantánea inicial al arrancar la aplicación.
+     * Si la base de datos no está disponible, las lecturas recurren al repositorio hasta la siguiente recarga.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarInicial() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo cargar el catálogo de productos al arrancar", e);
+        }
+    }
+
+    /**
+     * Vuelve a intentar la carga si la instantánea no se pudo cargar al arrancar. Mientras tanto,
+     * las lecturas recurren al repositorio en lugar de reconstruirla en el hilo de la petición.
+     */
+    @Scheduled(fixedDelayString = "${restaurante.catalogo.reintentar-carga:30000}")
+    @Transactional(readOnly = true)
+    public void cargarSiFalta() {
+        if (instantanea != null) {
+            return;
+        }
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo cargar el catálogo de productos; se reintentará", e);
+        }
+    }
+
+    /**
+     * Reconstruye la instantánea después de que se confirme una escritura de productos e incrementa
+     * después la versión del catálogo, aunque la reconstrucción falle, porque las lecturas que no usan
+     * la instantánea ya ven la escritura.
+     *
+     * @param evento El evento publicado por el servicio de productos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProducto(ProductoEvento evento) {
+        try {
+            recargar();
+        } finally {
+            versionesDatos.incrementar(VersionesDatos.Recurso.PRODUCTOS);
+        }
+    }
+
+    /**
+     * Fuerza la reconstrucción de la instantánea desde la base de datos e incrementa la versión
+     * del catálogo, por si la base de datos se modificó fuera de la aplicación.
+     */
+    @Transactional(readOnly = true)
+    public void refrescar() {
+        recargar();
+        versionesDatos.incrementar(VersionesDatos.Recurso.PRODUCTOS);
+    }
+
+    /**
+     * Busca un producto en la instantánea.
+     *
+     * @param id El identificador del producto.
+     * @return Una copia del producto, o null si no está en la instantánea.
+     */
+    public Producto buscar(Long id) {
+        Instantanea actual = instantanea;
+        Entrada entrada = actual != null ? actual.porId.get(id) : null;
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return actual.copiar(entrada);
+    }
+
+    /**
+     * Devuelve todos los productos de la instantánea ordenados por ID.
+     *
+     * @return Copias de los productos, o null si la instantánea no está cargada.
+     */
+    public List<Producto> listar() {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return actual.copiar(actual.listado);
+    }
+
+    /**
+     * Obtiene una página del catálogo a partir de un cursor mediante búsqueda binaria sobre los IDs.
+     *
+     * @param despuesDe El último ID ya entregado.
+     * @param limite    El número máximo de productos.
+     * @return La página solicitada, o null si la instantánea no está cargada.
+     */
+    public Slice<Producto> pagina(long despuesDe, int limite) {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        int posicion = Arrays.binarySearch(actual.ids, despuesDe);
+        int inicio = posicion >= 0 ? posicion + 1 : -posicion - 1;
+        int fin = Math.min(inicio + limite, actual.ids.length);
+        List<Producto> contenido = actual.copiar(actual.listado.subList(inicio, fin));
+        return new SliceImpl<>(contenido, PageRequest.of(0, limite), fin < actual.ids.length);
+    }
+
+    /**
+     * Busca productos por palabras o prefijos de su nombre y descripción, sin distinguir mayúsculas ni tildes.
+     *
+     * @param consulta El texto buscado.
+     * @param limite   El número máximo de productos.
+     * @return Los productos ordenados por relevancia, o null si la instantánea no está cargada.
+     */
+    public List<Producto> buscarTexto(String consulta, int limite) {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        int[] posiciones = actual.indice.buscar(consulta, limite);
+        List<Producto> productos = new ArrayList<>(posiciones.length);
+        for (int posicion : posiciones) {
+            productos.add(actual.copiar(actual.listado.get(posicion)));
+        }
+        return productos;
+    }
+
+    /**
+     * Obtiene el ID de la variante de un producto según la instantánea.
+     *
+     * @param id El identificador del producto.
+     * @return El ID de la variante, o null si no tiene o no está en la instantánea.
+     */
+    public Long varianteDe(Long id) {
+        Instantanea actual = instantanea;
+        return actual != null ? actual.variantes.get(id) : null;
+    }
+
+    /**
+     * @return Las métricas actuales de la instantánea.
+     */
+    public EstadisticasCatalogoDTO estadisticas() {
+        Instantanea actual = instantanea;
+        return new EstadisticasCatalogoDTO(
+                actual != null ? actual.ids.length : 0,
+                aciertos.sum(),
+                fallos.sum(),
+                recargas.sum(),
+                actual != null ? actual.creada : null);
+    }
+
+    /**
+     * Lee el catálogo completo y publica una nueva instantánea, salvo que otra
+     * reconstrucción iniciada después ya la haya publicado.
+     */
+    private void recargar() {
+        long generacion = generaciones.incrementAndGet();
+        Instantanea nueva = construir(productoRepository.findAll(), generacion);
+        synchronized (this) {
+            if (instantanea == null || instantanea.generacion < generacion) {
+                instantanea = nueva;
+                recargas.increment();
+            }
+        }
+    }
+
+    /**
+     * Construye una instantánea con los datos de los productos, sin referencias a las entidades.
+     *
+     * @param productos  Los productos leídos de la base de datos.
+     * @param generacion La generación de la reconstrucción.
+     * @return La nueva instantánea.
+     */
+    private static Instantanea construir(List<Producto> productos, long generacion) {
+        Entrada[] ordenados = new Entrada[productos.size()];
+        Map<Long, Long> variantes = new HashMap<>();
+        for (int i = 0; i < ordenados.length; i++) {
+            Producto producto = productos.get(i);
+            // El ID de la variante se lee del proxy sin inicializarlo.
+            Long varianteId = producto.getVariante() != null ? producto.getVariante().getId() : null;
+            ordenados[i] = new Entrada(producto.getId(), producto.getNombre(), producto.getDescripcion(),
+                    producto.getPrecio(), varianteId);
+            if (varianteId != null) {
+                variantes.put(producto.getId(), varianteId);
+            }
+        }
+        Arrays.sort(ordenados, (a, b) -> Long.compare(a.id(), b.id()));
+
+        long[] ids = new long[ordenados.length];
+        Map<Long, Entrada> porId = new HashMap<>(ordenados.length * 2);
+        List<String[]> textos = new ArrayList<>(ordenados.length);
+        for (int i = 0; i < ordenados.length; i++) {
+            ids[i] = ordenados[i].id();
+            porId.put(ordenados[i].id(), ordenados[i]);
+            textos.add(new String[] {ordenados[i].nombre(), ordenados[i].descripcion()});
+        }
+        return new Instantanea(ids, List.of(ordenados), Map.copyOf(porId), Map.copyOf(variantes),
+                new IndiceTexto(textos, PESO_NOMBRE, PESO_DESCRIPCION), generacion, LocalDateTime.now());
+    }
+
+    /**
+     * Datos inmutables de un producto en la instantánea.
+     */
+    private record Entrada(Long id, String nombre, String descripcion, double precio, Long varianteId) {
+
+        private Producto aProducto() {
+            Producto producto = new Producto();
+            producto.setId(id);
+            producto.setNombre(nombre);
+            producto.setDescripcion(descripcion);
+            producto.setPrecio(precio);
+            return producto;
+        }
+    }
+
+    /**
+     * Contenido inmutable de una versión del catálogo.
+     */
+    private static final class Instantanea {
+        private final long[] ids;
+        private final List<Entrada> listado;
+        private final Map<Long, Entrada> porId;
+        private final Map<Long, Long> variantes;
+        private final IndiceTexto indice;
+        private final long generacion;
+        private final LocalDateTime creada;
+
+        private Instantanea(long[] ids, List<Entrada> listado, Map<Long, Entrada> porId,
+                            Map<Long, Long> variantes, IndiceTexto indice, long generacion, LocalDateTime creada) {
+            this.ids = ids;
+            this.listado = listado;
+            this.porId = porId;
+            this.variantes = variantes;
+            this.indice = indice;
+            this.generacion = generacion;
+            this.creada = creada;
+        }
+
+        private List<Producto> copiar(List<Entrada> entradas) {
+            List<Producto> productos = new ArrayList<>(entradas.size());
+            for (Entrada entrada : entradas) {
+                productos.add(copiar(entrada));
+            }
+            return productos;
+        }
+
+        /**
+         * Crea un producto nuevo con su cadena de variantes. Si la cadena tiene un ciclo, el producto
+         * repetido se enlaza con la copia ya creada, como en las entidades, para que el mapeador lo detecte.
+         */
+        private Producto copiar(Entrada entrada) {
+            Producto producto = entrada.aProducto();
+            if (entrada.varianteId() == null) {
+                return producto;
+            }
+            Map<Long, Producto> copiados = new HashMap<>(4);
+            copiados.put(entrada.id(), producto);
+            Producto ultimo = producto;
+            Entrada siguiente = porId.get(entrada.varianteId());
+            while (siguiente != null) {
+                Producto repetido = copiados.get(siguiente.id());
+                if (repetido != null) {
+                    ultimo.setVariante(repetido);
+                    break;
+                }
+                Producto variante = siguiente.aProducto();
+                copiados.put(siguiente.id(), variante);
+                ultimo.setVariante(variante);
+                ultimo = variante;
+                siguiente = siguiente.varianteId() != null ? porId.get(siguiente.varianteId()) : null;
+            }
+            return producto;
+        }
+    }
+}
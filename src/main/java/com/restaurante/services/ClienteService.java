@@ -1,6 +1,11 @@
 package com.restaurante.services;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Slice;
+
 import com.restaurante.domain.Cliente;
 import com.restaurante.exception.IllegalOperationException;
 import com.restaurante.exception.EntityNotFoundException;
@@ -18,6 +23,14 @@ public interface ClienteService {
      */
     List<Cliente> listarTodos() throws EntityNotFoundException;
 
+    /**
+     * Obtiene una página de clientes a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de clientes a devolver.
+     * @return Un Slice con los clientes de la página.
+     */
+    Slice<Cliente> listarPagina(long despuesDe, int limite);
+
     /**
      * Busca un cliente por su identificador.
      * 
@@ -28,6 +41,33 @@ public interface ClienteService {
      */
     Cliente buscarPorId(Long id) throws EntityNotFoundException, IllegalOperationException;
 
+    /**
+     * Busca varios clientes por sus identificadores en una sola consulta.
+     * @param ids Los identificadores buscados.
+     * @return Los clientes que existen, en cualquier orden.
+     */
+    List<Cliente> buscarPorIds(Collection<Long> ids);
+
+    /**
+     * Obtiene una página de clientes con solo los campos indicados, sin cargar las entidades.
+     * @param campos    Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de clientes a devolver.
+     * @return Un Slice con un mapa de campo a valor por cada cliente; incluye siempre el ID.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    Slice<Map<String, Object>> listarCampos(String campos, long despuesDe, int limite) throws IllegalOperationException;
+
+    /**
+     * Busca un cliente por su identificador y devuelve solo los campos indicados, sin cargar la entidad.
+     * @param id     El identificador del cliente.
+     * @param campos Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @return Un mapa de campo a valor; incluye siempre el ID.
+     * @throws EntityNotFoundException Si no se encuentra el cliente con el ID especificado.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    Map<String, Object> buscarCamposPorId(Long id, String campos) throws EntityNotFoundException, IllegalOperationException;
+
     /**
      * Guarda un nuevo cliente en la base de datos.
      * 
@@ -65,4 +105,15 @@ public interface ClienteService {
      * @return Una lista de clientes que coinciden con el nombre especificado.
      */
     List<Cliente> buscarPorNombre(String nombre);
+
+    /**
+     * Busca clientes por el principio del nombre o del correo, o por el principio o el final del teléfono,
+     * sin distinguir mayúsculas ni tildes.
+     *
+     * @param consulta El texto buscado.
+     * @param limite   El número máximo de clientes.
+     * @return Los clientes encontrados, como máximo {@code limite}.
+     * @throws IllegalOperationException Si la consulta está vacía, es demasiado larga o tiene pocos dígitos.
+     */
+    List<Cliente> buscar(String consulta, int limite) throws IllegalOperationException;
 }
@@ -1,17 +1,34 @@
 package com.restaurante.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.restaurante.domain.Cliente;
+import com.restaurante.events.ClienteEvento;
 import com.restaurante.repositories.ClienteRepository;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.ErrorMessage;
 import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.util.Campos;
+import com.restaurante.util.Restricciones;
+import com.restaurante.util.TextoNormalizado;
 
 /**
  * Implementación del servicio para la entidad Cliente.
@@ -19,9 +36,39 @@ import com.restaurante.exception.IllegalOperationException;
 @Service
 public class ClienteServiceImp implements ClienteService {
 
+    /** Campos seleccionables con el parámetro {@code fields} y el atributo que lee cada uno. */
+    private static final Map<String, String> CAMPOS_SELECCIONABLES = Map.of(
+            "id", "id", "nombre", "nombre", "correoElectronico", "correoElectronico",
+            "numeroTelefonico", "numeroTelefonico");
+
+    private static final Logger logger = LoggerFactory.getLogger(ClienteServiceImp.class);
+
+    private static final String NOMBRE_REPETIDO = "El nombre del cliente ya existe";
+
+    /** Índice único que garantiza que no se repite el nombre. */
+    private static final String RESTRICCION_NOMBRE = "uk_cliente_nombre";
+
+    /** Longitud máxima de una consulta de búsqueda. */
+    private static final int LONGITUD_MAXIMA_CONSULTA = 100;
+
+    /** Número mínimo de dígitos para buscar por teléfono. */
+    private static final int MINIMO_DIGITOS = 3;
+
+    /** Número de clientes cuyas columnas de búsqueda se calculan en cada lote al arrancar. */
+    private static final int CLIENTES_POR_LOTE = 500;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private RegistroNombres registroNombres;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * Obtiene una lista de todos los clientes.
      * 
@@ -33,6 +80,18 @@ public class ClienteServiceImp implements ClienteService {
         return clienteRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de clientes a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de clientes a devolver.
+     * @return Un Slice con los clientes de la página.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Cliente> listarPagina(long despuesDe, int limite) {
+        return clienteRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, PageRequest.of(0, limite));
+    }
+
     /**
      * Busca un cliente por su identificador.
      * 
@@ -47,20 +106,63 @@ public class ClienteServiceImp implements ClienteService {
         return clienteOptional.orElseThrow(() -> new EntityNotFoundException(ErrorMessage.CLIENTE_NOT_FOUND));
     }
 
+    /**
+     * Busca varios clientes por sus identificadores en una sola consulta {@code IN}.
+     * @param ids Los identificadores buscados.
+     * @return Los clientes que existen, en cualquier orden.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Cliente> buscarPorIds(Collection<Long> ids) {
+        return clienteRepository.findByIdIn(ids);
+    }
+
+    /**
+     * Obtiene una página de clientes con solo los campos indicados, sin cargar las entidades.
+     * @param campos    Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de clientes a devolver.
+     * @return Un Slice con un mapa de campo a valor por cada cliente; incluye siempre el ID.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> listarCampos(String campos, long despuesDe, int limite) throws IllegalOperationException {
+        return clienteRepository.buscarCampos(Campos.seleccionar(campos, CAMPOS_SELECCIONABLES), despuesDe, limite);
+    }
+
+    /**
+     * Busca un cliente por su identificador y devuelve solo los campos indicados, sin cargar la entidad.
+     * @param id     El identificador del cliente.
+     * @param campos Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @return Un mapa de campo a valor; incluye siempre el ID.
+     * @throws EntityNotFoundException Si no se encuentra el cliente con el ID especificado.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> buscarCamposPorId(Long id, String campos) throws EntityNotFoundException, IllegalOperationException {
+        return clienteRepository.buscarCamposPorId(Campos.seleccionar(campos, CAMPOS_SELECCIONABLES), id)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.CLIENTE_NOT_FOUND));
+    }
+
     /**
      * Guarda un nuevo cliente en la base de datos.
+     * La consulta previa del nombre solo se hace si el filtro de nombres indica que puede existir;
+     * en cualquier caso, el índice único rechaza un nombre repetido al insertar.
      * 
      * @param cliente El cliente a guardar.
      * @return El cliente guardado.
-     * @throws IllegalOperationException Si ocurre una operación ilegal al intentar guardar el cliente.
+     * @throws IllegalOperationException Si el nombre del cliente ya existe.
      */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public Cliente grabar(Cliente cliente) throws IllegalOperationException {
-        if (!clienteRepository.findByNombre(cliente.getNombre()).isEmpty()) {
-            throw new IllegalOperationException("El nombre del cliente ya existe");
+        if (registroNombres.clientePuedeExistir(cliente.getNombre())
+                && !clienteRepository.findByNombre(cliente.getNombre()).isEmpty()) {
+            throw new IllegalOperationException(NOMBRE_REPETIDO);
         }
-        return clienteRepository.save(cliente);
+        return guardar(cliente);
     }
 
     /**
@@ -70,19 +172,45 @@ public class ClienteServiceImp implements ClienteService {
      * @param cliente El cliente con los datos actualizados.
      * @return El cliente actualizado.
      * @throws EntityNotFoundException    Si no se encuentra el cliente con el ID especificado.
-     * @throws IllegalOperationException Si ocurre una operación ilegal al intentar actualizar el cliente.
+     * @throws IllegalOperationException Si el nombre pertenece a otro cliente.
      */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public Cliente actualizar(Long id, Cliente cliente) throws EntityNotFoundException, IllegalOperationException {
         Optional<Cliente> clienteEntity = clienteRepository.findById(id);
         if (clienteEntity.isEmpty())
             throw new EntityNotFoundException(ErrorMessage.CLIENTE_NOT_FOUND);
-        if (!clienteRepository.findByNombre(cliente.getNombre()).isEmpty()) {
-            throw new IllegalOperationException("El nombre del cliente ya existe");
+        if (registroNombres.clientePuedeExistir(cliente.getNombre())) {
+            for (Cliente existente : clienteRepository.findByNombre(cliente.getNombre())) {
+                if (!existente.getId().equals(id)) {
+                    throw new IllegalOperationException(NOMBRE_REPETIDO);
+                }
+            }
         }
         cliente.setId(id);
-        return clienteRepository.save(cliente);
+        return guardar(cliente);
+    }
+
+    /**
+     * Guarda el cliente y registra su nombre, traduciendo el rechazo del índice único
+     * del nombre; cualquier otra violación de integridad se propaga sin cambios.
+     * @param cliente El cliente a guardar.
+     * @return El cliente guardado.
+     * @throws IllegalOperationException Si el índice único rechaza el nombre.
+     */
+    private Cliente guardar(Cliente cliente) throws IllegalOperationException {
+        Cliente guardado;
+        try {
+            guardado = clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException e) {
+            if (!Restricciones.esViolacionDe(e, RESTRICCION_NOMBRE)) {
+                throw e;
+            }
+            throw new IllegalOperationException(NOMBRE_REPETIDO);
+        }
+        registroNombres.registrarCliente(guardado.getNombre());
+        eventPublisher.publishEvent(new ClienteEvento(guardado.getId()));
+        return guardado;
     }
 
     /**
@@ -102,6 +230,7 @@ public class ClienteServiceImp implements ClienteService {
             throw new IllegalOperationException("El cliente tiene pedidos asignados");
         }
         clienteRepository.deleteById(idCliente);
+        eventPublisher.publishEvent(new ClienteEvento(idCliente));
     }
 
     /**
@@ -114,4 +243,115 @@ public class ClienteServiceImp implements ClienteService {
     public List<Cliente> buscarPorNombre(String nombre) {
         return clienteRepository.findByNombre(nombre);
     }
+
+    /**
+     * Busca clientes con las columnas de búsqueda normalizadas; cada consulta recorre un rango de un índice
+     * y se detiene en el límite. Una consulta de dígitos y signos telefónicos busca por el principio y por el
+     * final del teléfono; una con {@code @}, por el principio del correo; cualquier otra, por el principio
+     * del nombre y, si faltan resultados, del correo.
+     *
+     * @param consulta El texto buscado.
+     * @param limite   El número máximo de clientes.
+     * @return Los clientes encontrados, como máximo {@code limite}.
+     * @throws IllegalOperationException Si la consulta está vacía, es demasiado larga o tiene pocos dígitos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Cliente> buscar(String consulta, int limite) throws IllegalOperationException {
+        if (consulta == null || consulta.isBlank() || consulta.length() > LONGITUD_MAXIMA_CONSULTA) {
+            throw new IllegalOperationException("La búsqueda debe tener entre 1 y " + LONGITUD_MAXIMA_CONSULTA + " caracteres.");
+        }
+        Pageable pagina = PageRequest.of(0, limite);
+        List<Cliente> clientes = new ArrayList<>();
+        if (esTelefono(consulta)) {
+            String digitos = TextoNormalizado.digitos(consulta);
+            if (digitos.length() < MINIMO_DIGITOS) {
+                throw new IllegalOperationException("La búsqueda por teléfono debe tener al menos " + MINIMO_DIGITOS + " dígitos.");
+            }
+            agregar(clientes, clienteRepository.findByTelefonoBusquedaStartingWithOrderByTelefonoBusquedaAsc(digitos, pagina), limite);
+            if (clientes.size() < limite) {
+                String invertidos = new StringBuilder(digitos).reverse().toString();
+                agregar(clientes, clienteRepository.findByTelefonoInvertidoStartingWithOrderByTelefonoInvertidoAsc(invertidos, pagina), limite);
+            }
+            return clientes;
+        }
+        String correo = TextoNormalizado.normalizar(consulta.trim());
+        if (consulta.indexOf('@') < 0) {
+            String nombre = TextoNormalizado.frase(consulta);
+            if (!nombre.isEmpty()) {
+                agregar(clientes, clienteRepository.findByNombreBusquedaStartingWithOrderByNombreBusquedaAsc(nombre, pagina), limite);
+            }
+        }
+        if (clientes.size() < limite) {
+            agregar(clientes, clienteRepository.findByCorreoBusquedaStartingWithOrderByCorreoBusquedaAsc(correo, pagina), limite);
+        }
+        return clientes;
+    }
+
+    /**
+     * Calcula al arrancar las columnas de búsqueda de los clientes que aún no las tienen,
+     * por lotes de {@link #CLIENTES_POR_LOTE} confirmados cada uno en su propia transacción.
+     * Si se interrumpe, el siguiente arranque continúa con los que siguen pendientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarColumnasBusqueda() {
+        long completados = 0;
+        long ultimoId = 0;
+        try {
+            while (true) {
+                long despuesDe = ultimoId;
+                List<Cliente> lote = transactionTemplate.execute(estado -> {
+                    List<Cliente> pendientes = clienteRepository.buscarSinNormalizar(despuesDe,
+                            PageRequest.of(0, CLIENTES_POR_LOTE));
+                    for (Cliente cliente : pendientes) {
+                        cliente.normalizarBusqueda();
+                    }
+                    return pendientes;
+                });
+                if (lote.isEmpty()) {
+                    break;
+                }
+                completados += lote.size();
+                ultimoId = lote.get(lote.size() - 1).getId();
+                if (lote.size() < CLIENTES_POR_LOTE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron calcular las columnas de búsqueda de clientes a partir del id {}", ultimoId, e);
+        }
+        if (completados > 0) {
+            logger.info("Columnas de búsqueda calculadas para {} clientes", completados);
+        }
+    }
+
+    /**
+     * Indica si la consulta solo contiene dígitos y signos habituales en un teléfono.
+     */
+    private static boolean esTelefono(String consulta) {
+        boolean digito = false;
+        for (int i = 0; i < consulta.length(); i++) {
+            char c = consulta.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digito = true;
+            } else if (c != ' ' && c != '+' && c != '-' && c != '(' && c != ')' && c != '.') {
+                return false;
+            }
+        }
+        return digito;
+    }
+
+    /**
+     * Añade los clientes que no estén ya en la lista, sin superar el límite.
+     */
+    private static void agregar(List<Cliente> clientes, List<Cliente> encontrados, int limite) {
+        for (Cliente cliente : encontrados) {
+            if (clientes.size() >= limite) {
+                return;
+            }
+            if (clientes.stream().noneMatch(previo -> previo.getId().equals(cliente.getId()))) {
+                clientes.add(cliente);
+            }
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package com.restaurante.services;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.dto.ColaEstadoDTO;
+import com.restaurante.events.PedidoEvento;
+import com.restaurante.repositories.PedidoRepository;
+
+/**
+ * Colas en memoria con los IDs de los pedidos de cada estado no final, en orden de llegada.
+ *
+ * <p>Se cargan al arrancar, ordenadas por fecha, y se mantienen con los eventos de pedidos confirmados:
+ * un pedido sale de la cola de su estado anterior y entra al final de la del nuevo. Así, consultar los
+ * siguientes pedidos pendientes solo recorre los IDs solicitados y no consulta la base de datos.
+ * Los estados finales no tienen cola porque solo crecen.</p>
+ */
+@Component
+public class ColasEstadoPedido {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColasEstadoPedido.class);
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private final Map<EstadoPedido, LinkedHashSet<Long>> colas = new EnumMap<>(EstadoPedido.class);
+
+    /** Eventos recibidos mientras se cargan las colas, o null si no hay una carga en curso. */
+    private List<PedidoEvento> eventosEnCarga;
+
+    private boolean cargadas;
+
+    /**
+     * Carga las colas al arrancar la aplicación. Los eventos que llegan durante la lectura se aplican
+     * después; aplicar dos veces el mismo cambio no altera las colas.
+     * Si la base de datos no está disponible, las consultas recurren a ella.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarInicial() {
+        synchronized (this) {
+            eventosEnCarga = new ArrayList<>();
+        }
+        try {
+            Map<EstadoPedido, LinkedHashSet<Long>> leidas = new EnumMap<>(EstadoPedido.class);
+            for (EstadoPedido estado : EstadoPedido.values()) {
+                if (!estado.esFinal()) {
+                    leidas.put(estado, new LinkedHashSet<>(pedidoRepository.buscarIdsPorEstado(estado, Pageable.unpaged())));
+                }
+            }
+            synchronized (this) {
+                colas.putAll(leidas);
+                for (PedidoEvento evento : eventosEnCarga) {
+                    aplicar(evento);
+                }
+                cargadas = true;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron cargar las colas de pedidos por estado", e);
+        } finally {
+            synchronized (this) {
+                eventosEnCarga = null;
+            }
+        }
+    }
+
+    /**
+     * Mueve el pedido entre colas después de que se confirme el cambio.
+     *
+     * @param evento El evento publicado por el servicio de pedidos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void alModificarPedido(PedidoEvento evento) {
+        if (eventosEnCarga != null) {
+            eventosEnCarga.add(evento);
+        }
+        if (cargadas) {
+            aplicar(evento);
+        }
+    }
+
+    /**
+     * Obtiene los siguientes pedidos de un estado.
+     *
+     * @param estado El estado consultado.
+     * @param limite El número máximo de IDs.
+     * @return Los siguientes pedidos, o null si las colas no están cargadas o el estado no tiene cola.
+     */
+    public synchronized ColaEstadoDTO siguientes(EstadoPedido estado, int limite) {
+        LinkedHashSet<Long> cola = cargadas ? colas.get(estado) : null;
+        if (cola == null) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limite, cola.size()));
+        Iterator<Long> iterador = cola.iterator();
+        while (ids.size() < limite && iterador.hasNext()) {
+            ids.add(iterador.next());
+        }
+        return new ColaEstadoDTO(estado.getNombre(), cola.size(), ids);
+    }
+
+    /**
+     * Aplica un cambio a las colas. Debe llamarse con el monitor tomado.
+     */
+    private void aplicar(PedidoEvento evento) {
+        EstadoPedido anterior = evento.getAnterior() != null ? evento.getAnterior().getEstado() : null;
+        EstadoPedido actual = evento.getActual() != null ? evento.getActual().getEstado() : null;
+        if (anterior == actual || evento.getPedidoId() == null) {
+            return;
+        }
+        if (anterior != null && colas.containsKey(anterior)) {
+            colas.get(anterior).remove(evento.getPedidoId());
+        }
+        if (actual != null && colas.containsKey(actual)) {
+            colas.get(actual).add(evento.getPedidoId());
+        }
+    }
+}
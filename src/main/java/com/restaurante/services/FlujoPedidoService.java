@@ -0,0 +1,20 @@
+package com.restaurante.services;
+
+import java.util.Set;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Interfaz que define los métodos para el flujo de cambios de pedidos (Server-Sent Events).
+ */
+public interface FlujoPedidoService {
+
+    /**
+     * Suscribe un cliente al flujo de cambios de pedidos.
+     * @param estados        Los estados que interesan al cliente, o vacío para recibir todos los cambios.
+     *                       Un cambio se envía si el estado anterior o el nuevo está entre ellos.
+     * @param ultimoEventoId El ID del último evento recibido (cabecera Last-Event-ID), o null si es una suscripción nueva.
+     * @return El emisor por el que se envían los eventos.
+     */
+    SseEmitter suscribir(Set<String> estados, String ultimoEventoId);
+}
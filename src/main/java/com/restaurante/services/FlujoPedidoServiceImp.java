@@ -0,0 +1,284 @@
+package com.restaurante.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.restaurante.dto.PedidoCambioDTO;
+import com.restaurante.events.PedidoEvento;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementación del flujo de cambios de pedidos con Server-Sent Events.
+ *
+ * <p>Cada cambio confirmado recibe un número de secuencia y se guarda en un búfer circular de tamaño fijo,
+ * desde el que se reenvían los eventos perdidos a quien se reconecta con {@code Last-Event-ID}.
+ * Quien confirma el cambio solo deja el evento en la cola acotada de cada suscriptor, sin esperar;
+ * cada suscriptor tiene un hilo virtual que vacía su cola hacia la conexión. Si un suscriptor no
+ * consume lo bastante rápido y su cola se llena, se cierra su conexión para que se reconecte y
+ * recupere lo perdido del búfer.</p>
+ */
+@Service
+public class FlujoPedidoServiceImp implements FlujoPedidoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlujoPedidoServiceImp.class);
+
+    /** Nombre de los eventos con cambios de pedidos. */
+    static final String EVENTO_PEDIDO = "pedido";
+
+    /** Nombre del evento que indica que se perdieron cambios y el cliente debe recargar el listado. */
+    static final String EVENTO_REINICIO = "reinicio";
+
+    /** Milisegundos que el navegador espera antes de reconectar (campo {@code retry}). */
+    private static final long RECONEXION_MS = 3000;
+
+    /** Número de cambios recientes que se conservan para reenviar. */
+    @Value("${restaurante.pedidos.stream.eventos-en-memoria:1024}")
+    private int capacidad;
+
+    /** Número máximo de eventos pendientes de enviar a cada suscriptor. */
+    @Value("${restaurante.pedidos.stream.cola-por-suscriptor:256}")
+    private int colaPorSuscriptor;
+
+    /** Intervalo de los comentarios enviados a las conexiones inactivas para detectar las cerradas. */
+    @Value("${restaurante.pedidos.stream.latido:15s}")
+    private Duration latido;
+
+    /** Duración máxima de una conexión; el cliente se reconecta al expirar. */
+    @Value("${restaurante.pedidos.stream.timeout:30m}")
+    private Duration timeout;
+
+    /** Búfer circular de los últimos cambios; el de secuencia {@code s} está en {@code s % capacidad}. */
+    private PedidoCambioDTO[] recientes;
+
+    /**
+     * Secuencia del último cambio. Empieza en un valor derivado del reloj para que los IDs de una ejecución
+     * anterior sean siempre menores y se detecten como perdidos al reconectar.
+     */
+    private long ultimaSecuencia;
+
+    private final List<Suscriptor> suscriptores = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void inicializar() {
+        recientes = new PedidoCambioDTO[capacidad];
+        ultimaSecuencia = System.currentTimeMillis() * 1000;
+    }
+
+    @PreDestroy
+    void cerrar() {
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.desconectar();
+        }
+    }
+
+    /**
+     * Registra un cambio confirmado y lo entrega a los suscriptores interesados.
+     *
+     * @param evento El evento publicado por el servicio de pedidos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarPedido(PedidoEvento evento) {
+        synchronized (this) {
+            PedidoCambioDTO cambio = aCambio(++ultimaSecuencia, evento);
+            recientes[(int) (cambio.getSecuencia() % capacidad)] = cambio;
+            for (Suscriptor suscriptor : suscriptores) {
+                suscriptor.ofrecer(cambio);
+            }
+        }
+    }
+
+    @Override
+    public SseEmitter suscribir(Set<String> estados, String ultimoEventoId) {
+        Set<String> filtro = estados == null ? Set.of()
+                : estados.stream().map(estado -> estado.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Suscriptor suscriptor = new Suscriptor(emitter, filtro);
+
+        List<PedidoCambioDTO> pendientes = new ArrayList<>();
+        boolean perdidos;
+        synchronized (this) {
+            perdidos = recuperar(ultimoEventoId, pendientes);
+            suscriptores.add(suscriptor);
+        }
+        emitter.onCompletion(suscriptor::cerrar);
+        emitter.onTimeout(suscriptor::cerrar);
+        emitter.onError(error -> suscriptor.cerrar());
+
+        suscriptor.iniciar(perdidos, pendientes);
+        return emitter;
+    }
+
+    /**
+     * Copia en {@code pendientes} los cambios posteriores al último recibido que siguen en el búfer.
+     * Debe llamarse con el monitor tomado.
+     *
+     * @param ultimoEventoId El ID del último evento recibido, o null.
+     * @param pendientes     La lista en la que se copian los cambios.
+     * @return true si se perdieron cambios que ya no están en el búfer (o el ID no es válido).
+     */
+    private boolean recuperar(String ultimoEventoId, List<PedidoCambioDTO> pendientes) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return false;
+        }
+        long ultimo;
+        try {
+            ultimo = Long.parseLong(ultimoEventoId.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        long masAntiguo = Math.max(ultimaSecuencia - capacidad + 1, 1);
+        if (ultimo > ultimaSecuencia) {
+            return true;
+        }
+        boolean perdidos = ultimo + 1 < masAntiguo;
+        for (long secuencia = Math.max(ultimo + 1, masAntiguo); secuencia <= ultimaSecuencia; secuencia++) {
+            PedidoCambioDTO cambio = recientes[(int) (secuencia % capacidad)];
+            if (cambio != null && cambio.getSecuencia() == secuencia) {
+                pendientes.add(cambio);
+            } else {
+                perdidos = true;
+            }
+        }
+        return perdidos;
+    }
+
+    private static PedidoCambioDTO aCambio(long secuencia, PedidoEvento evento) {
+        PedidoEvento.Datos anterior = evento.getAnterior();
+        PedidoEvento.Datos actual = evento.getActual();
+        PedidoEvento.Datos datos = actual != null ? actual : anterior;
+        String tipo = anterior == null ? PedidoCambioDTO.CREADO
+                : actual == null ? PedidoCambioDTO.ELIMINADO : PedidoCambioDTO.ACTUALIZADO;
+        return new PedidoCambioDTO(secuencia, tipo, evento.getPedidoId(),
+                anterior != null && anterior.getEstado() != null ? anterior.getEstado().getNombre() : null,
+                actual != null && actual.getEstado() != null ? actual.getEstado().getNombre() : null,
+                datos.getFecha(), datos.getClienteId(), datos.getTotal());
+    }
+
+    /**
+     * Conexión suscrita, con su filtro de estados, su cola acotada y el hilo virtual que la vacía.
+     */
+    private final class Suscriptor {
+        private final SseEmitter emitter;
+        private final Set<String> estados;
+        private final BlockingQueue<PedidoCambioDTO> cola;
+        private volatile boolean cerrado;
+        /** Indica que el servidor cierra la conexión y el hilo debe completar el emisor al terminar. */
+        private volatile boolean completar;
+        private Thread hilo;
+
+        private Suscriptor(SseEmitter emitter, Set<String> estados) {
+            this.emitter = emitter;
+            this.estados = estados;
+            this.cola = new ArrayBlockingQueue<>(colaPorSuscriptor);
+        }
+
+        /**
+         * Encola un cambio si interesa al suscriptor. Nunca bloquea: si la cola está llena,
+         * se cierra la conexión.
+         */
+        private void ofrecer(PedidoCambioDTO cambio) {
+            if (cerrado || !interesa(cambio)) {
+                return;
+            }
+            if (!cola.offer(cambio)) {
+                logger.debug("Suscriptor del flujo de pedidos desconectado por no consumir los eventos");
+                desconectar();
+            }
+        }
+
+        private boolean interesa(PedidoCambioDTO cambio) {
+            return estados.isEmpty()
+                    || (cambio.getEstado() != null && estados.contains(cambio.getEstado().toLowerCase(Locale.ROOT)))
+                    || (cambio.getEstadoAnterior() != null && estados.contains(cambio.getEstadoAnterior().toLowerCase(Locale.ROOT)));
+        }
+
+        private void iniciar(boolean perdidos, List<PedidoCambioDTO> pendientes) {
+            hilo = Thread.ofVirtual().name("sse-pedidos").start(() -> enviar(perdidos, pendientes));
+        }
+
+        /**
+         * Envía los cambios recuperados y después los de la cola hasta que se cierra la conexión.
+         */
+        private void enviar(boolean perdidos, List<PedidoCambioDTO> pendientes) {
+            try {
+                // Se escribe algo enseguida para confirmar la respuesta; si no, el cliente no recibe
+                // las cabeceras hasta el primer evento o latido
+                emitter.send(SseEmitter.event().reconnectTime(RECONEXION_MS).comment("conectado"));
+                if (perdidos) {
+                    emitter.send(SseEmitter.event().name(EVENTO_REINICIO).data(""));
+                }
+                for (PedidoCambioDTO cambio : pendientes) {
+                    if (interesa(cambio)) {
+                        enviar(cambio);
+                    }
+                }
+                while (!cerrado) {
+                    PedidoCambioDTO cambio = cola.poll(latido.toMillis(), TimeUnit.MILLISECONDS);
+                    if (cambio != null) {
+                        enviar(cambio);
+                    } else if (!cerrado) {
+                        emitter.send(SseEmitter.event().comment("latido"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // La conexión se cerró mientras se enviaba
+                cerrar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (completar) {
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void enviar(PedidoCambioDTO cambio) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(cambio.getSecuencia()))
+                    .name(EVENTO_PEDIDO)
+                    .data(cambio, MediaType.APPLICATION_JSON));
+        }
+
+        /**
+         * Cierra la suscripción desde el servidor. El emisor lo completa el propio hilo del suscriptor,
+         * de modo que quien llama no espera a una escritura en curso sobre una conexión lenta.
+         */
+        private void desconectar() {
+            completar = true;
+            cerrar();
+        }
+
+        /**
+         * Deja de entregar eventos al suscriptor y detiene su hilo.
+         */
+        private void cerrar() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            suscriptores.remove(this);
+            if (hilo != null) {
+                hilo.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.restaurante.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.restaurante.dto.ResultadoImportacionDTO;
+import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.util.FormatoExportacion;
+
+/**
+ * Interfaz que define los métodos para la importación masiva del catálogo y de los clientes.
+ */
+public interface ImportacionService {
+
+    /**
+     * Importa productos leyendo el fichero fila a fila. Columnas: {@code nombre} (obligatoria),
+     * {@code precio} (obligatoria) y {@code descripcion}.
+     * @param entrada   El contenido del fichero.
+     * @param formato   El formato del fichero.
+     * @param continuar true para saltar las filas no válidas; false para detener la importación en la
+     *                  primera y no guardar ninguna fila.
+     * @return Las filas leídas, guardadas y rechazadas, con el motivo de cada rechazo.
+     * @throws IOException               Si falla la lectura del fichero.
+     * @throws IllegalOperationException Si falta una columna obligatoria en la cabecera o un nombre se
+     *                                   guardó a la vez desde otra petición.
+     */
+    ResultadoImportacionDTO importarProductos(InputStream entrada, FormatoExportacion formato, boolean continuar)
+            throws IOException, IllegalOperationException;
+
+    /**
+     * Importa clientes leyendo el fichero fila a fila. Columnas: {@code nombre} (obligatoria),
+     * {@code correoElectronico} y {@code numeroTelefonico}.
+     * @param entrada   El contenido del fichero.
+     * @param formato   El formato del fichero.
+     * @param continuar true para saltar las filas no válidas; false para detener la importación en la
+     *                  primera y no guardar ninguna fila.
+     * @return Las filas leídas, guardadas y rechazadas, con el motivo de cada rechazo.
+     * @throws IOException               Si falla la lectura del fichero.
+     * @throws IllegalOperationException Si falta una columna obligatoria en la cabecera o un nombre se
+     *                                   guardó a la vez desde otra petición.
+     */
+    ResultadoImportacionDTO importarClientes(InputStream entrada, FormatoExportacion formato, boolean continuar)
+            throws IOException, IllegalOperationException;
+}
@@ -0,0 +1,488 @@
+package com.restaurante.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.ResultadoImportacionDTO;
+import com.restaurante.dto.ResultadoLoteDTO;
+import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.util.FormatoExportacion;
+import com.restaurante.util.LectorCsv;
+import com.restaurante.util.Restricciones;
+import com.restaurante.util.TextoNormalizado;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Implementación de la importación masiva de productos y clientes.
+ *
+ * <p>El fichero se lee fila a fila sin cargarlo en memoria y las filas válidas se agrupan en lotes de
+ * {@code restaurante.importacion.tamano-lote}. Por cada lote se consulta de una vez qué nombres ya
+ * existen y el resto se inserta con un único batch JDBC, sin pasar por el contexto de persistencia.
+ * Toda la importación se hace en una transacción, de modo que si se detiene por un error no queda
+ * ninguna fila guardada.</p>
+ */
+@Service
+public class ImportacionServiceImp implements ImportacionService {
+
+    /** Filas rechazadas que se detallan en el resultado; las demás solo se cuentan. */
+    private static final int MAXIMO_ERRORES_DETALLADOS = 1000;
+
+    /** Longitudes máximas documentadas en las entidades. */
+    private static final int LONGITUD_NOMBRE = 100;
+    private static final int LONGITUD_DESCRIPCION = 100;
+    private static final int LONGITUD_CORREO = 100;
+    private static final int LONGITUD_TELEFONO = 20;
+
+    private static final String NOMBRE_EN_FICHERO = "El nombre está repetido en el fichero";
+    private static final String NOMBRE_EXISTENTE = "Ya existe un registro con ese nombre";
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private RegistroNombres registroNombres;
+
+    @Autowired
+    private CatalogoProductos catalogoProductos;
+
+    @Autowired
+    private VersionesDatos versionesDatos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${restaurante.importacion.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Override
+    public ResultadoImportacionDTO importarProductos(InputStream entrada, FormatoExportacion formato, boolean continuar)
+            throws IOException, IllegalOperationException {
+        ResultadoImportacionDTO resultado = importar(entrada, formato, continuar, new Importador<Producto>() {
+            @Override
+            public Set<String> columnasObligatorias() {
+                return Set.of("nombre", "precio");
+            }
+
+            @Override
+            public String restriccionNombre() {
+                return "uk_producto_nombre";
+            }
+
+            @Override
+            public Producto convertir(Map<String, String> fila) throws IllegalOperationException {
+                Producto producto = new Producto();
+                producto.setNombre(obligatorio(fila, "nombre", LONGITUD_NOMBRE));
+                producto.setDescripcion(opcional(fila, "descripcion", LONGITUD_DESCRIPCION));
+                producto.setPrecio(precio(obligatorio(fila, "precio", Integer.MAX_VALUE)));
+                return producto;
+            }
+
+            @Override
+            public String nombre(Producto producto) {
+                return producto.getNombre();
+            }
+
+            @Override
+            public List<String> nombresExistentes(Collection<String> nombres) {
+                return productoRepository.buscarNombresExistentes(nombres);
+            }
+
+            @Override
+            public void insertar(List<Producto> productos) {
+                productoRepository.insertarEnLote(productos);
+            }
+
+            @Override
+            public void registrar(String nombre) {
+                registroNombres.registrarProducto(nombre);
+            }
+        });
+        if (resultado.getGuardadas() > 0) {
+            // Una sola reconstrucción de la instantánea en lugar de un evento por producto.
+            catalogoProductos.refrescar();
+        }
+        return resultado;
+    }
+
+    @Override
+    public ResultadoImportacionDTO importarClientes(InputStream entrada, FormatoExportacion formato, boolean continuar)
+            throws IOException, IllegalOperationException {
+        ResultadoImportacionDTO resultado = importar(entrada, formato, continuar, new Importador<Cliente>() {
+            @Override
+            public Set<String> columnasObligatorias() {
+                return Set.of("nombre");
+            }
+
+            @Override
+            public String restriccionNombre() {
+                return "uk_cliente_nombre";
+            }
+
+            @Override
+            public Cliente convertir(Map<String, String> fila) throws IllegalOperationException {
+                Cliente cliente = new Cliente();
+                cliente.setNombre(obligatorio(fila, "nombre", LONGITUD_NOMBRE));
+                cliente.setCorreoElectronico(opcional(fila, "correoElectronico", LONGITUD_CORREO));
+                cliente.setNumeroTelefonico(opcional(fila, "numeroTelefonico", LONGITUD_TELEFONO));
+                return cliente;
+            }
+
+            @Override
+            public String nombre(Cliente cliente) {
+                return cliente.getNombre();
+            }
+
+            @Override
+            public List<String> nombresExistentes(Collection<String> nombres) {
+                return clienteRepository.buscarNombresExistentes(nombres);
+            }
+
+            @Override
+            public void insertar(List<Cliente> clientes) {
+                clienteRepository.insertarEnLote(clientes);
+            }
+
+            @Override
+            public void registrar(String nombre) {
+                registroNombres.registrarCliente(nombre);
+            }
+        });
+        if (resultado.getGuardadas() > 0) {
+            // Las inserciones JDBC no actualizan las marcas de tiempo de la caché de consultas.
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion("cliente-por-nombre");
+            versionesDatos.incrementar(VersionesDatos.Recurso.CLIENTES);
+        }
+        return resultado;
+    }
+
+    /**
+     * Lee el fichero y guarda sus filas válidas en una única transacción.
+     * @param entrada    El contenido del fichero.
+     * @param formato    El formato del fichero.
+     * @param continuar  true para saltar las filas no válidas; false para detenerse en la primera.
+     * @param importador Las operaciones propias del tipo de registro importado.
+     * @return El resultado de la importación.
+     * @throws IOException               Si falla la lectura del fichero.
+     * @throws IllegalOperationException Si la cabecera no es válida o un lote choca con el índice único de nombres.
+     */
+    private <T> ResultadoImportacionDTO importar(InputStream entrada, FormatoExportacion formato, boolean continuar,
+                                                 Importador<T> importador) throws IOException, IllegalOperationException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        LectorFilas filas = formato == FormatoExportacion.CSV
+                ? new LectorFilasCsv(lector, importador.columnasObligatorias())
+                : new LectorFilasNdjson(lector, objectMapper);
+
+        ResultadoImportacionDTO resultado = new ResultadoImportacionDTO();
+        try {
+            transactionTemplate.executeWithoutResult(estado -> {
+                try {
+                    procesar(filas, continuar, importador, resultado);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (resultado.isDetenida()) {
+                    estado.setRollbackOnly();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (DataIntegrityViolationException e) {
+            if (!Restricciones.esViolacionDe(e, importador.restriccionNombre())) {
+                throw e;
+            }
+            throw new IllegalOperationException("Otra petición guardó a la vez alguno de los nombres; no se ha guardado ninguna fila");
+        }
+        if (resultado.isDetenida()) {
+            resultado.setGuardadas(0);
+        }
+        // Los nombres existentes se detectan al guardar cada lote, así que esos errores llegan desordenados.
+        resultado.getErrores().sort(Comparator.comparingInt(ResultadoLoteDTO::getIndice));
+        return resultado;
+    }
+
+    /**
+     * Recorre las filas, valida cada una y guarda las válidas por lotes.
+     */
+    private <T> void procesar(LectorFilas filas, boolean continuar, Importador<T> importador,
+                              ResultadoImportacionDTO resultado) throws IOException {
+        Set<String> nombresLeidos = new HashSet<>();
+        List<T> lote = new ArrayList<>(tamanoLote);
+        List<Integer> indices = new ArrayList<>(tamanoLote);
+        int indice = 0;
+        while (true) {
+            T elemento;
+            try {
+                Map<String, String> fila = filas.siguiente();
+                if (fila == null) {
+                    break;
+                }
+                elemento = importador.convertir(fila);
+                // Se compara como la intercalación de la base de datos: sin distinguir mayúsculas ni tildes.
+                if (!nombresLeidos.add(TextoNormalizado.normalizar(importador.nombre(elemento)))) {
+                    throw new IllegalOperationException(NOMBRE_EN_FICHERO);
+                }
+            } catch (IllegalOperationException e) {
+                resultado.setLeidas(indice + 1);
+                if (!rechazar(resultado, indice++, e.getMessage(), continuar)) {
+                    return;
+                }
+                continue;
+            }
+            resultado.setLeidas(indice + 1);
+            lote.add(elemento);
+            indices.add(indice++);
+            if (lote.size() == tamanoLote && !guardarLote(lote, indices, continuar, importador, resultado)) {
+                return;
+            }
+        }
+        guardarLote(lote, indices, continuar, importador, resultado);
+    }
+
+    /**
+     * Descarta los elementos del lote cuyo nombre ya existe, con una sola consulta, e inserta el resto.
+     * @return false si la importación se ha detenido.
+     */
+    private <T> boolean guardarLote(List<T> lote, List<Integer> indices, boolean continuar, Importador<T> importador,
+                                    ResultadoImportacionDTO resultado) {
+        if (lote.isEmpty()) {
+            return true;
+        }
+        Set<String> nombres = new HashSet<>(lote.size());
+        for (T elemento : lote) {
+            nombres.add(importador.nombre(elemento));
+        }
+        Set<String> existentes = new HashSet<>();
+        for (String nombre : importador.nombresExistentes(nombres)) {
+            existentes.add(TextoNormalizado.normalizar(nombre));
+        }
+
+        List<T> nuevos = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            T elemento = lote.get(i);
+            if (!existentes.contains(TextoNormalizado.normalizar(importador.nombre(elemento)))) {
+                nuevos.add(elemento);
+            } else if (!rechazar(resultado, indices.get(i), NOMBRE_EXISTENTE, continuar)) {
+                return false;
+            }
+        }
+        importador.insertar(nuevos);
+        for (T elemento : nuevos) {
+            importador.registrar(importador.nombre(elemento));
+        }
+        resultado.setGuardadas(resultado.getGuardadas() + nuevos.size());
+        lote.clear();
+        indices.clear();
+        return true;
+    }
+
+    /**
+     * Anota una fila rechazada.
+     * @return false si la importación debe detenerse.
+     */
+    private static boolean rechazar(ResultadoImportacionDTO resultado, int indice, String mensaje, boolean continuar) {
+        resultado.setRechazadas(resultado.getRechazadas() + 1);
+        if (resultado.getErrores().size() < MAXIMO_ERRORES_DETALLADOS) {
+            resultado.getErrores().add(ResultadoLoteDTO.fallido(indice, mensaje));
+        }
+        if (!continuar) {
+            resultado.setDetenida(true);
+        }
+        return continuar;
+    }
+
+    private static String obligatorio(Map<String, String> fila, String campo, int longitudMaxima) throws IllegalOperationException {
+        String valor = opcional(fila, campo, longitudMaxima);
+        if (valor == null) {
+            throw new IllegalOperationException("Falta el campo " + campo);
+        }
+        return valor;
+    }
+
+    private static String opcional(Map<String, String> fila, String campo, int longitudMaxima) throws IllegalOperationException {
+        String valor = fila.get(campo);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        valor = valor.trim();
+        if (valor.length() > longitudMaxima) {
+            throw new IllegalOperationException("El campo " + campo + " supera los " + longitudMaxima + " caracteres");
+        }
+        return valor;
+    }
+
+    private static double precio(String valor) throws IllegalOperationException {
+        double precio;
+        try {
+            precio = Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalOperationException("El precio no es un número: " + valor);
+        }
+        if (!(precio >= 0) || Double.isInfinite(precio)) {
+            throw new IllegalOperationException("El precio debe ser un número mayor o igual que 0");
+        }
+        return precio;
+    }
+
+    /**
+     * Operaciones propias de cada tipo de registro importado.
+     */
+    private interface Importador<T> {
+        /** @return Las columnas que debe tener la cabecera CSV. */
+        Set<String> columnasObligatorias();
+
+        /** @return El índice único que garantiza que no se repite el nombre. */
+        String restriccionNombre();
+
+        /** Valida una fila y crea el registro. */
+        T convertir(Map<String, String> fila) throws IllegalOperationException;
+
+        /** @return El nombre único del registro. */
+        String nombre(T elemento);
+
+        /** @return Los nombres del conjunto que ya existen en la base de datos. */
+        List<String> nombresExistentes(Collection<String> nombres);
+
+        /** Inserta los registros con un batch JDBC. */
+        void insertar(List<T> elementos);
+
+        /** Añade el nombre al filtro de nombres existentes. */
+        void registrar(String nombre);
+    }
+
+    /**
+     * Fuente de filas del fichero como pares columna-valor.
+     */
+    private interface LectorFilas {
+        /**
+         * @return La siguiente fila, o null al final del fichero.
+         * @throws IllegalOperationException Si la fila no se puede interpretar; la lectura puede continuar con la siguiente.
+         */
+        Map<String, String> siguiente() throws IOException, IllegalOperationException;
+    }
+
+    /**
+     * Filas de un CSV con fila de cabecera.
+     */
+    private static final class LectorFilasCsv implements LectorFilas {
+        private final LectorCsv csv;
+        private final List<String> cabecera;
+
+        private LectorFilasCsv(BufferedReader lector, Set<String> columnasObligatorias) throws IOException, IllegalOperationException {
+            this.csv = new LectorCsv(lector);
+            List<String> columnas = csv.leer();
+            if (columnas == null) {
+                throw new IllegalOperationException("El CSV no tiene fila de cabecera");
+            }
+            this.cabecera = new ArrayList<>(columnas.size());
+            for (String columna : columnas) {
+                // Excel añade la marca de orden de bytes al principio de los CSV en UTF-8.
+                cabecera.add(columna.replace("\uFEFF", "").trim());
+            }
+            for (String columna : columnasObligatorias) {
+                if (!cabecera.contains(columna)) {
+                    throw new IllegalOperationException("Falta la columna " + columna + " en la cabecera del CSV");
+                }
+            }
+        }
+
+        @Override
+        public Map<String, String> siguiente() throws IOException, IllegalOperationException {
+            List<String> campos = csv.leer();
+            if (campos == null) {
+                return null;
+            }
+            if (campos.size() != cabecera.size()) {
+                throw new IllegalOperationException("La fila tiene " + campos.size() + " campos y la cabecera " + cabecera.size());
+            }
+            Map<String, String> fila = new HashMap<>();
+            for (int i = 0; i < campos.size(); i++) {
+                fila.put(cabecera.get(i), campos.get(i));
+            }
+            return fila;
+        }
+    }
+
+    /**
+     * Filas de un fichero NDJSON, un objeto por línea.
+     */
+    private static final class LectorFilasNdjson implements LectorFilas {
+        private final BufferedReader lector;
+        private final ObjectMapper objectMapper;
+
+        private LectorFilasNdjson(BufferedReader lector, ObjectMapper objectMapper) {
+            this.lector = lector;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Map<String, String> siguiente() throws IOException, IllegalOperationException {
+            String linea = lector.readLine();
+            while (linea != null && linea.isBlank()) {
+                linea = lector.readLine();
+            }
+            if (linea == null) {
+                return null;
+            }
+            JsonNode objeto;
+            try {
+                objeto = objectMapper.readTree(linea);
+            } catch (JsonProcessingException e) {
+                throw new IllegalOperationException("La línea no es un JSON válido");
+            }
+            if (!objeto.isObject()) {
+                throw new IllegalOperationException("La línea no es un objeto JSON");
+            }
+            Map<String, String> fila = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> campos = objeto.fields();
+            while (campos.hasNext()) {
+                Map.Entry<String, JsonNode> campo = campos.next();
+                JsonNode valor = campo.getValue();
+                if (valor.isNull()) {
+                    continue;
+                }
+                if (!valor.isValueNode()) {
+                    throw new IllegalOperationException("El campo " + campo.getKey() + " no es un valor simple");
+                }
+                fila.put(campo.getKey(), valor.asText());
+            }
+            return fila;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.restaurante.services;
+
+import com.restaurante.dto.PedidoSolicitudDTO;
+import com.restaurante.dto.TicketPedidoDTO;
+import com.restaurante.exception.EntityNotFoundException;
+import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.exception.QueueFullException;
+
+/**
+ * Interfaz que define los métodos para la ingesta asíncrona de pedidos.
+ */
+public interface IngestaPedidoService {
+
+    /**
+     * Valida la forma de un pedido y lo encola para guardarlo en segundo plano.
+     * La existencia del cliente y de los productos y los duplicados se comprueban al guardar el lote.
+     * @param pedido El pedido a crear.
+     * @return El ticket pendiente con el que consultar el resultado.
+     * @throws IllegalOperationException Si el pedido no es válido o la ingesta asíncrona está deshabilitada.
+     * @throws QueueFullException        Si la cola de ingesta está llena o la aplicación se está deteniendo.
+     */
+    TicketPedidoDTO encolar(PedidoSolicitudDTO pedido) throws IllegalOperationException, QueueFullException;
+
+    /**
+     * Consulta el estado de un ticket.
+     * @param ticket El identificador del ticket.
+     * @return El estado del ticket y, si el pedido se guardó, su ID.
+     * @throws EntityNotFoundException Si el ticket no existe o ya no se conserva.
+     */
+    TicketPedidoDTO consultar(String ticket) throws EntityNotFoundException;
+}
@@ -0,0 +1,314 @@
+package com.restaurante.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.dto.PedidoLineaDTO;
+import com.restaurante.dto.PedidoSolicitudDTO;
+import com.restaurante.dto.ResultadoLoteDTO;
+import com.restaurante.dto.TicketPedidoDTO;
+import com.restaurante.exception.EntityNotFoundException;
+import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.exception.QueueFullException;
+import com.restaurante.util.MapaAcotado;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementación de la ingesta asíncrona de pedidos.
+ *
+ * <p>Los pedidos se guardan en un búfer circular acotado ({@link ArrayBlockingQueue}) y un único hilo
+ * escritor los extrae en lotes: toma todos los que haya esperando, hasta el tamaño máximo de lote y
+ * esperando como mucho la ventana configurada a que lleguen más, y los guarda con
+ * {@link PedidoService#crearPedidosEnLote}, es decir, con una transacción y un INSERT por lotes para
+ * todo el grupo. Cuando el búfer está lleno se rechaza el pedido en lugar de encolarlo sin límite.</p>
+ *
+ * <p>Si un lote falla, sus pedidos se vuelven a guardar uno a uno para que un pedido no válido no
+ * haga rechazar a los demás. Al detener la aplicación se dejan de aceptar pedidos antes de vaciar el
+ * búfer, de modo que todo ticket emitido llega a resolverse.</p>
+ */
+@Service
+public class IngestaPedidoServiceImp implements IngestaPedidoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestaPedidoServiceImp.class);
+
+    /** Tiempo máximo que el escritor espera un pedido antes de comprobar si debe detenerse. */
+    private static final long ESPERA_ESCRITOR_MS = 100;
+
+    /** Tiempo máximo que se espera a que el escritor vacíe el búfer al detener la aplicación. */
+    private static final long ESPERA_PARADA_MS = 10_000;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    /** Indica si se aceptan pedidos asíncronos. */
+    @Value("${restaurante.pedidos.ingesta.habilitada:true}")
+    private boolean habilitada;
+
+    /** Número máximo de pedidos esperando en el búfer. */
+    @Value("${restaurante.pedidos.ingesta.capacidad:10000}")
+    private int capacidad;
+
+    /** Número máximo de pedidos guardados en cada lote, limitado al máximo de una carga por lotes. */
+    @Value("${restaurante.pedidos.ingesta.tamano-lote:500}")
+    private int tamanoLote;
+
+    /** Milisegundos que el escritor espera a completar un lote después de recibir su primer pedido. */
+    @Value("${restaurante.pedidos.ingesta.espera-lote:5}")
+    private long esperaLoteMs;
+
+    /** Número máximo de tickets conservados para su consulta. */
+    @Value("${restaurante.pedidos.ingesta.tickets-maximos:100000}")
+    private int ticketsMaximos;
+
+    /** Segundos indicados en la cabecera Retry-After cuando el búfer está lleno. */
+    @Value("${restaurante.pedidos.ingesta.reintentar-en:1}")
+    private long reintentarEnSegundos;
+
+    private BlockingQueue<Entrada> bufer;
+
+    /** Tickets emitidos, del más antiguo al más reciente. */
+    private Map<String, TicketPedidoDTO> tickets;
+
+    private Thread escritor;
+
+    private volatile boolean activo;
+
+    /** Indica que la aplicación se está deteniendo y ya no se aceptan pedidos. */
+    private boolean deteniendo;
+
+    /**
+     * Encolar toma el bloqueo de lectura y detener el de escritura, de modo que ningún pedido entra en
+     * el búfer después de que el escritor empiece a vaciarlo para terminar.
+     */
+    private final ReadWriteLock bloqueoParada = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void inicializar() {
+        tamanoLote = Math.min(tamanoLote, PedidoServiceImp.TAMANO_MAXIMO_LOTE);
+        bufer = new ArrayBlockingQueue<>(capacidad);
+        tickets = new MapaAcotado<>(ticketsMaximos, false);
+    }
+
+    /**
+     * Arranca el hilo escritor cuando la aplicación está lista.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void arrancar() {
+        if (!habilitada || escritor != null) {
+            return;
+        }
+        activo = true;
+        escritor = new Thread(this::escribir, "ingesta-pedidos");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Deja de aceptar pedidos y espera a que el escritor guarde los que quedan en el búfer.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        bloqueoParada.writeLock().lock();
+        try {
+            deteniendo = true;
+        } finally {
+            bloqueoParada.writeLock().unlock();
+        }
+        Thread hilo;
+        synchronized (this) {
+            activo = false;
+            hilo = escritor;
+        }
+        if (hilo != null) {
+            hilo.join(ESPERA_PARADA_MS);
+            if (!bufer.isEmpty()) {
+                logger.warn("Se detuvo la ingesta con {} pedidos sin guardar", bufer.size());
+            }
+        }
+    }
+
+    @Override
+    public TicketPedidoDTO encolar(PedidoSolicitudDTO pedido) throws IllegalOperationException, QueueFullException {
+        if (!habilitada) {
+            throw new IllegalOperationException("La ingesta asíncrona de pedidos está deshabilitada.");
+        }
+        validar(pedido);
+
+        TicketPedidoDTO ticket = TicketPedidoDTO.pendiente(UUID.randomUUID().toString());
+        bloqueoParada.readLock().lock();
+        try {
+            if (deteniendo) {
+                throw new QueueFullException("El servicio se está deteniendo, inténtelo de nuevo más tarde.", reintentarEnSegundos);
+            }
+            synchronized (tickets) {
+                tickets.put(ticket.getTicket(), ticket);
+            }
+            if (!bufer.offer(new Entrada(ticket.getTicket(), pedido))) {
+                synchronized (tickets) {
+                    tickets.remove(ticket.getTicket());
+                }
+                throw new QueueFullException("La cola de pedidos está llena, inténtelo de nuevo más tarde.", reintentarEnSegundos);
+            }
+        } finally {
+            bloqueoParada.readLock().unlock();
+        }
+        return ticket;
+    }
+
+    @Override
+    public TicketPedidoDTO consultar(String ticket) throws EntityNotFoundException {
+        TicketPedidoDTO estado;
+        synchronized (tickets) {
+            estado = tickets.get(ticket);
+        }
+        if (estado == null) {
+            throw new EntityNotFoundException("El ticket no existe o ha caducado");
+        }
+        return estado;
+    }
+
+    /**
+     * Comprueba los datos que no requieren consultar la base de datos.
+     * @param pedido El pedido a validar.
+     * @throws IllegalOperationException Si falta el cliente o alguna línea no es válida.
+     */
+    private static void validar(PedidoSolicitudDTO pedido) throws IllegalOperationException {
+        if (pedido == null) {
+            throw new IllegalOperationException("El pedido no puede ser nulo.");
+        }
+        if (pedido.getClienteId() == null) {
+            throw new IllegalOperationException("El pedido debe indicar un cliente.");
+        }
+        if (pedido.getEstado() != null && EstadoPedido.buscar(pedido.getEstado()) == null) {
+            throw new IllegalOperationException("El estado proporcionado no es válido.");
+        }
+        if (pedido.getProductosIds() != null) {
+            for (Long productoId : pedido.getProductosIds()) {
+                if (productoId == null) {
+                    throw new IllegalOperationException("Cada línea del pedido debe indicar un producto.");
+                }
+            }
+        }
+        if (pedido.getLineas() != null) {
+            for (PedidoLineaDTO linea : pedido.getLineas()) {
+                if (linea == null || linea.getProductoId() == null) {
+                    throw new IllegalOperationException("Cada línea del pedido debe indicar un producto.");
+                }
+                if (linea.getCantidad() <= 0) {
+                    throw new IllegalOperationException("La cantidad de cada línea debe ser mayor que cero.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: agrupa los pedidos del búfer en lotes y los guarda.
+     * Al detenerse sigue vaciando el búfer hasta que no queda ningún pedido.
+     */
+    private void escribir() {
+        List<Entrada> lote = new ArrayList<>(tamanoLote);
+        while (activo || !bufer.isEmpty()) {
+            try {
+                Entrada primera = bufer.poll(ESPERA_ESCRITOR_MS, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                bufer.drainTo(lote, tamanoLote - lote.size());
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaLoteMs);
+                long restante;
+                while (activo && lote.size() < tamanoLote && (restante = limite - System.nanoTime()) > 0) {
+                    Entrada siguiente = bufer.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                    bufer.drainTo(lote, tamanoLote - lote.size());
+                }
+                guardar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error inesperado en la ingesta de pedidos", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Guarda un lote de pedidos en una transacción y resuelve sus tickets.
+     * Si el lote no se puede guardar, se reintenta cada pedido por separado.
+     * @param lote Los pedidos extraídos del búfer.
+     */
+    private void guardar(List<Entrada> lote) {
+        List<PedidoSolicitudDTO> solicitudes = new ArrayList<>(lote.size());
+        for (Entrada entrada : lote) {
+            solicitudes.add(entrada.solicitud());
+        }
+
+        List<ResultadoLoteDTO> resultados;
+        try {
+            resultados = pedidoService.crearPedidosEnLote(solicitudes);
+        } catch (IllegalOperationException | RuntimeException e) {
+            logger.warn("No se pudo guardar un lote de {} pedidos; se guardarán uno a uno", lote.size(), e);
+            resultados = guardarUnoAUno(solicitudes);
+        }
+
+        synchronized (tickets) {
+            for (int i = 0; i < lote.size(); i++) {
+                String ticket = lote.get(i).ticket();
+                // No se recupera un ticket que ya se descartó por antigüedad
+                if (tickets.containsKey(ticket)) {
+                    tickets.put(ticket, TicketPedidoDTO.resuelto(ticket, resultados.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Guarda cada pedido en su propia transacción, de modo que solo se rechazan los que fallan.
+     * @param solicitudes Los pedidos del lote que no se pudo guardar.
+     * @return El resultado de cada pedido, con su posición en el lote.
+     */
+    private List<ResultadoLoteDTO> guardarUnoAUno(List<PedidoSolicitudDTO> solicitudes) {
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(solicitudes.size());
+        for (int i = 0; i < solicitudes.size(); i++) {
+            ResultadoLoteDTO resultado;
+            try {
+                resultado = pedidoService.crearPedidosEnLote(List.of(solicitudes.get(i))).get(0);
+            } catch (IllegalOperationException | RuntimeException e) {
+                logger.error("No se pudo guardar el pedido {} del lote", i, e);
+                resultado = ResultadoLoteDTO.fallido(i, "Error al guardar el pedido");
+            }
+            resultado.setIndice(i);
+            resultados.add(resultado);
+        }
+        return resultados;
+    }
+
+    /**
+     * Pedido esperando en el búfer junto con su ticket.
+     */
+    private record Entrada(String ticket, PedidoSolicitudDTO solicitud) {
+    }
+}
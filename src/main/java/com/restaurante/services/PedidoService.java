@@ -1,10 +1,24 @@
 package com.restaurante.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.restaurante.domain.EstadoPedido;
 import com.restaurante.domain.Pedido;
+import com.restaurante.dto.ColaEstadoDTO;
+import com.restaurante.dto.PedidoSolicitudDTO;
+import com.restaurante.dto.ResumenIngresosDTO;
+import com.restaurante.dto.ResultadoLoteDTO;
 import com.restaurante.exception.IllegalOperationException;
 import com.restaurante.exception.EntityNotFoundException;
+import com.restaurante.util.FormatoExportacion;
 
 /**
  * Interfaz que define los métodos para el servicio de gestión de pedidos.
@@ -16,6 +30,14 @@ public interface PedidoService {
      */
     List<Pedido> listarTodos();
 
+    /**
+     * Obtiene una página de pedidos a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de pedidos a devolver.
+     * @return Un Slice con los pedidos de la página.
+     */
+    Slice<Pedido> listarPagina(long despuesDe, int limite);
+
     /**
      * Busca un pedido por su identificador.
      * @param id El identificador del pedido a buscar.
@@ -24,13 +46,52 @@ public interface PedidoService {
      */
     Pedido buscarPorId(Long id) throws EntityNotFoundException;
 
+    /**
+     * Busca varios pedidos por sus identificadores en una sola consulta.
+     * @param ids Los identificadores buscados.
+     * @return Los pedidos que existen, en cualquier orden.
+     */
+    List<Pedido> buscarPorIds(Collection<Long> ids);
+
+    /**
+     * Obtiene una página de pedidos con solo los campos indicados, sin cargar las entidades.
+     * @param campos    Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de pedidos a devolver.
+     * @return Un Slice con un mapa de campo a valor por cada pedido; incluye siempre el ID.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    Slice<Map<String, Object>> listarCampos(String campos, long despuesDe, int limite) throws IllegalOperationException;
+
+    /**
+     * Busca un pedido por su identificador y devuelve solo los campos indicados, sin cargar la entidad.
+     * @param id     El identificador del pedido.
+     * @param campos Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @return Un mapa de campo a valor; incluye siempre el ID.
+     * @throws EntityNotFoundException Si no se encuentra el pedido con el ID especificado.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    Map<String, Object> buscarCamposPorId(Long id, String campos) throws EntityNotFoundException, IllegalOperationException;
+
     /**
      * Crea un nuevo pedido.
-     * @param pedido El pedido a crear.
-     * @return El pedido creado.
+     * Si se indica una clave de idempotencia y ya se creó un pedido con ella, se devuelve la respuesta
+     * de entonces en lugar de crear otro.
+     * @param pedido            El pedido a crear.
+     * @param claveIdempotencia La clave de idempotencia de la petición, o null si no se envió.
+     * @return El cuerpo de la respuesta: el pedido creado, o la respuesta dada antes con la misma clave.
      * @throws IllegalOperationException Si ocurre una operación ilegal al intentar crear el pedido.
      */
-    Pedido crearPedido(Pedido pedido) throws IllegalOperationException;
+    JsonNode crearPedido(Pedido pedido, String claveIdempotencia) throws IllegalOperationException;
+
+    /**
+     * Crea varios pedidos en una sola transacción, validándolos en conjunto.
+     * Los pedidos inválidos o duplicados se rechazan sin impedir que se guarden los demás.
+     * @param pedidos Los pedidos a crear.
+     * @return El resultado de cada pedido, en el mismo orden que la entrada.
+     * @throws IllegalOperationException Si el lote está vacío o supera el tamaño máximo.
+     */
+    List<ResultadoLoteDTO> crearPedidosEnLote(List<PedidoSolicitudDTO> pedidos) throws IllegalOperationException;
 
     /**
      * Actualiza el estado de un pedido.
@@ -42,6 +103,15 @@ public interface PedidoService {
      */
     Pedido actualizarEstado(Long id, String nuevoEstado) throws EntityNotFoundException, IllegalOperationException;
 
+    /**
+     * Obtiene los siguientes pedidos de un estado, del más antiguo al más reciente.
+     * @param estado El estado de los pedidos.
+     * @param limite El número máximo de IDs a devolver.
+     * @return El número de pedidos del estado y los IDs de los siguientes.
+     * @throws IllegalOperationException Si el estado no es válido.
+     */
+    ColaEstadoDTO siguientesPorEstado(String estado, int limite) throws IllegalOperationException;
+
     /**
      * Elimina un pedido.
      * @param id El identificador del pedido a eliminar.
@@ -53,7 +123,7 @@ public interface PedidoService {
     /**
      * Actualiza los detalles de un pedido existente.
      * @param id El ID del pedido a actualizar.
-     * @param nuevoPedido El objeto Pedido con los nuevos detalles del pedido.
+     * @param nuevoPedido El objeto Pedido con los nuevos detalles del pedido. Sus líneas, si se envían, sustituyen a las actuales.
      * @return El pedido actualizado.
      * @throws EntityNotFoundException Si no se encuentra el pedido con el ID especificado.
      * @throws IllegalOperationException Si ocurre una operación ilegal al intentar actualizar el pedido.
@@ -70,4 +140,24 @@ public interface PedidoService {
      * @throws IllegalOperationException Si ocurre una operación ilegal al intentar asignar el cliente y el producto al pedido.
      */
     Pedido asignarClienteProducto(Long idPedido, Long idCliente, Long idProducto) throws EntityNotFoundException, IllegalOperationException;
+
+    /**
+     * Exporta los pedidos que cumplen los filtros escribiéndolos fila a fila en la salida,
+     * sin cargar el listado completo en memoria.
+     * @param desde   Fecha mínima (inclusive) de los pedidos, o null para no filtrar.
+     * @param hasta   Fecha máxima (exclusiva) de los pedidos, o null para no filtrar.
+     * @param estado  Estado de los pedidos, o null para no filtrar.
+     * @param formato El formato de salida.
+     * @param salida  El flujo en el que se escriben las filas.
+     * @throws IOException Si ocurre un error al escribir en la salida.
+     */
+    void exportar(LocalDateTime desde, LocalDateTime hasta, EstadoPedido estado, FormatoExportacion formato, OutputStream salida) throws IOException;
+
+    /**
+     * Calcula el número de pedidos y los ingresos de un periodo a partir de los totales almacenados.
+     * @param desde Fecha mínima (inclusive) de los pedidos.
+     * @param hasta Fecha máxima (exclusiva) de los pedidos.
+     * @return El resumen de ingresos del periodo.
+     */
+    ResumenIngresosDTO resumirIngresos(LocalDateTime desde, LocalDateTime hasta);
 }
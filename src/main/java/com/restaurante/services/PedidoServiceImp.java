@@ -1,22 +1,64 @@
 package com.restaurante.services;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.restaurante.domain.Cliente;
+import com.restaurante.domain.EstadoPedido;
 import com.restaurante.domain.Pedido;
+import com.restaurante.domain.PedidoLinea;
 import com.restaurante.domain.Producto;
+import com.restaurante.dto.ColaEstadoDTO;
+import com.restaurante.dto.PedidoExportDTO;
+import com.restaurante.dto.PedidoLineaDTO;
+import com.restaurante.dto.PedidoSolicitudDTO;
+import com.restaurante.dto.ResumenIngresosDTO;
+import com.restaurante.dto.ResultadoLoteDTO;
+import com.restaurante.events.PedidoEvento;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.ErrorMessage;
 import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.mapper.PedidoMapper;
 import com.restaurante.repositories.ClienteRepository;
 import com.restaurante.repositories.PedidoRepository;
 import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.util.Campos;
+import com.restaurante.util.FormatoExportacion;
+import com.restaurante.util.MapaAcotado;
+
+import jakarta.annotation.PostConstruct;
 
 /**
  * Implementación del servicio para gestionar pedidos.
@@ -24,6 +66,23 @@ import com.restaurante.repositories.ProductoRepository;
 @Service
 public class PedidoServiceImp implements PedidoService {
 
+    /**
+     * Campos seleccionables con el parámetro {@code fields} y el atributo que lee cada uno.
+     * El cliente se devuelve por su ID, que se lee de la clave foránea.
+     */
+    private static final Map<String, String> CAMPOS_SELECCIONABLES = Map.of(
+            "id", "id", "fecha", "fecha", "estado", "estado", "cantidad", "cantidad", "total", "total",
+            "clienteId", "cliente.id");
+
+    /** Número de filas exportadas entre cada volcado del búfer de salida. */
+    private static final int FILAS_POR_VOLCADO = 500;
+
+    /** Número máximo de pedidos aceptados en una carga por lotes. */
+    static final int TAMANO_MAXIMO_LOTE = 500;
+
+    /** Cabecera de la exportación en formato CSV. */
+    private static final String CABECERA_CSV = "id,fecha,estado,cantidad,total,clienteId\n";
+
     @Autowired
     private PedidoRepository pedidoRepository;
 
@@ -33,6 +92,43 @@ public class PedidoServiceImp implements PedidoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoMapper pedidoMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ColasEstadoPedido colasEstadoPedido;
+
+    /** Número de claves de idempotencia recientes que se conservan en memoria. */
+    @Value("${restaurante.pedidos.idempotencia.claves-recientes:10000}")
+    private int clavesRecientes;
+
+    /**
+     * Respuestas de los pedidos creados con clave de idempotencia, serializadas en JSON, por clave y de uso
+     * más reciente a menos reciente. Se guardan los bytes y no el pedido para que un reintento reciba la
+     * respuesta original, aunque el pedido haya cambiado después, sin consultar la base de datos y sin
+     * compartir objetos modificables entre peticiones.
+     */
+    private Map<String, byte[]> respuestasPorClave;
+
+    /** Transacciones de solo lectura para las consultas que solo a veces llegan a la base de datos. */
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    void inicializar() {
+        respuestasPorClave = new MapaAcotado<>(clavesRecientes, true);
+        lectura = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        lectura.setReadOnly(true);
+    }
+
     /**
      * Obtiene una lista de todos los pedidos.
      * @return Una lista de pedidos.
@@ -42,6 +138,20 @@ public class PedidoServiceImp implements PedidoService {
         return pedidoRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de pedidos a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de pedidos a devolver.
+     * @return Un Slice con los pedidos de la página.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Pedido> listarPagina(long despuesDe, int limite) {
+        Slice<Pedido> pagina = pedidoRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, PageRequest.of(0, limite));
+        cargarLineas(pagina);
+        return pagina;
+    }
+
     /**
      * Busca un pedido por su identificador.
      * @param id El identificador del pedido a buscar.
@@ -49,31 +159,118 @@ public class PedidoServiceImp implements PedidoService {
      * @throws EntityNotFoundException Si no se encuentra el pedido con el ID especificado.
      */
     @Override
+    @Transactional(readOnly = true)
     public Pedido buscarPorId(Long id) throws EntityNotFoundException {
-        Optional<Pedido> pedido = pedidoRepository.findById(id);
+        Optional<Pedido> pedido = pedidoRepository.findDetalleById(id);
         if (pedido.isEmpty())
             throw new EntityNotFoundException(ErrorMessage.PEDIDO_NOT_FOUND);
         return pedido.get();
     }
 
+    /**
+     * Busca varios pedidos por sus identificadores en una sola consulta {@code IN}.
+     * @param ids Los identificadores buscados.
+     * @return Los pedidos que existen, en cualquier orden.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Pedido> buscarPorIds(Collection<Long> ids) {
+        List<Pedido> pedidos = pedidoRepository.findByIdIn(ids);
+        cargarLineas(pedidos);
+        return pedidos;
+    }
+
+    /**
+     * Inicializa las líneas dentro de la transacción, porque el mapeador no carga colecciones perezosas.
+     * Con {@code default_batch_fetch_size}, la primera inicialización trae las líneas de todos los pedidos
+     * de la página en una sola consulta y las demás ya están cargadas.
+     * @param pedidos Los pedidos leídos con {@link Pedido#GRAFO_LISTADO}.
+     */
+    private static void cargarLineas(Iterable<Pedido> pedidos) {
+        for (Pedido pedido : pedidos) {
+            Hibernate.initialize(pedido.getLineas());
+        }
+    }
+
+    /**
+     * Obtiene una página de pedidos con solo los campos indicados, sin cargar las entidades.
+     * @param campos    Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de pedidos a devolver.
+     * @return Un Slice con un mapa de campo a valor por cada pedido; incluye siempre el ID.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> listarCampos(String campos, long despuesDe, int limite) throws IllegalOperationException {
+        return pedidoRepository.buscarCampos(Campos.seleccionar(campos, CAMPOS_SELECCIONABLES), despuesDe, limite);
+    }
+
+    /**
+     * Busca un pedido por su identificador y devuelve solo los campos indicados, sin cargar la entidad.
+     * @param id     El identificador del pedido.
+     * @param campos Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @return Un mapa de campo a valor; incluye siempre el ID.
+     * @throws EntityNotFoundException Si no se encuentra el pedido con el ID especificado.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> buscarCamposPorId(Long id, String campos) throws EntityNotFoundException, IllegalOperationException {
+        return pedidoRepository.buscarCamposPorId(Campos.seleccionar(campos, CAMPOS_SELECCIONABLES), id)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.PEDIDO_NOT_FOUND));
+    }
+
     /**
      * Actualiza el estado de un pedido.
      * @param id El identificador del pedido a actualizar.
      * @param nuevoEstado El nuevo estado del pedido.
      * @return El pedido actualizado.
      * @throws EntityNotFoundException Si no se encuentra el pedido con el ID especificado.
-     * @throws IllegalOperationException Si el nuevo estado proporcionado no es válido.
+     * @throws IllegalOperationException Si el nuevo estado no es válido o no se puede alcanzar desde el actual.
      */
     @Override
+    @Transactional
     public Pedido actualizarEstado(Long id, String nuevoEstado) throws EntityNotFoundException, IllegalOperationException {
         Pedido pedido = buscarPorId(id);
         
-        if (!esEstadoValido(nuevoEstado)) {
+        EstadoPedido estado = EstadoPedido.buscar(nuevoEstado);
+        if (estado == null) {
             throw new IllegalOperationException("El estado proporcionado no es válido.");
         }
+        if (estado == pedido.getEstado()) {
+            return pedido;
+        }
+        validarTransicion(pedido.getEstado(), estado);
         
-        pedido.setEstado(nuevoEstado);
-        return pedidoRepository.save(pedido);
+        PedidoEvento.Datos anterior = datosDe(pedido);
+        pedido.setEstado(estado);
+        Pedido actualizado = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(new PedidoEvento(actualizado.getId(), anterior, datosDe(actualizado)));
+        return actualizado;
+    }
+
+    /**
+     * Obtiene los siguientes pedidos de un estado desde las colas en memoria, o con el índice
+     * de {@code estado} si las colas no están cargadas o el estado es final. Solo esta última
+     * consulta abre una transacción, para que las lecturas en memoria no ocupen una conexión.
+     * @param estado El estado de los pedidos.
+     * @param limite El número máximo de IDs a devolver.
+     * @return El número de pedidos del estado y los IDs de los siguientes.
+     * @throws IllegalOperationException Si el estado no es válido.
+     */
+    @Override
+    public ColaEstadoDTO siguientesPorEstado(String estado, int limite) throws IllegalOperationException {
+        EstadoPedido buscado = EstadoPedido.buscar(estado);
+        if (buscado == null) {
+            throw new IllegalOperationException("El estado proporcionado no es válido.");
+        }
+        ColaEstadoDTO cola = colasEstadoPedido.siguientes(buscado, limite);
+        if (cola != null) {
+            return cola;
+        }
+        return lectura.execute(transaccion -> new ColaEstadoDTO(buscado.getNombre(), pedidoRepository.countByEstado(buscado),
+                pedidoRepository.buscarIdsPorEstado(buscado, PageRequest.of(0, limite))));
     }
 
     /**
@@ -82,19 +279,32 @@ public class PedidoServiceImp implements PedidoService {
      * @param nuevoPedido El objeto Pedido con los nuevos detalles del pedido.
      * @return El pedido actualizado.
      * @throws EntityNotFoundException Si no se encuentra el pedido con el ID especificado.
+     * @throws IllegalOperationException Si el cambio de estado no está permitido o alguna línea nueva no es válida.
      */
     @Override
-    public Pedido actualizarPedido(Long id, Pedido nuevoPedido) throws EntityNotFoundException {
+    @Transactional
+    public Pedido actualizarPedido(Long id, Pedido nuevoPedido) throws EntityNotFoundException, IllegalOperationException {
         Pedido pedidoExistente = pedidoRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pedido no encontrado con ID: " + id));
+        if (nuevoPedido.getEstado() != null && nuevoPedido.getEstado() != pedidoExistente.getEstado()) {
+            validarTransicion(pedidoExistente.getEstado(), nuevoPedido.getEstado());
+        }
+        PedidoEvento.Datos anterior = datosDe(pedidoExistente);
 
         pedidoExistente.setCantidad(nuevoPedido.getCantidad());
         pedidoExistente.setFecha(nuevoPedido.getFecha());
-        pedidoExistente.setEstado(nuevoPedido.getEstado());
+        if (nuevoPedido.getEstado() != null) {
+            pedidoExistente.setEstado(nuevoPedido.getEstado());
+        }
         pedidoExistente.setCliente(nuevoPedido.getCliente());
-        pedidoExistente.setProductos(nuevoPedido.getProductos());
+        // Las líneas solo se sustituyen si se envían; el precio se captura de nuevo con el valor actual
+        if (nuevoPedido.getLineas() != null && !nuevoPedido.getLineas().isEmpty()) {
+            prepararLineas(pedidoExistente, nuevoPedido.getLineas());
+        }
 
-        return pedidoRepository.save(pedidoExistente);
+        Pedido actualizado = pedidoRepository.save(pedidoExistente);
+        eventPublisher.publishEvent(new PedidoEvento(id, anterior, datosDe(actualizado)));
+        return actualizado;
     }
 
     /**
@@ -104,6 +314,7 @@ public class PedidoServiceImp implements PedidoService {
      * @throws IllegalOperationException Si el pedido tiene clientes o productos asignados.
      */
     @Override
+    @Transactional
     public void eliminar(Long idPedido) throws EntityNotFoundException, IllegalOperationException {
         Pedido pedido = pedidoRepository.findById(idPedido).orElseThrow(
                 () -> new EntityNotFoundException(ErrorMessage.PEDIDO_NOT_FOUND));
@@ -111,11 +322,13 @@ public class PedidoServiceImp implements PedidoService {
         if (pedido.getCliente() != null) {
             throw new IllegalOperationException("El pedido tiene clientes asignados");
         }
-        if (pedido.getProductos() != null) {
+        if (!pedido.getLineas().isEmpty()) {
             throw new IllegalOperationException("El pedido tiene productos asignados");
         }
 
+        PedidoEvento.Datos anterior = datosDe(pedido);
         pedidoRepository.deleteById(idPedido);
+        eventPublisher.publishEvent(new PedidoEvento(idPedido, anterior, null));
     }
 
     /**
@@ -127,6 +340,7 @@ public class PedidoServiceImp implements PedidoService {
      * @throws EntityNotFoundException Si no se encuentra el pedido, el cliente o el producto con el ID especificado.
      */
     @Override
+    @Transactional
     public Pedido asignarClienteProducto(Long idPedido, Long idCliente, Long idProducto) throws EntityNotFoundException, IllegalOperationException {
         Pedido pedido = pedidoRepository.findById(idPedido)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.PEDIDO_NOT_FOUND));
@@ -137,31 +351,413 @@ public class PedidoServiceImp implements PedidoService {
         Producto producto = productoRepository.findById(idProducto)
                 .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.PRODUCT_NOT_FOUND));
 
+        PedidoEvento.Datos anterior = datosDe(pedido);
         pedido.setCliente(cliente);
 
-        List<Producto> productos = new ArrayList<>();
-        productos.add(producto);
+        // El producto asignado sustituye a las líneas anteriores, con una unidad al precio actual
+        pedido.vaciarLineas();
+        pedido.agregarLinea(producto, 1);
 
-        pedido.setProductos(productos);
+        Pedido actualizado = pedidoRepository.save(pedido);
+        eventPublisher.publishEvent(new PedidoEvento(idPedido, anterior, datosDe(actualizado)));
+        return actualizado;
+    }
+
+    /**
+     * Crea un nuevo pedido. El precio de cada línea se toma del producto en este momento
+     * y el total del pedido se calcula a partir de las líneas.
+     *
+     * <p>Con clave de idempotencia, un reintento reciente recibe la respuesta original guardada en memoria,
+     * sin consultar la base de datos ni repetir las validaciones. Una clave que no está en memoria no se
+     * consulta: se inserta con el pedido y, si el índice único la rechaza porque otra petición la registró
+     * antes (o antes de reiniciar la aplicación), se devuelve el pedido guardado con ella.
+     * Sin clave se mantiene la comprobación de pedidos similares por cliente, fecha y productos.</p>
+     * @param pedido            El pedido a crear.
+     * @param claveIdempotencia La clave de idempotencia de la petición, o null si no se envió.
+     * @return El cuerpo de la respuesta: el pedido creado o la respuesta dada antes con la misma clave.
+     * @throws IllegalOperationException Si la clave o alguna línea no es válida, o ya existe un pedido similar en la base de datos.
+     */
+    @Override
+    public JsonNode crearPedido(Pedido pedido, String claveIdempotencia) throws IllegalOperationException {
+        if (claveIdempotencia != null) {
+            if (claveIdempotencia.isBlank() || claveIdempotencia.length() > Pedido.LONGITUD_CLAVE_IDEMPOTENCIA) {
+                throw new IllegalOperationException("La clave de idempotencia debe tener entre 1 y "
+                        + Pedido.LONGITUD_CLAVE_IDEMPOTENCIA + " caracteres.");
+            }
+            byte[] previa;
+            synchronized (respuestasPorClave) {
+                previa = respuestasPorClave.get(claveIdempotencia);
+            }
+            if (previa != null) {
+                return leerRespuesta(previa);
+            }
+        }
+
+        List<PedidoLinea> solicitadas = pedido.getLineas() != null ? new ArrayList<>(pedido.getLineas()) : new ArrayList<>();
+        prepararLineas(pedido, solicitadas);
+
+        if (claveIdempotencia == null && !pedido.getLineas().isEmpty()) {
+            Set<Long> productosIds = new HashSet<>();
+            for (PedidoLinea linea : pedido.getLineas()) {
+                productosIds.add(linea.getProducto().getId());
+            }
+            boolean pedidoExistente = pedidoRepository.existePedidoSimilar(pedido.getCliente(), productosIds, pedido.getFecha());
+            if (pedidoExistente) {
+                throw new IllegalOperationException("Ya existe un pedido similar en la base de datos.");
+            }
+        }
+        if (pedido.getEstado() == null) {
+            pedido.setEstado(EstadoPedido.PENDIENTE);
+        }
+        pedido.setClaveIdempotencia(claveIdempotencia);
 
-        return pedidoRepository.save(pedido);
+        byte[] respuesta;
+        try {
+            // Se serializa dentro de la transacción, con las líneas y sus productos todavía en la sesión
+            respuesta = transactionTemplate.execute(estado -> {
+                Pedido nuevo = pedidoRepository.save(pedido);
+                eventPublisher.publishEvent(new PedidoEvento(nuevo.getId(), null, datosDe(nuevo)));
+                return escribirRespuesta(nuevo);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (claveIdempotencia == null) {
+                throw e;
+            }
+            // Otra petición con la misma clave se confirmó antes (o antes de reiniciar la aplicación)
+            respuesta = escribirRespuesta(pedidoRepository.findByClaveIdempotencia(claveIdempotencia).orElseThrow(() -> e));
+        }
+
+        if (claveIdempotencia != null) {
+            synchronized (respuestasPorClave) {
+                respuestasPorClave.put(claveIdempotencia, respuesta);
+            }
+        }
+        return leerRespuesta(respuesta);
+    }
+
+    /**
+     * Serializa la respuesta de creación de un pedido.
+     */
+    private byte[] escribirRespuesta(Pedido pedido) {
+        try {
+            return objectMapper.writeValueAsBytes(pedido);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el pedido " + pedido.getId(), e);
+        }
     }
 
     /**
-     * Crea un nuevo pedido.
-     * @param pedido El pedido a crear.
-     * @return El pedido creado.
-     * @throws IllegalOperationException Si ya existe un pedido similar en la base de datos.
+     * Lee una respuesta serializada como un árbol nuevo, propio de la petición que lo recibe.
+     */
+    private JsonNode leerRespuesta(byte[] respuesta) {
+        try {
+            return objectMapper.readTree(respuesta);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sustituye las líneas de un pedido por las solicitadas, cargando los productos en una sola consulta
+     * y capturando su precio actual.
+     * @param pedido      El pedido cuyas líneas se sustituyen.
+     * @param solicitadas Las líneas solicitadas, con el producto indicado al menos por su ID.
+     * @throws IllegalOperationException Si alguna línea no indica un producto existente o una cantidad positiva.
+     */
+    private void prepararLineas(Pedido pedido, List<PedidoLinea> solicitadas) throws IllegalOperationException {
+        List<PedidoLinea> lineas = new ArrayList<>(solicitadas);
+        Set<Long> productosIds = new HashSet<>();
+        for (PedidoLinea linea : lineas) {
+            if (linea == null || linea.getProducto() == null || linea.getProducto().getId() == null) {
+                throw new IllegalOperationException("Cada línea del pedido debe indicar un producto.");
+            }
+            if (linea.getCantidad() <= 0) {
+                throw new IllegalOperationException("La cantidad de cada línea debe ser mayor que cero.");
+            }
+            productosIds.add(linea.getProducto().getId());
+        }
+
+        Map<Long, Producto> productos = new HashMap<>();
+        for (Producto producto : productoRepository.findAllById(productosIds)) {
+            productos.put(producto.getId(), producto);
+        }
+
+        pedido.vaciarLineas();
+        for (PedidoLinea linea : lineas) {
+            Producto producto = productos.get(linea.getProducto().getId());
+            if (producto == null) {
+                throw new IllegalOperationException(ErrorMessage.PRODUCT_NOT_FOUND + ": " + linea.getProducto().getId());
+            }
+            pedido.agregarLinea(producto, linea.getCantidad());
+        }
+    }
+
+    /**
+     * Calcula el número de pedidos y los ingresos de un periodo a partir de los totales almacenados.
+     * @param desde Fecha mínima (inclusive) de los pedidos.
+     * @param hasta Fecha máxima (exclusiva) de los pedidos.
+     * @return El resumen de ingresos del periodo.
      */
     @Override
-    public Pedido crearPedido(Pedido pedido) throws IllegalOperationException {
-        boolean pedidoExistente = pedidoRepository.existsByClienteAndProductosAndFecha(pedido.getCliente(), pedido.getProductos(), pedido.getFecha());
-        
-        if (pedidoExistente) {
-            throw new IllegalOperationException("Ya existe un pedido similar en la base de datos.");
+    @Transactional(readOnly = true)
+    public ResumenIngresosDTO resumirIngresos(LocalDateTime desde, LocalDateTime hasta) {
+        return pedidoRepository.resumirIngresos(desde, hasta);
+    }
+
+    /**
+     * Crea varios pedidos en una sola transacción.
+     * La existencia de clientes, los precios de los productos y los duplicados se obtienen con una consulta
+     * cada uno para todo el lote, y los pedidos válidos se insertan con sentencias JDBC por lotes.
+     * Un pedido se considera duplicado si ya existe otro del mismo cliente, en la misma fecha
+     * y con alguno de sus productos, en la base de datos o antes en el mismo lote.
+     * @param pedidos Los pedidos a crear.
+     * @return El resultado de cada pedido, en el mismo orden que la entrada.
+     * @throws IllegalOperationException Si el lote está vacío o supera el tamaño máximo.
+     */
+    @Override
+    @Transactional
+    public List<ResultadoLoteDTO> crearPedidosEnLote(List<PedidoSolicitudDTO> pedidos) throws IllegalOperationException {
+        if (pedidos == null || pedidos.isEmpty()) {
+            throw new IllegalOperationException("El lote de pedidos está vacío.");
         }
-        
-        return pedidoRepository.save(pedido);
+        if (pedidos.size() > TAMANO_MAXIMO_LOTE) {
+            throw new IllegalOperationException("El lote supera el máximo de " + TAMANO_MAXIMO_LOTE + " pedidos.");
+        }
+
+        Set<Long> clientesIds = new HashSet<>();
+        Set<Long> productosIds = new HashSet<>();
+        Set<LocalDateTime> fechas = new HashSet<>();
+        for (PedidoSolicitudDTO pedido : pedidos) {
+            if (pedido == null) {
+                continue;
+            }
+            if (pedido.getClienteId() != null) {
+                clientesIds.add(pedido.getClienteId());
+            }
+            for (PedidoLineaDTO linea : lineasSolicitadas(pedido)) {
+                productosIds.add(linea.getProductoId());
+            }
+            if (pedido.getFecha() != null) {
+                fechas.add(pedido.getFecha());
+            }
+        }
+        productosIds.remove(null);
+
+        Set<Long> clientesExistentes = clientesIds.isEmpty() ? Set.of()
+                : new HashSet<>(clienteRepository.buscarIdsExistentes(clientesIds));
+        Map<Long, Double> precios = new HashMap<>();
+        if (!productosIds.isEmpty()) {
+            for (Object[] fila : productoRepository.buscarPrecios(productosIds)) {
+                precios.put((Long) fila[0], (Double) fila[1]);
+            }
+        }
+        Set<ClavePedidoProducto> registradas = new HashSet<>();
+        if (!clientesExistentes.isEmpty() && !fechas.isEmpty()) {
+            for (Object[] fila : pedidoRepository.buscarCoincidencias(clientesExistentes, fechas)) {
+                registradas.add(new ClavePedidoProducto((Long) fila[0], (LocalDateTime) fila[1], (Long) fila[2]));
+            }
+        }
+
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[pedidos.size()];
+        List<Pedido> validos = new ArrayList<>();
+        List<Integer> indicesValidos = new ArrayList<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            PedidoSolicitudDTO pedido = pedidos.get(i);
+            String error = validarEnLote(pedido, clientesExistentes, precios, registradas);
+            if (error != null) {
+                resultados[i] = ResultadoLoteDTO.fallido(i, error);
+            } else {
+                validos.add(construirPedido(pedido, precios));
+                indicesValidos.add(i);
+            }
+        }
+
+        List<Long> ids = pedidoRepository.insertarEnLote(validos);
+        for (int j = 0; j < ids.size(); j++) {
+            int indice = indicesValidos.get(j);
+            resultados[indice] = ResultadoLoteDTO.correcto(indice, ids.get(j));
+            eventPublisher.publishEvent(new PedidoEvento(ids.get(j), null, datosDe(validos.get(j))));
+        }
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Valida un pedido de un lote y, si es válido, registra sus combinaciones para detectar
+     * duplicados posteriores dentro del mismo lote.
+     * @param pedido             El pedido a validar.
+     * @param clientesExistentes Los IDs de clientes existentes.
+     * @param precios            Los precios de los productos existentes, por ID.
+     * @param registradas        Las combinaciones ya registradas en la base de datos o en el lote.
+     * @return El motivo del rechazo, o null si el pedido es válido.
+     */
+    private static String validarEnLote(PedidoSolicitudDTO pedido, Set<Long> clientesExistentes,
+                                        Map<Long, Double> precios, Set<ClavePedidoProducto> registradas) {
+        if (pedido == null) {
+            return "El pedido no puede ser nulo.";
+        }
+        if (pedido.getClienteId() == null || !clientesExistentes.contains(pedido.getClienteId())) {
+            return ErrorMessage.CLIENTE_NOT_FOUND;
+        }
+        if (pedido.getEstado() != null && !esEstadoValido(pedido.getEstado())) {
+            return "El estado proporcionado no es válido.";
+        }
+        List<PedidoLineaDTO> lineas = lineasSolicitadas(pedido);
+        for (PedidoLineaDTO linea : lineas) {
+            if (linea.getProductoId() == null || !precios.containsKey(linea.getProductoId())) {
+                return ErrorMessage.PRODUCT_NOT_FOUND + ": " + linea.getProductoId();
+            }
+            if (linea.getCantidad() <= 0) {
+                return "La cantidad de cada línea debe ser mayor que cero.";
+            }
+        }
+        if (pedido.getFecha() != null) {
+            List<ClavePedidoProducto> claves = new ArrayList<>(lineas.size());
+            for (PedidoLineaDTO linea : lineas) {
+                ClavePedidoProducto clave = new ClavePedidoProducto(pedido.getClienteId(), pedido.getFecha(), linea.getProductoId());
+                if (registradas.contains(clave)) {
+                    return "Ya existe un pedido similar en la base de datos o en el lote.";
+                }
+                claves.add(clave);
+            }
+            registradas.addAll(claves);
+        }
+        return null;
+    }
+
+    /**
+     * Reúne las líneas de una solicitud: las explícitas y una unidad por cada ID de {@code productosIds}.
+     * @param pedido La solicitud del pedido.
+     * @return Las líneas solicitadas.
+     */
+    private static List<PedidoLineaDTO> lineasSolicitadas(PedidoSolicitudDTO pedido) {
+        List<PedidoLineaDTO> lineas = new ArrayList<>();
+        if (pedido.getLineas() != null) {
+            for (PedidoLineaDTO linea : pedido.getLineas()) {
+                if (linea != null) {
+                    lineas.add(linea);
+                }
+            }
+        }
+        if (pedido.getProductosIds() != null) {
+            for (Long productoId : pedido.getProductosIds()) {
+                lineas.add(new PedidoLineaDTO(productoId, 1, 0, 0));
+            }
+        }
+        return lineas;
+    }
+
+    /**
+     * Construye un pedido transitorio para la inserción por lotes, con el cliente y los productos
+     * referenciados por ID y el precio de cada línea tomado de la base de datos.
+     * @param solicitud La solicitud ya validada.
+     * @param precios   Los precios de los productos, por ID.
+     * @return El pedido con sus líneas y su total calculados.
+     */
+    private static Pedido construirPedido(PedidoSolicitudDTO solicitud, Map<Long, Double> precios) {
+        Pedido pedido = new Pedido();
+        pedido.setCantidad(solicitud.getCantidad());
+        pedido.setFecha(solicitud.getFecha());
+        EstadoPedido estado = EstadoPedido.buscar(solicitud.getEstado());
+        pedido.setEstado(estado != null ? estado : EstadoPedido.PENDIENTE);
+        Cliente cliente = new Cliente();
+        cliente.setId(solicitud.getClienteId());
+        pedido.setCliente(cliente);
+        for (PedidoLineaDTO linea : lineasSolicitadas(solicitud)) {
+            Producto producto = new Producto();
+            producto.setId(linea.getProductoId());
+            producto.setPrecio(precios.get(linea.getProductoId()));
+            pedido.agregarLinea(producto, linea.getCantidad());
+        }
+        return pedido;
+    }
+
+    /**
+     * Exporta los pedidos que cumplen los filtros escribiéndolos fila a fila en la salida.
+     * Las filas se leen con un cursor de solo avance y se vuelcan cada {@link #FILAS_POR_VOLCADO},
+     * por lo que el consumo de memoria no depende del tamaño de la tabla.
+     * @param desde   Fecha mínima (inclusive) de los pedidos, o null para no filtrar.
+     * @param hasta   Fecha máxima (exclusiva) de los pedidos, o null para no filtrar.
+     * @param estado  Estado de los pedidos, o null para no filtrar.
+     * @param formato El formato de salida.
+     * @param salida  El flujo en el que se escriben las filas.
+     * @throws IOException Si ocurre un error al escribir en la salida.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(LocalDateTime desde, LocalDateTime hasta, EstadoPedido estado, FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(PedidoExportDTO.class);
+
+        if (formato == FormatoExportacion.CSV) {
+            writer.write(CABECERA_CSV);
+        }
+        try (Stream<PedidoExportDTO> filas = pedidoRepository.streamParaExportar(desde, hasta, estado)) {
+            Iterator<PedidoExportDTO> iterador = filas.iterator();
+            long escritas = 0;
+            while (iterador.hasNext()) {
+                PedidoExportDTO fila = iterador.next();
+                if (formato == FormatoExportacion.CSV) {
+                    escribirCsv(writer, fila);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(fila));
+                    writer.write('\n');
+                }
+                if (++escritas % FILAS_POR_VOLCADO == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Escribe una fila de exportación en formato CSV.
+     * @param writer El destino de la fila.
+     * @param fila   La fila a escribir.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    private void escribirCsv(Writer writer, PedidoExportDTO fila) throws IOException {
+        writer.write(String.valueOf(fila.getId()));
+        writer.write(',');
+        writer.write(fila.getFecha() != null ? fila.getFecha().toString() : "");
+        writer.write(',');
+        writer.write(escaparCsv(fila.getEstado()));
+        writer.write(',');
+        writer.write(String.valueOf(fila.getCantidad()));
+        writer.write(',');
+        writer.write(String.valueOf(fila.getTotal()));
+        writer.write(',');
+        writer.write(fila.getClienteId() != null ? String.valueOf(fila.getClienteId()) : "");
+        writer.write('\n');
+    }
+
+    /**
+     * Escapa un valor de texto para CSV, entrecomillándolo si contiene separadores.
+     * @param valor El valor a escapar.
+     * @return El valor listo para escribir en CSV.
+     */
+    private static String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Copia los datos de un pedido para publicarlos en un {@link PedidoEvento}.
+     * @param pedido El pedido, con sus líneas accesibles.
+     * @return Los datos del pedido.
+     */
+    private PedidoEvento.Datos datosDe(Pedido pedido) {
+        List<PedidoLineaDTO> lineas = new ArrayList<>(pedido.getLineas().size());
+        for (PedidoLinea linea : pedido.getLineas()) {
+            lineas.add(pedidoMapper.toDTO(linea));
+        }
+        Long clienteId = pedido.getCliente() != null ? pedido.getCliente().getId() : null;
+        return new PedidoEvento.Datos(pedido.getFecha(), pedido.getEstado(), pedido.getCantidad(), clienteId, pedido.getTotal(), List.copyOf(lineas));
     }
 
     /**
@@ -169,8 +765,27 @@ public class PedidoServiceImp implements PedidoService {
      * @param estado El estado a verificar.
      * @return true si el estado es válido, false en caso contrario.
      */
-    private boolean esEstadoValido(String estado) {
-        List<String> estadosValidos = Arrays.asList("pendiente", "en proceso", "entregado");
-        return estadosValidos.contains(estado.toLowerCase());
+    private static boolean esEstadoValido(String estado) {
+        return EstadoPedido.buscar(estado) != null;
+    }
+
+    /**
+     * Comprueba que un pedido pueda pasar de un estado a otro según la tabla de transiciones.
+     * Un pedido sin estado, guardado antes de que existiera la tabla, puede pasar a cualquiera.
+     * @param actual  El estado actual del pedido.
+     * @param destino El estado solicitado.
+     * @throws IllegalOperationException Si la transición no está permitida.
+     */
+    private static void validarTransicion(EstadoPedido actual, EstadoPedido destino) throws IllegalOperationException {
+        if (actual != null && !actual.puedePasarA(destino)) {
+            throw new IllegalOperationException("Un pedido " + actual.getNombre() + " no puede pasar a "
+                    + destino.getNombre() + ".");
+        }
+    }
+
+    /**
+     * Combinación de cliente, fecha y producto usada para detectar pedidos duplicados.
+     */
+    private record ClavePedidoProducto(Long clienteId, LocalDateTime fecha, Long productoId) {
     }
 }
@@ -0,0 +1,34 @@
+package com.restaurante.services;
+
+import org.springframework.data.domain.Slice;
+
+import com.restaurante.domain.PedidoVista;
+import com.restaurante.exception.EntityNotFoundException;
+
+/**
+ * Servicio de lectura de pedidos sobre la vista desnormalizada {@code pedido_vista}.
+ */
+public interface PedidoVistaService {
+
+    /**
+     * Obtiene una página de la vista a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de pedidos a devolver.
+     * @return Un Slice con los pedidos de la página.
+     */
+    Slice<PedidoVista> listarPagina(long despuesDe, int limite);
+
+    /**
+     * Busca un pedido en la vista por su identificador.
+     * @param id El identificador del pedido.
+     * @return La fila de la vista del pedido.
+     * @throws EntityNotFoundException Si la vista no contiene el pedido.
+     */
+    PedidoVista buscarPorId(Long id) throws EntityNotFoundException;
+
+    /**
+     * Regenera la vista completa a partir de las tablas de pedidos, clientes y productos.
+     * @return El número de pedidos proyectados.
+     */
+    long reconstruir();
+}
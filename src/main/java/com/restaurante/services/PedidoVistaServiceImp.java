@@ -0,0 +1,361 @@
+package com.restaurante.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.PedidoLinea;
+import com.restaurante.domain.PedidoVista;
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.PedidoVistaLineaDTO;
+import com.restaurante.events.ClienteEvento;
+import com.restaurante.events.PedidoEvento;
+import com.restaurante.events.ProductoEvento;
+import com.restaurante.exception.EntityNotFoundException;
+import com.restaurante.exception.ErrorMessage;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.PedidoRepository;
+import com.restaurante.repositories.PedidoVistaRepository;
+import com.restaurante.repositories.ProductoRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación del servicio de lectura sobre la vista de pedidos.
+ *
+ * <p>La vista se actualiza después de confirmarse cada escritura: un cambio de pedido vuelve a
+ * proyectar su fila desde las tablas de origen, un cambio de cliente actualiza sus filas con una
+ * sentencia sobre el índice de {@code cliente_id} y un cambio de producto reescribe las líneas de los
+ * pedidos que lo contienen, por páginas confirmadas por separado. Cada actualización lee el estado confirmado en ese momento y se aplica
+ * con las demás en exclusión mutua, de modo que el resultado no depende del orden en que lleguen los
+ * eventos.</p>
+ *
+ * <p>Si una actualización falla, el pedido, cliente o producto queda marcado como pendiente y se
+ * repara en la siguiente reparación programada; las lecturas no esperan a las reparaciones. Al arrancar se comparan las filas con las tablas de origen, porque las marcas
+ * pendientes no sobreviven a un reinicio.</p>
+ *
+ * <p>Las lecturas son una consulta por clave primaria o por rango de claves, sin joins.</p>
+ */
+@Service
+public class PedidoVistaServiceImp implements PedidoVistaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PedidoVistaServiceImp.class);
+
+    /** Número de pedidos proyectados por página al reconstruir la vista. */
+    private static final int PEDIDOS_POR_PAGINA = 500;
+
+    @Autowired
+    private PedidoVistaRepository pedidoVistaRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Transacciones propias de la vista: los eventos llegan después de confirmarse la transacción que
+     * los publica, que todavía ocupa el hilo.
+     */
+    private TransactionTemplate escritura;
+
+    /** Serializa las escrituras de la vista hasta que se confirman. */
+    private final ReentrantLock cerrojo = new ReentrantLock();
+
+    /** Pedidos cuya fila no se pudo proyectar. */
+    private final Set<Long> pedidosPendientes = ConcurrentHashMap.newKeySet();
+
+    /** Clientes cuyo nombre no se pudo actualizar en la vista. */
+    private final Set<Long> clientesPendientes = ConcurrentHashMap.newKeySet();
+
+    /** Productos cuyo nombre no se pudo actualizar en la vista. */
+    private final Set<Long> productosPendientes = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void inicializar() {
+        escritura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        escritura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Obtiene una página de la vista a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de pedidos a devolver.
+     * @return Un Slice con los pedidos de la página.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<PedidoVista> listarPagina(long despuesDe, int limite) {
+        return pedidoVistaRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, PageRequest.of(0, limite));
+    }
+
+    /**
+     * Busca un pedido en la vista por su identificador.
+     * @param id El identificador del pedido.
+     * @return La fila de la vista del pedido.
+     * @throws EntityNotFoundException Si la vista no contiene el pedido.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PedidoVista buscarPorId(Long id) throws EntityNotFoundException {
+        return pedidoVistaRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.PEDIDO_NOT_FOUND));
+    }
+
+    /**
+     * Regenera la vista completa recorriendo los pedidos por páginas de {@link #PEDIDOS_POR_PAGINA}.
+     * @return El número de pedidos proyectados.
+     */
+    @Override
+    public long reconstruir() {
+        cerrojo.lock();
+        try {
+            long proyectados = escritura.execute(estado -> regenerar());
+            pedidosPendientes.clear();
+            clientesPendientes.clear();
+            productosPendientes.clear();
+            return proyectados;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Compara la vista con las tablas de origen al arrancar: la regenera entera si está vacía, por
+     * ejemplo la primera vez que se despliega, y si no vuelve a proyectar solo los pedidos cuya fila
+     * falta o no coincide.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSiFalta() {
+        try {
+            if (pedidoVistaRepository.count() == 0 && pedidoRepository.count() > 0) {
+                logger.info("Vista de pedidos regenerada al arrancar: {} pedidos", reconstruir());
+                return;
+            }
+            List<Long> desactualizados = new ArrayList<>(pedidoVistaRepository.buscarIdsDesactualizados());
+            desactualizados.addAll(pedidoVistaRepository.buscarIdsSinPedido());
+            if (!desactualizados.isEmpty()) {
+                pedidosPendientes.addAll(desactualizados);
+                repararPendientes();
+                logger.info("Vista de pedidos reparada al arrancar: {} pedidos", desactualizados.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo comprobar la vista de pedidos al arrancar", e);
+        }
+    }
+
+    /**
+     * Repara periódicamente las actualizaciones fallidas.
+     */
+    @Scheduled(fixedDelayString = "${restaurante.vista.intervalo-reparacion:30000}")
+    public void repararPendientes() {
+        if (pedidosPendientes.isEmpty() && clientesPendientes.isEmpty() && productosPendientes.isEmpty()) {
+            return;
+        }
+        for (Long id : List.copyOf(clientesPendientes)) {
+            aplicar(clientesPendientes, id, this::actualizarCliente);
+        }
+        for (Long id : List.copyOf(productosPendientes)) {
+            renombrarProducto(id);
+        }
+        for (Long id : List.copyOf(pedidosPendientes)) {
+            aplicar(pedidosPendientes, id, this::proyectarPedido);
+        }
+    }
+
+    /**
+     * Proyecta un cambio de pedido confirmado.
+     *
+     * @param evento El evento publicado por el servicio de pedidos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarPedido(PedidoEvento evento) {
+        aplicar(pedidosPendientes, evento.getPedidoId(), this::proyectarPedido);
+    }
+
+    /**
+     * Actualiza el nombre de un cliente en sus pedidos.
+     *
+     * @param evento El evento publicado por el servicio de clientes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCliente(ClienteEvento evento) {
+        aplicar(clientesPendientes, evento.getClienteId(), this::actualizarCliente);
+    }
+
+    /**
+     * Actualiza el nombre de un producto en las líneas de los pedidos que lo contienen.
+     *
+     * @param evento El evento publicado por el servicio de productos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarProducto(ProductoEvento evento) {
+        renombrarProducto(evento.getProductoId());
+    }
+
+    /**
+     * Aplica una actualización de la vista en su propia transacción. Si falla, deja el ID como
+     * pendiente para repararlo más tarde; si se confirma, lo retira de los pendientes.
+     */
+    private void aplicar(Set<Long> pendientes, Long id, Consumer<Long> actualizacion) {
+        cerrojo.lock();
+        try {
+            escritura.executeWithoutResult(estado -> actualizacion.accept(id));
+            pendientes.remove(id);
+        } catch (RuntimeException e) {
+            marcarPendiente(pendientes, id, e);
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Copia el nombre actual de un producto en las líneas de los pedidos que lo contienen, por páginas de
+     * {@link #PEDIDOS_POR_PAGINA} pedidos. Cada página se confirma en su propia transacción y libera el
+     * cerrojo, de modo que un producto presente en muchos pedidos no retiene las demás proyecciones; el
+     * nombre se lee en cada página, así que un cambio posterior nunca queda sobrescrito por uno anterior.
+     * Si una página falla, el producto queda pendiente y la reparación recorre de nuevo todas.
+     */
+    private void renombrarProducto(Long productoId) {
+        try {
+            long despuesDe = 0;
+            List<Long> ids;
+            do {
+                ids = pedidoRepository.buscarIdsConProducto(productoId, despuesDe, PageRequest.of(0, PEDIDOS_POR_PAGINA));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<Long> pagina = ids;
+                cerrojo.lock();
+                try {
+                    escritura.executeWithoutResult(estado -> actualizarProducto(productoId, pagina));
+                } finally {
+                    cerrojo.unlock();
+                }
+                despuesDe = ids.get(ids.size() - 1);
+            } while (ids.size() == PEDIDOS_POR_PAGINA);
+            productosPendientes.remove(productoId);
+        } catch (RuntimeException e) {
+            marcarPendiente(productosPendientes, productoId, e);
+        }
+    }
+
+    private static void marcarPendiente(Set<Long> pendientes, Long id, RuntimeException e) {
+        pendientes.add(id);
+        logger.warn("No se pudo actualizar la vista de pedidos para el ID {}; se reparará más tarde", id, e);
+    }
+
+    /**
+     * Vuelve a proyectar la fila de un pedido desde las tablas de origen, o la elimina si el pedido ya no existe.
+     */
+    private void proyectarPedido(Long pedidoId) {
+        Pedido pedido = pedidoRepository.findConLineasById(pedidoId).orElse(null);
+        if (pedido == null) {
+            pedidoVistaRepository.deleteById(pedidoId);
+            return;
+        }
+        pedidoVistaRepository.save(proyectar(pedido));
+    }
+
+    /**
+     * Copia el nombre actual de un cliente en sus filas.
+     */
+    private void actualizarCliente(Long clienteId) {
+        clienteRepository.findById(clienteId)
+                .ifPresent(cliente -> pedidoVistaRepository.actualizarNombreCliente(cliente.getId(), cliente.getNombre()));
+    }
+
+    /**
+     * Copia el nombre actual de un producto en las líneas de una página de pedidos.
+     */
+    private void actualizarProducto(Long productoId, List<Long> pedidosIds) {
+        Producto producto = productoRepository.findById(productoId).orElse(null);
+        if (producto == null) {
+            return;
+        }
+        for (PedidoVista vista : pedidoVistaRepository.findAllById(pedidosIds)) {
+            List<PedidoVistaLineaDTO> lineas = new ArrayList<>(vista.getLineas().size());
+            for (PedidoVistaLineaDTO linea : vista.getLineas()) {
+                String nombre = producto.getId().equals(linea.getProductoId()) ? producto.getNombre() : linea.getProductoNombre();
+                lineas.add(new PedidoVistaLineaDTO(linea.getProductoId(), nombre, linea.getCantidad(),
+                        linea.getPrecioUnitario(), linea.getSubtotal()));
+            }
+            vista.setLineas(lineas);
+        }
+    }
+
+    /**
+     * Vacía la vista y la vuelve a llenar desde las tablas de origen dentro de la transacción en curso.
+     * Las filas se insertan directamente, sin comprobar si existen, porque la tabla se acaba de vaciar.
+     * @return El número de pedidos proyectados.
+     */
+    private long regenerar() {
+        pedidoVistaRepository.deleteAllInBatch();
+        long proyectados = 0;
+        long despuesDe = 0;
+        Slice<Pedido> pagina;
+        do {
+            pagina = pedidoRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, PageRequest.of(0, PEDIDOS_POR_PAGINA));
+            for (Pedido pedido : pagina) {
+                entityManager.persist(proyectar(pedido));
+                despuesDe = pedido.getId();
+                proyectados++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } while (pagina.hasNext());
+        return proyectados;
+    }
+
+    /**
+     * Construye la fila de la vista de un pedido leído de las tablas de origen.
+     */
+    private static PedidoVista proyectar(Pedido pedido) {
+        PedidoVista vista = new PedidoVista();
+        vista.setId(pedido.getId());
+        vista.setFecha(pedido.getFecha());
+        vista.setEstado(pedido.getEstado());
+        vista.setCantidad(pedido.getCantidad());
+        vista.setTotal(pedido.getTotal());
+        if (pedido.getCliente() != null) {
+            vista.setClienteId(pedido.getCliente().getId());
+            vista.setClienteNombre(pedido.getCliente().getNombre());
+        }
+        List<PedidoVistaLineaDTO> lineas = new ArrayList<>(pedido.getLineas().size());
+        for (PedidoLinea linea : pedido.getLineas()) {
+            lineas.add(new PedidoVistaLineaDTO(linea.getProducto().getId(), linea.getProducto().getNombre(),
+                    linea.getCantidad(), linea.getPrecioUnitario(), linea.subtotalCentimos() / 100.0));
+        }
+        vista.setLineas(lineas);
+        return vista;
+    }
+}
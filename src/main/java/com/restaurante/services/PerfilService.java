@@ -1,6 +1,10 @@
 package com.restaurante.services;
 
+import java.util.Collection;
 import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
 import com.restaurante.domain.Perfil;
 import com.restaurante.exception.IllegalOperationException;
 import com.restaurante.exception.EntityNotFoundException;
@@ -16,6 +20,14 @@ public interface PerfilService {
      */
     List<Perfil> listarTodos();
 
+    /**
+     * Obtiene una página de perfiles a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de perfiles a devolver.
+     * @return Un Slice con los perfiles de la página.
+     */
+    Slice<Perfil> listarPagina(long despuesDe, int limite);
+
     /**
      * Busca un perfil por su identificador.
      * @param id El identificador del perfil a buscar.
@@ -24,6 +36,13 @@ public interface PerfilService {
      */
     Perfil buscarPorId(Long id) throws EntityNotFoundException;
 
+    /**
+     * Busca varios perfiles por sus identificadores en una sola consulta.
+     * @param ids Los identificadores buscados.
+     * @return Los perfiles que existen, en cualquier orden.
+     */
+    List<Perfil> buscarPorIds(Collection<Long> ids);
+
     /**
      * Guarda un nuevo perfil.
      * @param perfil El perfil a guardar.
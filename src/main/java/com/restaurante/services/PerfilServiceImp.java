@@ -2,13 +2,19 @@ package com.restaurante.services;
 
 import com.restaurante.domain.Cliente;
 import com.restaurante.domain.Perfil;
+import com.restaurante.events.ClienteEvento;
+import com.restaurante.events.PerfilEvento;
 import com.restaurante.exception.IllegalOperationException;
 import com.restaurante.repositories.ClienteRepository;
 import com.restaurante.repositories.PerfilRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +26,9 @@ public class PerfilServiceImp implements PerfilService {
     @Autowired
     private PerfilRepository perfilRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Obtiene una lista de todos los perfiles.
      * @return Una lista de perfiles.
@@ -30,6 +39,18 @@ public class PerfilServiceImp implements PerfilService {
         return perfilRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de perfiles a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de perfiles a devolver.
+     * @return Un Slice con los perfiles de la página.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Perfil> listarPagina(long despuesDe, int limite) {
+        return perfilRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, PageRequest.of(0, limite));
+    }
+
     /**
      * Busca un perfil por su identificador.
      * @param id El identificador del perfil a buscar.
@@ -43,6 +64,17 @@ public class PerfilServiceImp implements PerfilService {
                 .orElseThrow(() -> new EntityNotFoundException("Perfil no encontrado con ID: " + id));
     }
 
+    /**
+     * Busca varios perfiles por sus identificadores en una sola consulta {@code IN}.
+     * @param ids Los identificadores buscados.
+     * @return Los perfiles que existen, en cualquier orden.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Perfil> buscarPorIds(Collection<Long> ids) {
+        return perfilRepository.findByIdIn(ids);
+    }
+
     /**
      * Guarda un nuevo perfil.
      * @param perfil El perfil a guardar.
@@ -53,7 +85,10 @@ public class PerfilServiceImp implements PerfilService {
     @Transactional
     public Perfil grabar(Perfil perfil) throws IllegalOperationException {
         // Aquí podrías realizar validaciones adicionales antes de guardar el perfil, si es necesario
-        return perfilRepository.save(perfil);
+        Perfil guardado = perfilRepository.save(perfil);
+        eventPublisher.publishEvent(new PerfilEvento(guardado.getId()));
+        publicarCambioCliente(guardado);
+        return guardado;
     }
 
     /**
@@ -73,7 +108,9 @@ public class PerfilServiceImp implements PerfilService {
         // Actualizar los atributos del perfil existente con los valores del perfil proporcionado
         perfilExistente.setPreferencias(perfil.getPreferencias());
 
-        return perfilRepository.save(perfilExistente);
+        Perfil actualizado = perfilRepository.save(perfilExistente);
+        eventPublisher.publishEvent(new PerfilEvento(id));
+        return actualizado;
     }
 
     /**
@@ -92,6 +129,17 @@ public class PerfilServiceImp implements PerfilService {
 
         // Si no necesitas realizar ninguna verificación adicional, puedes eliminar directamente el perfil
         perfilRepository.delete(perfilExistente);
+        eventPublisher.publishEvent(new PerfilEvento(id));
+        publicarCambioCliente(perfilExistente);
+    }
+
+    /**
+     * Avisa de que cambió el perfil asociado a un cliente, que forma parte de los datos del cliente.
+     * @param perfil El perfil creado o eliminado.
+     */
+    private void publicarCambioCliente(Perfil perfil) {
+        if (perfil.getCliente() != null && perfil.getCliente().getId() != null) {
+            eventPublisher.publishEvent(new ClienteEvento(perfil.getCliente().getId()));
+        }
     }
-    
 }
@@ -1,10 +1,15 @@
 package com.restaurante.services;
 
 import com.restaurante.domain.Producto;
+import com.restaurante.dto.EstadisticasCatalogoDTO;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.IllegalOperationException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Slice;
 
 /**
  * Esta interfaz define los métodos para el servicio de gestión de productos en el restaurante.
@@ -17,6 +22,14 @@ public interface ProductoService {
      */
     List<Producto> listarTodos();
 
+    /**
+     * Obtiene una página de productos a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de productos a devolver.
+     * @return Un Slice con los productos de la página.
+     */
+    Slice<Producto> listarPagina(long despuesDe, int limite);
+
     /**
      * Busca un producto por su identificador.
      * @param id El identificador del producto a buscar.
@@ -25,6 +38,33 @@ public interface ProductoService {
      */
     Producto buscarPorId(Long id) throws EntityNotFoundException;
 
+    /**
+     * Busca varios productos por sus identificadores en una sola consulta.
+     * @param ids Los identificadores buscados.
+     * @return Los productos que existen, en cualquier orden.
+     */
+    List<Producto> buscarPorIds(Collection<Long> ids);
+
+    /**
+     * Obtiene una página de productos con solo los campos indicados, sin cargar las entidades.
+     * @param campos    Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de productos a devolver.
+     * @return Un Slice con un mapa de campo a valor por cada producto; incluye siempre el ID.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    Slice<Map<String, Object>> listarCampos(String campos, long despuesDe, int limite) throws IllegalOperationException;
+
+    /**
+     * Busca un producto por su identificador y devuelve solo los campos indicados, sin cargar la entidad.
+     * @param id     El identificador del producto.
+     * @param campos Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @return Un mapa de campo a valor; incluye siempre el ID.
+     * @throws EntityNotFoundException Si no se encuentra el producto con el ID especificado.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    Map<String, Object> buscarCamposPorId(Long id, String campos) throws EntityNotFoundException, IllegalOperationException;
+
     /**
      * Guarda un nuevo producto en el sistema.
      * @param producto El producto a guardar.
@@ -68,4 +108,24 @@ public interface ProductoService {
      * @throws EntityNotFoundException Si no se encuentra el producto base al que se asignará la variante.
      */
     Producto crearVariante(Producto variante) throws IllegalOperationException, EntityNotFoundException;
+
+    /**
+     * Fuerza la reconstrucción de la instantánea en memoria del catálogo.
+     */
+    void refrescarCatalogo();
+
+    /**
+     * Busca productos por palabras o prefijos de su nombre y descripción, sin distinguir mayúsculas ni tildes.
+     * @param consulta El texto buscado.
+     * @param limite   El número máximo de productos.
+     * @return Los productos ordenados por relevancia.
+     * @throws IllegalOperationException Si la consulta está vacía o es demasiado larga.
+     */
+    List<Producto> buscar(String consulta, int limite) throws IllegalOperationException;
+
+    /**
+     * Obtiene las métricas de la instantánea en memoria del catálogo.
+     * @return Las estadísticas del catálogo.
+     */
+    EstadisticasCatalogoDTO estadisticasCatalogo();
 }
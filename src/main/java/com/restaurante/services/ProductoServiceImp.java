@@ -1,17 +1,31 @@
 package com.restaurante.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import com.restaurante.domain.Producto;
+import com.restaurante.dto.EstadisticasCatalogoDTO;
+import com.restaurante.events.ProductoEvento;
 import com.restaurante.exception.EntityNotFoundException;
 import com.restaurante.exception.ErrorMessage;
 import com.restaurante.exception.IllegalOperationException;
 import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.util.Campos;
+import com.restaurante.util.Restricciones;
 
 /**
  * Implementación del servicio para la gestión de productos en el restaurante.
@@ -19,46 +33,162 @@ import com.restaurante.repositories.ProductoRepository;
 @Service
 public class ProductoServiceImp implements ProductoService {
 
+    /** Campos seleccionables con el parámetro {@code fields} y el atributo que lee cada uno. */
+    private static final Map<String, String> CAMPOS_SELECCIONABLES = Map.of(
+            "id", "id", "nombre", "nombre", "descripcion", "descripcion", "precio", "precio");
+
+    private static final String NOMBRE_REPETIDO = "El nombre del producto ya existe";
+
+    /** Índice único que garantiza que no se repite el nombre. */
+    private static final String RESTRICCION_NOMBRE = "uk_producto_nombre";
+
+    /** Longitud máxima de una consulta de búsqueda. */
+    private static final int LONGITUD_MAXIMA_CONSULTA = 100;
+
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private RegistroNombres registroNombres;
+
+    @Autowired
+    private CatalogoProductos catalogoProductos;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Obtiene una lista de todos los productos.
+     * Obtiene una lista de todos los productos desde la instantánea del catálogo.
      * @return Una lista de objetos Producto.
      */
     @Override
-    @Transactional
     public List<Producto> listarTodos() {
-        return productoRepository.findAll();
+        List<Producto> productos = catalogoProductos.listar();
+        return productos != null ? productos : productoRepository.findAll();
     }
 
     /**
-     * Busca un producto por su identificador.
+     * Obtiene una página de productos a partir de un cursor.
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de productos a devolver.
+     * @return Un Slice con los productos de la página.
+     */
+    @Override
+    public Slice<Producto> listarPagina(long despuesDe, int limite) {
+        Slice<Producto> pagina = catalogoProductos.pagina(despuesDe, limite);
+        return pagina != null ? pagina : productoRepository.findByIdGreaterThanOrderByIdAsc(despuesDe, PageRequest.of(0, limite));
+    }
+
+    /**
+     * Busca un producto por su identificador, primero en la instantánea del catálogo.
      * @param id El identificador del producto a buscar.
      * @return El producto encontrado.
      * @throws EntityNotFoundException Si no se encuentra el producto con el ID especificado.
      */
     @Override
-    @Transactional
     public Producto buscarPorId(Long id) throws EntityNotFoundException {
+        Producto enCatalogo = catalogoProductos.buscar(id);
+        if (enCatalogo != null) return enCatalogo;
         Optional<Producto> producto = productoRepository.findById(id);
         if (producto.isEmpty()) throw new EntityNotFoundException(ErrorMessage.PRODUCT_NOT_FOUND);
         return producto.get();
     }
 
+    /**
+     * Busca varios productos por sus identificadores, primero en la instantánea del catálogo;
+     * los que no están en ella se leen en una sola consulta {@code IN}.
+     * @param ids Los identificadores buscados.
+     * @return Los productos que existen, en cualquier orden.
+     */
+    @Override
+    public List<Producto> buscarPorIds(Collection<Long> ids) {
+        List<Producto> productos = new ArrayList<>(ids.size());
+        Set<Long> faltantes = new HashSet<>();
+        for (Long id : ids) {
+            Producto enCatalogo = catalogoProductos.buscar(id);
+            if (enCatalogo != null) {
+                productos.add(enCatalogo);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            productos.addAll(productoRepository.findByIdIn(faltantes));
+        }
+        return productos;
+    }
+
+    /**
+     * Obtiene una página de productos con solo los campos indicados. Los toma de la instantánea del
+     * catálogo y, si no está cargada, de una consulta que selecciona solo esas columnas.
+     * @param campos    Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @param despuesDe El último ID ya entregado (0 para la primera página).
+     * @param limite    El número máximo de productos a devolver.
+     * @return Un Slice con un mapa de campo a valor por cada producto; incluye siempre el ID.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    @Override
+    public Slice<Map<String, Object>> listarCampos(String campos, long despuesDe, int limite) throws IllegalOperationException {
+        Map<String, String> seleccion = Campos.seleccionar(campos, CAMPOS_SELECCIONABLES);
+        Slice<Producto> pagina = catalogoProductos.pagina(despuesDe, limite);
+        if (pagina == null) return productoRepository.buscarCampos(seleccion, despuesDe, limite);
+        return pagina.map(producto -> proyectar(producto, seleccion.keySet()));
+    }
+
+    /**
+     * Busca un producto por su identificador, primero en la instantánea del catálogo, y devuelve solo los campos indicados.
+     * @param id     El identificador del producto.
+     * @param campos Los nombres de los campos separados por comas (parámetro {@code fields}).
+     * @return Un mapa de campo a valor; incluye siempre el ID.
+     * @throws EntityNotFoundException Si no se encuentra el producto con el ID especificado.
+     * @throws IllegalOperationException Si algún campo no se puede seleccionar.
+     */
+    @Override
+    public Map<String, Object> buscarCamposPorId(Long id, String campos) throws EntityNotFoundException, IllegalOperationException {
+        Map<String, String> seleccion = Campos.seleccionar(campos, CAMPOS_SELECCIONABLES);
+        Producto enCatalogo = catalogoProductos.buscar(id);
+        if (enCatalogo != null) return proyectar(enCatalogo, seleccion.keySet());
+        return productoRepository.buscarCamposPorId(seleccion, id)
+                .orElseThrow(() -> new EntityNotFoundException(ErrorMessage.PRODUCT_NOT_FOUND));
+    }
+
+    /**
+     * Copia los campos indicados de un producto de la instantánea.
+     * @param producto El producto.
+     * @param campos   Los campos seleccionables a copiar.
+     * @return Un mapa de campo a valor, en el orden de los campos.
+     */
+    private static Map<String, Object> proyectar(Producto producto, Set<String> campos) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (String campo : campos) {
+            fila.put(campo, switch (campo) {
+                case "nombre" -> producto.getNombre();
+                case "descripcion" -> producto.getDescripcion();
+                case "precio" -> producto.getPrecio();
+                default -> producto.getId();
+            });
+        }
+        return fila;
+    }
+
     /**
      * Guarda un nuevo producto en el sistema.
+     * La consulta previa del nombre solo se hace si el filtro de nombres indica que puede existir;
+     * en cualquier caso, el índice único rechaza un nombre repetido al insertar.
      * @param producto El producto a guardar.
      * @return El producto guardado.
-     * @throws IllegalOperationException Si ocurre una operación ilegal al intentar guardar el producto.
+     * @throws IllegalOperationException Si el nombre del producto ya existe.
      */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public Producto grabar(Producto producto) throws IllegalOperationException {
-        if (!productoRepository.findByNombre(producto.getNombre()).isEmpty()) {
-            throw new IllegalOperationException("El nombre del producto ya existe");
+        if (registroNombres.productoPuedeExistir(producto.getNombre())
+                && productoRepository.findByNombre(producto.getNombre()).isPresent()) {
+            throw new IllegalOperationException(NOMBRE_REPETIDO);
         }
-        return productoRepository.save(producto);
+        Producto guardado = guardar(producto);
+        eventPublisher.publishEvent(new ProductoEvento(guardado.getId()));
+        return guardado;
     }
 
     /**
@@ -67,20 +197,24 @@ public class ProductoServiceImp implements ProductoService {
      * @param producto El producto con los datos actualizados.
      * @return El producto actualizado.
      * @throws EntityNotFoundException Si no se encuentra el producto con el ID especificado.
-     * @throws IllegalOperationException Si ocurre una operación ilegal al intentar actualizar el producto.
+     * @throws IllegalOperationException Si el nuevo nombre pertenece a otro producto.
      */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = IllegalOperationException.class)
     public Producto actualizar(Long id, Producto producto) throws EntityNotFoundException, IllegalOperationException {
-        // Verificar si el producto existe
-        Producto productoExistente = buscarPorId(id);
+        // Verificar si el producto existe (se lee de la base de datos, no de la instantánea)
+        Producto productoExistente = productoRepository.findById(id).orElseThrow(
+                () -> new EntityNotFoundException(ErrorMessage.PRODUCT_NOT_FOUND)
+        );
 
         // Actualizar los atributos del producto existente con los valores del producto proporcionado
         productoExistente.setNombre(producto.getNombre());
         productoExistente.setDescripcion(producto.getDescripcion());
         productoExistente.setPrecio(producto.getPrecio());
 
-        return productoRepository.save(productoExistente);
+        Producto actualizado = guardar(productoExistente);
+        eventPublisher.publishEvent(new ProductoEvento(id));
+        return actualizado;
     }
 
     /**
@@ -97,11 +231,12 @@ public class ProductoServiceImp implements ProductoService {
                 () -> new EntityNotFoundException(ErrorMessage.PRODUCT_NOT_FOUND)
         );
 
-        if (!producto.getPedidos().isEmpty()) {
+        if (!producto.getLineas().isEmpty()) {
             throw new IllegalOperationException("El producto tiene pedidos asignados");
         }
 
         productoRepository.deleteById(idProducto);
+        eventPublisher.publishEvent(new ProductoEvento(idProducto));
     }
 
     /**
@@ -121,18 +256,83 @@ public class ProductoServiceImp implements ProductoService {
                 .orElseThrow(() -> new EntityNotFoundException("Producto no encontrado con ID: " + idProducto));
 
         producto.setVariante(variante);
-        return productoRepository.save(producto);
+        Producto actualizado = productoRepository.save(producto);
+        eventPublisher.publishEvent(new ProductoEvento(idProducto));
+        return actualizado;
     }
 
     /**
      * Crea una variante de producto en el sistema.
      * @param variante El producto que será una variante.
      * @return La variante creada.
+     * @throws IllegalOperationException Si el nombre de la variante ya existe.
      */
     @Override
-    @Transactional
-    public Producto crearVariante(Producto variante) {
-        return productoRepository.save(variante);
+    @Transactional(rollbackFor = IllegalOperationException.class)
+    public Producto crearVariante(Producto variante) throws IllegalOperationException {
+        Producto guardada = guardar(variante);
+        eventPublisher.publishEvent(new ProductoEvento(guardada.getId()));
+        return guardada;
+    }
+
+    /**
+     * Guarda el producto y registra su nombre, traduciendo el rechazo del índice único
+     * del nombre; cualquier otra violación de integridad se propaga sin cambios.
+     * @param producto El producto a guardar.
+     * @return El producto guardado.
+     * @throws IllegalOperationException Si el índice único rechaza el nombre.
+     */
+    private Producto guardar(Producto producto) throws IllegalOperationException {
+        Producto guardado;
+        try {
+            guardado = productoRepository.saveAndFlush(producto);
+        } catch (DataIntegrityViolationException e) {
+            if (!Restricciones.esViolacionDe(e, RESTRICCION_NOMBRE)) {
+                throw e;
+            }
+            throw new IllegalOperationException(NOMBRE_REPETIDO);
+        }
+        registroNombres.registrarProducto(guardado.getNombre());
+        return guardado;
+    }
+
+    /**
+     * Fuerza la reconstrucción de la instantánea del catálogo desde la base de datos.
+     */
+    @Override
+    public void refrescarCatalogo() {
+        catalogoProductos.refrescar();
+    }
+
+    /**
+     * Busca productos en el índice de texto de la instantánea del catálogo.
+     * Si la instantánea no está cargada, busca el texto en el nombre y la descripción con una consulta
+     * a la base de datos; la instantánea la vuelve a cargar {@link CatalogoProductos#cargarSiFalta()}.
+     * @param consulta El texto buscado.
+     * @param limite   El número máximo de productos.
+     * @return Los productos ordenados por relevancia.
+     * @throws IllegalOperationException Si la consulta está vacía o es demasiado larga.
+     */
+    @Override
+    public List<Producto> buscar(String consulta, int limite) throws IllegalOperationException {
+        if (consulta == null || consulta.isBlank() || consulta.length() > LONGITUD_MAXIMA_CONSULTA) {
+            throw new IllegalOperationException("La búsqueda debe tener entre 1 y " + LONGITUD_MAXIMA_CONSULTA + " caracteres.");
+        }
+        List<Producto> productos = catalogoProductos.buscarTexto(consulta, limite);
+        if (productos != null) {
+            return productos;
+        }
+        String texto = consulta.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return productoRepository.buscarTexto(texto, PageRequest.of(0, limite));
+    }
+
+    /**
+     * Obtiene las métricas de aciertos y fallos de la instantánea del catálogo.
+     * @return Las estadísticas del catálogo.
+     */
+    @Override
+    public EstadisticasCatalogoDTO estadisticasCatalogo() {
+        return catalogoProductos.estadisticas();
     }
 
 }
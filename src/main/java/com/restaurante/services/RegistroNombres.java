@@ -0,0 +1,113 @@
+package com.restaurante.services;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.util.FiltroBloom;
+
+/**
+ * Filtros de Bloom con los nombres de clientes y productos registrados.
+ *
+ * <p>Permiten saltarse la consulta previa de unicidad cuando un nombre seguro que es nuevo.
+ * La unicidad la garantizan los índices únicos de la base de datos; el filtro solo evita la consulta,
+ * por lo que un nombre añadido por otra instancia o mientras se cargaba el filtro, que el filtro no
+ * conoce, se rechaza igualmente al insertar. Hasta que termina la carga inicial se consulta siempre.</p>
+ */
+@Component
+public class RegistroNombres {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistroNombres.class);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    /** Número mínimo de nombres para el que se dimensiona cada filtro. */
+    @Value("${restaurante.nombres.capacidad-filtro:100000}")
+    private long capacidad;
+
+    /** Probabilidad de falso positivo de cada filtro con su capacidad. */
+    @Value("${restaurante.nombres.falsos-positivos:0.01}")
+    private double falsosPositivos;
+
+    private volatile FiltroBloom clientes;
+    private volatile FiltroBloom productos;
+
+    /**
+     * Carga los nombres existentes al arrancar la aplicación.
+     * Si la base de datos no está disponible, las comprobaciones siguen consultando la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargarInicial() {
+        try {
+            clientes = construir(clienteRepository.buscarNombres());
+            productos = construir(productoRepository.buscarNombres());
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron cargar los nombres de clientes y productos", e);
+        }
+    }
+
+    /**
+     * @param nombre El nombre de un cliente.
+     * @return false si seguro que ningún cliente tiene ese nombre; true si puede tenerlo.
+     */
+    public boolean clientePuedeExistir(String nombre) {
+        FiltroBloom filtro = clientes;
+        return filtro == null || filtro.puedeContener(nombre);
+    }
+
+    /**
+     * @param nombre El nombre de un producto.
+     * @return false si seguro que ningún producto tiene ese nombre; true si puede tenerlo.
+     */
+    public boolean productoPuedeExistir(String nombre) {
+        FiltroBloom filtro = productos;
+        return filtro == null || filtro.puedeContener(nombre);
+    }
+
+    /**
+     * Registra el nombre de un cliente guardado.
+     * @param nombre El nombre del cliente.
+     */
+    public void registrarCliente(String nombre) {
+        FiltroBloom filtro = clientes;
+        if (filtro != null) {
+            filtro.agregar(nombre);
+        }
+    }
+
+    /**
+     * Registra el nombre de un producto guardado.
+     * @param nombre El nombre del producto.
+     */
+    public void registrarProducto(String nombre) {
+        FiltroBloom filtro = productos;
+        if (filtro != null) {
+            filtro.agregar(nombre);
+        }
+    }
+
+    /**
+     * Crea un filtro con holgura para el doble de los nombres actuales y los añade.
+     */
+    private FiltroBloom construir(List<String> nombres) {
+        FiltroBloom filtro = new FiltroBloom(Math.max(capacidad, 2L * nombres.size()), falsosPositivos);
+        for (String nombre : nombres) {
+            filtro.agregar(nombre);
+        }
+        return filtro;
+    }
+}
@@ -0,0 +1,22 @@
+package com.restaurante.services;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.restaurante.dto.VentaProductoDTO;
+
+/**
+ * Interfaz que define los métodos para el servicio de informes de ventas.
+ */
+public interface ReporteService {
+
+    /**
+     * Obtiene las ventas por producto de un día o de una hora de ese día.
+     * Solo cuentan los pedidos entregados.
+     * @param dia        El día consultado.
+     * @param hora       La hora del día (0-23), o null para el día completo.
+     * @param productoId El ID de un producto para limitar el informe, o null para todos.
+     * @return Las ventas de cada producto con ventas en el periodo, ordenadas por ID de producto.
+     */
+    List<VentaProductoDTO> ventas(LocalDate dia, Integer hora, Long productoId);
+}
@@ -0,0 +1,49 @@
+package com.restaurante.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.restaurante.dto.VentaProductoDTO;
+import com.restaurante.repositories.VentaResumenRepository;
+
+/**
+ * Implementación del servicio de informes de ventas.
+ * Responde desde los acumuladores en memoria y, para periodos que ya no se conservan en ellos,
+ * desde la tabla de ventas por hora, nunca recorriendo los pedidos.
+ */
+@Service
+public class ReporteServiceImp implements ReporteService {
+
+    @Autowired
+    private AcumuladorVentas acumuladorVentas;
+
+    @Autowired
+    private VentaResumenRepository ventaResumenRepository;
+
+    @Override
+    public List<VentaProductoDTO> ventas(LocalDate dia, Integer hora, Long productoId) {
+        if (productoId != null) {
+            VentaProductoDTO venta = acumuladorVentas.ventas(productoId, dia, hora);
+            if (venta != null) {
+                return venta.getUnidades() != 0 || venta.getIngresos() != 0 ? List.of(venta) : List.of();
+            }
+        } else {
+            List<VentaProductoDTO> ventas = acumuladorVentas.ventas(dia, hora);
+            if (ventas != null) {
+                return ventas;
+            }
+        }
+
+        LocalDateTime desde = hora != null ? dia.atTime(hora, 0) : dia.atStartOfDay();
+        LocalDateTime hasta = hora != null ? desde.plusHours(1) : desde.plusDays(1);
+        List<VentaProductoDTO> ventas = ventaResumenRepository.sumarPorProducto(desde, hasta);
+        if (productoId != null) {
+            ventas.removeIf(venta -> !productoId.equals(venta.getProductoId()));
+        }
+        return ventas;
+    }
+}
@@ -0,0 +1,92 @@
+package com.restaurante.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurante.events.ClienteEvento;
+import com.restaurante.events.PerfilEvento;
+import com.restaurante.util.FormatoRespuesta;
+
+/**
+ * Contadores de versión de los datos que sirven los listados, usados como ETag.
+ *
+ * <p>Cada contador se incrementa después de que una escritura sea visible para las lecturas, y los
+ * controladores leen la versión antes que los datos. Así una respuesta nunca lleva una versión más
+ * nueva que su contenido, y una petición con {@code If-None-Match} se responde con 304 sin consultar
+ * la base de datos. El ETag incluye el instante de arranque para no repetir versiones tras un reinicio.</p>
+ *
+ * <p>El ETag es débil: la versión identifica los datos, pero no los bytes, que cambian si el servidor
+ * comprime la respuesta, y el servidor no comprime las respuestas con ETag fuerte.</p>
+ */
+@Component
+public class VersionesDatos {
+
+    /**
+     * Conjuntos de datos con versión propia.
+     */
+    public enum Recurso {
+        /** Catálogo de productos; lo incrementa {@link CatalogoProductos} al reconstruir su instantánea. */
+        PRODUCTOS,
+        /** Clientes con su perfil. */
+        CLIENTES,
+        /** Perfiles con su cliente. */
+        PERFILES
+    }
+
+    private final String arranque = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLongArray versiones = new AtomicLongArray(Recurso.values().length);
+
+    /**
+     * @param recurso El conjunto de datos.
+     * @return La versión actual del conjunto de datos.
+     */
+    public long version(Recurso recurso) {
+        return versiones.get(recurso.ordinal());
+    }
+
+    /**
+     * Marca como modificado un conjunto de datos.
+     *
+     * @param recurso El conjunto de datos.
+     */
+    public void incrementar(Recurso recurso) {
+        versiones.incrementAndGet(recurso.ordinal());
+    }
+
+    /**
+     * Construye el ETag débil de la versión actual de un conjunto de datos. Incluye el formato
+     * negociado, porque cada codificación de la respuesta es una representación distinta.
+     *
+     * @param recurso El conjunto de datos.
+     * @param accept  La cabecera Accept de la petición, o null.
+     * @return El ETag, con el prefijo {@code W/}.
+     */
+    public String etag(Recurso recurso, String accept) {
+        return "W/\"" + recurso.name().toLowerCase() + "-" + FormatoRespuesta.negociar(accept).name().toLowerCase()
+                + "-" + arranque + "-" + version(recurso) + "\"";
+    }
+
+    /**
+     * Incrementa la versión de los clientes, y la de los perfiles que los incluyen, una vez confirmada la escritura.
+     *
+     * @param evento El evento publicado por el servicio de clientes o de perfiles.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCliente(ClienteEvento evento) {
+        incrementar(Recurso.CLIENTES);
+        incrementar(Recurso.PERFILES);
+    }
+
+    /**
+     * Incrementa la versión de los perfiles una vez confirmada la escritura.
+     *
+     * @param evento El evento publicado por el servicio de perfiles.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarPerfil(PerfilEvento evento) {
+        incrementar(Recurso.PERFILES);
+    }
+}
@@ -1,5 +1,7 @@
 package com.restaurante.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 
 @Data
@@ -19,6 +21,13 @@ public class ApiResponse<T> {
      */
     private T data;
 
+    /**
+     * Cursor para solicitar la siguiente página de un listado.
+     * Es nulo cuando no hay más elementos o la respuesta no es paginada.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     /**
      * Constructor de la clase ApiResponse.
      *
@@ -31,4 +40,17 @@ public class ApiResponse<T> {
         this.message = message;
         this.data = data;
     }
+
+    /**
+     * Constructor de la clase ApiResponse para respuestas paginadas.
+     *
+     * @param success indica si la operación fue exitosa
+     * @param message mensaje descriptivo sobre el resultado de la operación
+     * @param data los datos asociados a la respuesta
+     * @param nextCursor cursor de la siguiente página, o null si no hay más elementos
+     */
+    public ApiResponse(boolean success, String message, T data, String nextCursor) {
+        this(success, message, data);
+        this.nextCursor = nextCursor;
+    }
 }
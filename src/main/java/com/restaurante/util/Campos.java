@@ -0,0 +1,47 @@
+package com.restaurante.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.restaurante.exception.IllegalOperationException;
+
+/**
+ * Utilidades para el parámetro {@code fields}, que limita una respuesta a los campos indicados.
+ * Cada recurso declara sus campos seleccionables y el atributo de la entidad que lee cada uno,
+ * de modo que la consulta solo selecciona esas columnas.
+ */
+public final class Campos {
+
+    /** Campo que se incluye siempre, porque identifica la fila y sirve de cursor. */
+    public static final String ID = "id";
+
+    private Campos() {
+    }
+
+    /**
+     * Interpreta el parámetro {@code fields}.
+     *
+     * @param campos      Nombres de los campos separados por comas.
+     * @param disponibles Campos seleccionables y la ruta del atributo de la entidad de cada uno.
+     * @return Los campos pedidos con su ruta, en el orden recibido y con el ID en primer lugar.
+     * @throws IllegalOperationException Si el parámetro está vacío o algún campo no se puede seleccionar.
+     */
+    public static Map<String, String> seleccionar(String campos, Map<String, String> disponibles) throws IllegalOperationException {
+        if (campos == null || campos.isBlank()) {
+            throw new IllegalOperationException("El parámetro fields no indica ningún campo");
+        }
+        Map<String, String> seleccion = new LinkedHashMap<>();
+        seleccion.put(ID, disponibles.get(ID));
+        for (String campo : campos.split(",")) {
+            String nombre = campo.trim();
+            String ruta = disponibles.get(nombre);
+            if (ruta == null) {
+                throw new IllegalOperationException("El campo '" + nombre + "' no se puede seleccionar; campos disponibles: "
+                        + String.join(",", new TreeSet<>(disponibles.keySet())));
+            }
+            seleccion.put(nombre, ruta);
+        }
+        return seleccion;
+    }
+}
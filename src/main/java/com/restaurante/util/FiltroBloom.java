@@ -0,0 +1,93 @@
+package com.restaurante.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas: responde si un valor se añadió alguna vez, con falsos positivos
+ * acotados y sin falsos negativos. No admite borrados.
+ *
+ * <p>Los bits se guardan en un {@link AtomicLongArray}, por lo que se puede consultar y añadir desde
+ * varios hilos sin sincronizar. Las posiciones se obtienen por doble hash de un hash de 64 bits
+ * (FNV-1a sobre los bytes UTF-8, mezclado con el finalizador de MurmurHash3).</p>
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+
+    /**
+     * Crea un filtro dimensionado para el número de elementos y la tasa de falsos positivos indicados.
+     *
+     * @param elementosEsperados El número de elementos que se espera añadir.
+     * @param falsosPositivos    La probabilidad de falso positivo con ese número de elementos (0 a 1).
+     */
+    public FiltroBloom(long elementosEsperados, double falsosPositivos) {
+        long n = Math.max(1, elementosEsperados);
+        long m = (long) Math.ceil(-n * Math.log(falsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.numeroBits = (long) palabras * 64;
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / n * Math.log(2)));
+    }
+
+    /**
+     * Añade un valor al filtro.
+     *
+     * @param valor El valor a añadir; los nulos se ignoran.
+     */
+    public void agregar(String valor) {
+        if (valor == null) {
+            return;
+        }
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicion = Math.floorMod(h1 + (long) i * h2, numeroBits);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            long actual = bits.get(palabra);
+            while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara)) {
+                actual = bits.get(palabra);
+            }
+        }
+    }
+
+    /**
+     * Indica si un valor puede haberse añadido.
+     *
+     * @param valor El valor a comprobar.
+     * @return false si el valor seguro que no se añadió; true si puede haberse añadido (o es nulo).
+     */
+    public boolean puedeContener(String valor) {
+        if (valor == null) {
+            return true;
+        }
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicion = Math.floorMod(h1 + (long) i * h2, numeroBits);
+            if ((bits.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
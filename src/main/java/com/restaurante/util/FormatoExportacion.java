@@ -0,0 +1,70 @@
+package com.restaurante.util;
+
+import com.restaurante.exception.IllegalOperationException;
+
+/**
+ * Formatos disponibles para la exportación y la importación en streaming.
+ */
+public enum FormatoExportacion {
+
+    /** Un objeto JSON por línea. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Valores separados por comas con fila de cabecera. */
+    CSV("text/csv", "csv");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoExportacion(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    /**
+     * @return El tipo MIME de la respuesta.
+     */
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    /**
+     * @return La extensión del fichero descargado.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Obtiene el formato a partir del valor del parámetro de la petición.
+     *
+     * @param valor El nombre del formato (sin distinguir mayúsculas).
+     * @return El formato correspondiente.
+     * @throws IllegalOperationException Si el formato no está soportado.
+     */
+    public static FormatoExportacion desde(String valor) throws IllegalOperationException {
+        for (FormatoExportacion formato : values()) {
+            if (formato.extension.equalsIgnoreCase(valor)) {
+                return formato;
+            }
+        }
+        throw new IllegalOperationException("El formato de exportación no es válido: " + valor);
+    }
+
+    /**
+     * Obtiene el formato a partir de la cabecera Content-Type de un fichero recibido.
+     *
+     * @param tipoContenido El valor de la cabecera, con o sin parámetros como {@code charset}.
+     * @return El formato correspondiente.
+     * @throws IllegalOperationException Si el tipo de contenido no está soportado.
+     */
+    public static FormatoExportacion desdeTipoContenido(String tipoContenido) throws IllegalOperationException {
+        String tipo = tipoContenido != null ? tipoContenido.split(";")[0].trim() : "";
+        for (FormatoExportacion formato : values()) {
+            if (formato.tipoContenido.equalsIgnoreCase(tipo)) {
+                return formato;
+            }
+        }
+        throw new IllegalOperationException("El tipo de contenido no es válido: " + tipoContenido);
+    }
+}
@@ -0,0 +1,67 @@
+package com.restaurante.util;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * Codificaciones de las respuestas de la API que se negocian con la cabecera Accept.
+ */
+public enum FormatoRespuesta {
+
+    /** JSON, el formato por defecto. */
+    JSON(MediaType.APPLICATION_JSON),
+
+    /** CBOR (RFC 8949), la misma estructura que el JSON en binario. */
+    CBOR(MediaType.APPLICATION_CBOR),
+
+    /** Smile, el JSON binario de Jackson. */
+    SMILE(new MediaType("application", "x-jackson-smile")),
+
+    /** Protocol Buffers según el esquema {@code src/main/proto/restaurante.proto}. */
+    PROTOBUF(new MediaType("application", "x-protobuf"));
+
+    private final MediaType tipoContenido;
+
+    FormatoRespuesta(MediaType tipoContenido) {
+        this.tipoContenido = tipoContenido;
+    }
+
+    /**
+     * @return El tipo MIME de la respuesta.
+     */
+    public MediaType getTipoContenido() {
+        return tipoContenido;
+    }
+
+    /**
+     * Obtiene el formato que se servirá para una cabecera Accept: el de mayor calidad entre los
+     * tipos indicados explícitamente y, en caso de empate, el primero.
+     *
+     * @param accept El valor de la cabecera Accept, o null.
+     * @return El formato negociado; JSON si la cabecera no nombra ningún otro formato.
+     */
+    public static FormatoRespuesta negociar(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return JSON;
+        }
+        List<MediaType> tipos;
+        try {
+            tipos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        FormatoRespuesta elegido = JSON;
+        double calidad = -1;
+        for (MediaType tipo : tipos) {
+            for (FormatoRespuesta formato : values()) {
+                if (formato.tipoContenido.equalsTypeAndSubtype(tipo) && tipo.getQualityValue() > calidad) {
+                    elegido = formato;
+                    calidad = tipo.getQualityValue();
+                }
+            }
+        }
+        return elegido;
+    }
+}
@@ -0,0 +1,270 @@
+package com.restaurante.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Índice invertido inmutable de documentos con varios campos de texto, con búsqueda por prefijo.
+ *
+ * <p>Las palabras se normalizan con {@link TextoNormalizado}. El vocabulario ordenado se recorre con un
+ * trie cuyos nodos guardan el rango de palabras que empiezan por su prefijo, así que expandir un prefijo
+ * cuesta lo que su longitud. Cada palabra tiene una lista ordenada de documentos por campo.</p>
+ *
+ * <p>Una búsqueda exige que todas sus palabras aparezcan, completas o como prefijo, en algún campo
+ * del documento. Cada palabra suma el peso del mejor campo en que aparece, reducido a la mitad si solo
+ * coincide como prefijo, y los documentos se ordenan por la suma y, a igualdad, por posición.</p>
+ */
+public final class IndiceTexto {
+
+    /** Fracción del peso del campo que suma una coincidencia solo por prefijo. */
+    private static final double FACTOR_PREFIJO = 0.5;
+
+    private final int documentos;
+    private final double[] pesos;
+    private final String[] terminos;
+    /** Documentos de cada término, por campo: {@code postings[campo][termino]}. */
+    private final int[][][] postings;
+    private final Nodo raiz;
+
+    /**
+     * Construye el índice.
+     *
+     * @param documentos Los textos de cada documento, uno por campo y en el orden de {@code pesos};
+     *                   la posición en la lista identifica al documento en los resultados.
+     * @param pesos      El peso de cada campo.
+     */
+    public IndiceTexto(List<String[]> documentos, double... pesos) {
+        this.documentos = documentos.size();
+        this.pesos = pesos.clone();
+
+        Map<String, List<Integer>[]> porTermino = new TreeMap<>();
+        for (int documento = 0; documento < documentos.size(); documento++) {
+            String[] campos = documentos.get(documento);
+            for (int campo = 0; campo < pesos.length; campo++) {
+                Set<String> distintas = new LinkedHashSet<>(TextoNormalizado.palabras(campos[campo]));
+                for (String palabra : distintas) {
+                    porTermino.computeIfAbsent(palabra, clave -> listasVacias(pesos.length))[campo].add(documento);
+                }
+            }
+        }
+
+        terminos = porTermino.keySet().toArray(new String[0]);
+        postings = new int[pesos.length][terminos.length][];
+        int termino = 0;
+        for (List<Integer>[] listas : porTermino.values()) {
+            for (int campo = 0; campo < pesos.length; campo++) {
+                postings[campo][termino] = listas[campo].stream().mapToInt(Integer::intValue).toArray();
+            }
+            termino++;
+        }
+        raiz = construirNodo(terminos, 0, 0, terminos.length);
+    }
+
+    /**
+     * @return El número de palabras distintas del índice.
+     */
+    public int terminos() {
+        return terminos.length;
+    }
+
+    /**
+     * Busca los documentos que contienen todas las palabras de la consulta.
+     *
+     * @param consulta El texto buscado.
+     * @param limite   El número máximo de documentos.
+     * @return Las posiciones de los documentos, de más a menos relevante.
+     */
+    public int[] buscar(String consulta, int limite) {
+        List<String> palabras = new ArrayList<>(new LinkedHashSet<>(TextoNormalizado.palabras(consulta)));
+        if (palabras.isEmpty() || documentos == 0) {
+            return new int[0];
+        }
+        Nodo[] nodos = new Nodo[palabras.size()];
+        for (int i = 0; i < nodos.length; i++) {
+            nodos[i] = buscarNodo(palabras.get(i));
+            if (nodos[i] == null) {
+                return new int[0];
+            }
+        }
+        double[] puntos = new double[documentos];
+        int[] coincidencias = new int[documentos];
+        double[] mejor = new double[documentos];
+        int[] tocados = new int[documentos];
+        int numeroTocados = 0;
+
+        for (int i = 0; i < palabras.size(); i++) {
+            String palabra = palabras.get(i);
+            Nodo nodo = nodos[i];
+            numeroTocados = 0;
+            for (int termino = nodo.desde; termino < nodo.hasta; termino++) {
+                double factor = terminos[termino].length() == palabra.length() ? 1 : FACTOR_PREFIJO;
+                for (int campo = 0; campo < pesos.length; campo++) {
+                    double peso = pesos[campo] * factor;
+                    for (int documento : postings[campo][termino]) {
+                        // Solo cuentan los documentos que coincidieron con todas las palabras anteriores
+                        if (coincidencias[documento] != i) {
+                            continue;
+                        }
+                        if (mejor[documento] == 0) {
+                            tocados[numeroTocados++] = documento;
+                        }
+                        mejor[documento] = Math.max(mejor[documento], peso);
+                    }
+                }
+            }
+            for (int j = 0; j < numeroTocados; j++) {
+                int documento = tocados[j];
+                coincidencias[documento]++;
+                puntos[documento] += mejor[documento];
+                mejor[documento] = 0;
+            }
+        }
+
+        // Los documentos alcanzados por la última palabra son los que coinciden con todas;
+        // se seleccionan los mejores con un montículo del tamaño del límite en lugar de ordenarlos todos
+        int[] monticulo = new int[Math.min(limite, numeroTocados)];
+        int tamano = 0;
+        for (int j = 0; j < numeroTocados; j++) {
+            int documento = tocados[j];
+            if (tamano < monticulo.length) {
+                monticulo[tamano] = documento;
+                subir(monticulo, tamano++, puntos);
+            } else if (tamano > 0 && antes(documento, monticulo[0], puntos)) {
+                monticulo[0] = documento;
+                bajar(monticulo, tamano, puntos);
+            }
+        }
+        // La raíz es siempre el peor de los seleccionados: se extrae hacia el final del resultado
+        int[] resultado = new int[tamano];
+        while (tamano > 0) {
+            resultado[tamano - 1] = monticulo[0];
+            monticulo[0] = monticulo[--tamano];
+            bajar(monticulo, tamano, puntos);
+        }
+        return resultado;
+    }
+
+    /**
+     * @return true si el documento {@code a} va antes que {@code b} en los resultados.
+     */
+    private static boolean antes(int a, int b, double[] puntos) {
+        return puntos[a] > puntos[b] || (puntos[a] == puntos[b] && a < b);
+    }
+
+    /**
+     * Restaura el montículo, que tiene en la raíz el documento que va más atrás, tras añadir uno al final.
+     */
+    private static void subir(int[] monticulo, int posicion, double[] puntos) {
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            if (!antes(monticulo[padre], monticulo[posicion], puntos)) {
+                return;
+            }
+            intercambiar(monticulo, padre, posicion);
+            posicion = padre;
+        }
+    }
+
+    /**
+     * Restaura el montículo tras sustituir la raíz.
+     */
+    private static void bajar(int[] monticulo, int tamano, double[] puntos) {
+        int posicion = 0;
+        while (true) {
+            int peor = posicion;
+            int izquierdo = 2 * posicion + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamano && antes(monticulo[peor], monticulo[izquierdo], puntos)) {
+                peor = izquierdo;
+            }
+            if (derecho < tamano && antes(monticulo[peor], monticulo[derecho], puntos)) {
+                peor = derecho;
+            }
+            if (peor == posicion) {
+                return;
+            }
+            intercambiar(monticulo, peor, posicion);
+            posicion = peor;
+        }
+    }
+
+    private static void intercambiar(int[] monticulo, int i, int j) {
+        int temporal = monticulo[i];
+        monticulo[i] = monticulo[j];
+        monticulo[j] = temporal;
+    }
+
+    /**
+     * Recorre el trie con un prefijo ya normalizado.
+     *
+     * @return El nodo del prefijo, o null si ninguna palabra empieza por él.
+     */
+    private Nodo buscarNodo(String prefijo) {
+        Nodo nodo = raiz;
+        for (int i = 0; i < prefijo.length() && nodo != null; i++) {
+            int posicion = Arrays.binarySearch(nodo.letras, prefijo.charAt(i));
+            nodo = posicion >= 0 ? nodo.hijos[posicion] : null;
+        }
+        return nodo != null && nodo.desde < nodo.hasta ? nodo : null;
+    }
+
+    /**
+     * Construye el nodo de las palabras {@code terminos[desde, hasta)}, que comparten los primeros
+     * {@code nivel} caracteres. Como el vocabulario está ordenado, cada hijo cubre un rango contiguo.
+     */
+    private static Nodo construirNodo(String[] terminos, int nivel, int desde, int hasta) {
+        int inicioHijos = desde;
+        while (inicioHijos < hasta && terminos[inicioHijos].length() == nivel) {
+            inicioHijos++;
+        }
+        List<Character> letras = new ArrayList<>();
+        List<Nodo> hijos = new ArrayList<>();
+        int inicio = inicioHijos;
+        while (inicio < hasta) {
+            char letra = terminos[inicio].charAt(nivel);
+            int fin = inicio + 1;
+            while (fin < hasta && terminos[fin].charAt(nivel) == letra) {
+                fin++;
+            }
+            letras.add(letra);
+            hijos.add(construirNodo(terminos, nivel + 1, inicio, fin));
+            inicio = fin;
+        }
+        char[] arrayLetras = new char[letras.size()];
+        for (int i = 0; i < arrayLetras.length; i++) {
+            arrayLetras[i] = letras.get(i);
+        }
+        return new Nodo(arrayLetras, hijos.toArray(new Nodo[0]), desde, hasta);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer>[] listasVacias(int campos) {
+        List<Integer>[] listas = new List[campos];
+        for (int i = 0; i < campos; i++) {
+            listas[i] = new ArrayList<>();
+        }
+        return listas;
+    }
+
+    /**
+     * Nodo del trie: sus hijos por letra (ordenadas) y el rango del vocabulario con su prefijo.
+     */
+    private static final class Nodo {
+        private final char[] letras;
+        private final Nodo[] hijos;
+        private final int desde;
+        private final int hasta;
+
+        private Nodo(char[] letras, Nodo[] hijos, int desde, int hasta) {
+            this.letras = letras;
+            this.hijos = hijos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.restaurante.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.restaurante.exception.IllegalOperationException;
+
+/**
+ * Lector en streaming de registros CSV (RFC 4180): campos separados por comas, entrecomillados
+ * si contienen comas, comillas o saltos de línea, y comillas escapadas duplicándolas. Acepta
+ * saltos de línea LF y CRLF. Solo guarda en memoria el registro que está leyendo.
+ */
+public final class LectorCsv {
+
+    private final Reader entrada;
+    private int siguiente = -2;
+
+    /**
+     * @param entrada El texto CSV; conviene que tenga buffer, porque se lee carácter a carácter.
+     */
+    public LectorCsv(Reader entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * Lee el siguiente registro. Las líneas vacías se saltan.
+     *
+     * @return Los campos del registro, o null al final del texto.
+     * @throws IOException               Si falla la lectura.
+     * @throws IllegalOperationException Si un campo entrecomillado no se cierra antes del final del texto.
+     */
+    public List<String> leer() throws IOException, IllegalOperationException {
+        int c = consumir();
+        while (c == '\r' || c == '\n') {
+            c = consumir();
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entrecomillado = false;
+        while (true) {
+            if (entrecomillado) {
+                if (c == -1) {
+                    throw new IllegalOperationException("El CSV tiene un campo entrecomillado sin cerrar");
+                }
+                if (c == '"') {
+                    if (mirar() == '"') {
+                        consumir();
+                        campo.append('"');
+                    } else {
+                        entrecomillado = false;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                if (mirar() == '\n') {
+                    consumir();
+                }
+                break;
+            } else if (c == '"' && campo.length() == 0) {
+                entrecomillado = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = consumir();
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private int consumir() throws IOException {
+        int c = siguiente != -2 ? siguiente : entrada.read();
+        siguiente = -2;
+        return c;
+    }
+
+    private int mirar() throws IOException {
+        if (siguiente == -2) {
+            siguiente = entrada.read();
+        }
+        return siguiente;
+    }
+}
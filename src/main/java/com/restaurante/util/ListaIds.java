@@ -0,0 +1,43 @@
+package com.restaurante.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.restaurante.exception.IllegalOperationException;
+
+/**
+ * Utilidades para el parámetro {@code ids}, que pide varios elementos por su ID en una sola petición.
+ */
+public final class ListaIds {
+
+    private ListaIds() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    /**
+     * Interpreta una lista de IDs separados por comas.
+     *
+     * @param ids Los IDs separados por comas.
+     * @return Los IDs en el orden recibido, con los repetidos.
+     * @throws IllegalOperationException Si la lista está vacía, tiene más de {@link Paginacion#LIMITE_MAXIMO}
+     *                                   IDs o alguno no es un número.
+     */
+    public static List<Long> parsear(String ids) throws IllegalOperationException {
+        if (ids == null || ids.isBlank()) {
+            throw new IllegalOperationException("El parámetro ids no indica ningún ID");
+        }
+        String[] partes = ids.split(",");
+        if (partes.length > Paginacion.LIMITE_MAXIMO) {
+            throw new IllegalOperationException("No se pueden pedir más de " + Paginacion.LIMITE_MAXIMO + " IDs a la vez");
+        }
+        List<Long> resultado = new ArrayList<>(partes.length);
+        for (String parte : partes) {
+            try {
+                resultado.add(Long.parseLong(parte.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalOperationException("El ID '" + parte.trim() + "' no es válido");
+            }
+        }
+        return resultado;
+    }
+}
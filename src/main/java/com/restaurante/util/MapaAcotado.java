@@ -0,0 +1,33 @@
+package com.restaurante.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapa con un número máximo de entradas que descarta la más antigua al superarlo.
+ * Con orden de acceso se comporta como una caché LRU; con orden de inserción descarta la primera insertada.
+ * No es seguro entre hilos: quien lo use debe sincronizar los accesos.
+ *
+ * @param <K> El tipo de las claves.
+ * @param <V> El tipo de los valores.
+ */
+public class MapaAcotado<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maximo;
+
+    /**
+     * @param maximo        El número máximo de entradas.
+     * @param ordenDeAcceso true para descartar la menos usada recientemente, false para la más antigua.
+     */
+    public MapaAcotado(int maximo, boolean ordenDeAcceso) {
+        super(16, 0.75f, ordenDeAcceso);
+        this.maximo = maximo;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maximo;
+    }
+}
@@ -0,0 +1,92 @@
+package com.restaurante.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Slice;
+
+import com.restaurante.exception.IllegalOperationException;
+
+/**
+ * Utilidades para la paginación por cursor (keyset) de los listados.
+ * El cursor es un token opaco que codifica el último ID devuelto, de modo que
+ * la siguiente página se obtiene con {@code WHERE id > ?} sin necesidad de {@code COUNT(*)}.
+ */
+public final class Paginacion {
+
+    /** Tamaño de página utilizado cuando el cliente no indica {@code limit}. */
+    public static final int LIMITE_POR_DEFECTO = 50;
+
+    /** Tamaño de página máximo permitido por el servidor. */
+    public static final int LIMITE_MAXIMO = 200;
+
+    private static final String PREFIJO_CURSOR = "id:";
+
+    private Paginacion() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    /**
+     * Ajusta el tamaño de página solicitado a los límites del servidor.
+     *
+     * @param limite El tamaño solicitado por el cliente (puede ser nulo).
+     * @return Un tamaño de página entre 1 y {@link #LIMITE_MAXIMO}.
+     */
+    public static int limitar(Integer limite) {
+        if (limite == null || limite <= 0) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Decodifica un cursor recibido en el parámetro {@code after}.
+     *
+     * @param cursor El token del cursor (puede ser nulo o vacío para la primera página).
+     * @return El último ID ya entregado al cliente, o 0 para empezar desde el principio.
+     * @throws IllegalOperationException Si el cursor no es válido.
+     */
+    public static long decodificarCursor(String cursor) throws IllegalOperationException {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO_CURSOR)) {
+                throw new IllegalOperationException("El cursor proporcionado no es válido");
+            }
+            return Long.parseLong(valor.substring(PREFIJO_CURSOR.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalOperationException("El cursor proporcionado no es válido");
+        }
+    }
+
+    /**
+     * Codifica un ID como cursor opaco.
+     *
+     * @param id El último ID de la página.
+     * @return El token del cursor.
+     */
+    public static String codificarCursor(Long id) {
+        String valor = PREFIJO_CURSOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Calcula el cursor de la página siguiente a partir de un Slice.
+     *
+     * @param pagina      La página obtenida.
+     * @param extractorId Función que obtiene el ID de cada elemento.
+     * @param <T>         El tipo de los elementos de la página.
+     * @return El cursor de la siguiente página, o null si no hay más elementos.
+     */
+    public static <T> String siguienteCursor(Slice<T> pagina, Function<T, Long> extractorId) {
+        if (!pagina.hasNext() || !pagina.hasContent()) {
+            return null;
+        }
+        List<T> contenido = pagina.getContent();
+        return codificarCursor(extractorId.apply(contenido.get(contenido.size() - 1)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.restaurante.util;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Utilidades para identificar la restricción de base de datos que rechazó una escritura.
+ */
+public final class Restricciones {
+
+    private Restricciones() {
+    }
+
+    /**
+     * Indica si la violación la produjo la restricción indicada. Cada motor adorna el nombre a su
+     * manera (H2 añade el esquema y el sufijo del índice, MariaDB lo pone entre comillas), así que
+     * basta con que lo contenga, sin distinguir mayúsculas.
+     *
+     * @param e           La violación de integridad.
+     * @param restriccion El nombre de la restricción, tal como se declara en la entidad.
+     * @return true si la causa es una violación de esa restricción; false en cualquier otro caso.
+     */
+    public static boolean esViolacionDe(DataIntegrityViolationException e, String restriccion) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion) {
+                String nombre = violacion.getConstraintName() != null
+                        ? violacion.getConstraintName()
+                        : violacion.getSQLException().getMessage();
+                return nombre != null
+                        && nombre.toLowerCase(Locale.ROOT).contains(restriccion.toLowerCase(Locale.ROOT));
+            }
+        }
+        return false;
+    }
+}
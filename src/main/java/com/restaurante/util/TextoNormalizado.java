@@ -0,0 +1,101 @@
+package com.restaurante.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Normalización de texto para búsquedas: minúsculas y sin tildes ni diéresis,
+ * de modo que "Jalapeño", "jalapeno" y "JALAPEÑO" se comparan igual.
+ */
+public final class TextoNormalizado {
+
+    private TextoNormalizado() {
+    }
+
+    /**
+     * Pasa el texto a minúsculas y elimina las marcas diacríticas.
+     *
+     * @param texto El texto a normalizar.
+     * @return El texto normalizado, o una cadena vacía si es nulo.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        if (esAsciiMinusculas(texto)) {
+            return texto;
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder resultado = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                resultado.append(Character.toLowerCase(c));
+            }
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Divide el texto normalizado en palabras formadas por letras y dígitos.
+     *
+     * @param texto El texto a dividir.
+     * @return Las palabras normalizadas, en orden y con repeticiones.
+     */
+    public static List<String> palabras(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> palabras = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                palabras.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Normaliza un texto y une sus palabras con un único espacio, sin signos de puntuación.
+     *
+     * @param texto El texto a normalizar.
+     * @return El texto normalizado, o una cadena vacía si es nulo o no tiene palabras.
+     */
+    public static String frase(String texto) {
+        return String.join(" ", palabras(texto));
+    }
+
+    /**
+     * Extrae los dígitos de un texto, por ejemplo de un número de teléfono con espacios o guiones.
+     *
+     * @param texto El texto del que se extraen los dígitos.
+     * @return Los dígitos en orden, o una cadena vacía si es nulo o no tiene ninguno.
+     */
+    public static String digitos(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        StringBuilder digitos = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
+    private static boolean esAsciiMinusculas(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
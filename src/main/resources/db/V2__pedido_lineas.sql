@@ -0,0 +1,34 @@
+-- Migración de producto_pedido a pedido_linea con total almacenado en pedido (MariaDB).
+-- Ejecutar una sola vez antes de desplegar la versión con PedidoLinea.
+-- El precio unitario histórico no se conocía, por lo que se toma el precio actual del producto
+-- y cada fila de producto_pedido se convierte en una línea de una unidad.
+
+CREATE TABLE IF NOT EXISTS pedido_linea (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    pedido_id BIGINT NOT NULL,
+    producto_id BIGINT NOT NULL,
+    cantidad INT NOT NULL,
+    precio_unitario DOUBLE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_pedido_linea_pedido FOREIGN KEY (pedido_id) REFERENCES pedido (id),
+    CONSTRAINT fk_pedido_linea_producto FOREIGN KEY (producto_id) REFERENCES producto (id)
+);
+
+ALTER TABLE pedido ADD COLUMN IF NOT EXISTS total DOUBLE NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS idx_pedido_fecha ON pedido (fecha);
+
+INSERT INTO pedido_linea (pedido_id, producto_id, cantidad, precio_unitario)
+SELECT pp.pedido_id, pp.producto_id, 1, pr.precio
+FROM producto_pedido pp
+JOIN producto pr ON pr.id = pp.producto_id;
+
+UPDATE pedido p
+JOIN (
+    SELECT pedido_id, SUM(ROUND(precio_unitario * 100) * cantidad) / 100 AS total
+    FROM pedido_linea
+    GROUP BY pedido_id
+) l ON l.pedido_id = p.id
+SET p.total = l.total;
+
+-- Eliminar la tabla antigua una vez verificada la migración:
+-- DROP TABLE producto_pedido;
@@ -0,0 +1,5 @@
+-- Clave de idempotencia de la creación de pedidos (MariaDB).
+-- Las filas existentes quedan con la clave a NULL, que el índice único admite repetida.
+
+ALTER TABLE pedido ADD COLUMN IF NOT EXISTS clave_idempotencia VARCHAR(100) NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_pedido_clave_idempotencia ON pedido (clave_idempotencia);
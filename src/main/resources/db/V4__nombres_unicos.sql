@@ -0,0 +1,7 @@
+-- Índices únicos sobre el nombre de clientes y productos (MariaDB).
+-- Antes de ejecutarlo hay que resolver los nombres repetidos; esta consulta los lista:
+--   SELECT nombre, COUNT(*) FROM cliente GROUP BY nombre HAVING COUNT(*) > 1;
+--   SELECT nombre, COUNT(*) FROM producto GROUP BY nombre HAVING COUNT(*) > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cliente_nombre ON cliente (nombre);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_producto_nombre ON producto (nombre);
@@ -0,0 +1,12 @@
+-- Estado del pedido como código de un carácter con índice (MariaDB).
+-- P = pendiente, E = en proceso, D = entregado. Los valores desconocidos quedan en NULL.
+
+UPDATE pedido SET estado = CASE LOWER(TRIM(estado))
+    WHEN 'pendiente' THEN 'P'
+    WHEN 'en proceso' THEN 'E'
+    WHEN 'entregado' THEN 'D'
+    ELSE NULL
+END;
+
+ALTER TABLE pedido MODIFY estado CHAR(1) NULL;
+CREATE INDEX IF NOT EXISTS idx_pedido_estado ON pedido (estado);
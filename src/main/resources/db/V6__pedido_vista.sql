@@ -0,0 +1,17 @@
+-- Vista de lectura desnormalizada de pedidos (MariaDB).
+-- La aplicación la llena al arrancar si está vacía y, si no, vuelve a proyectar las filas que faltan,
+-- sobran o no coinciden con pedido y cliente; también se puede regenerar con POST /api/pedidos/vista/reconstruir.
+
+CREATE TABLE IF NOT EXISTS pedido_vista (
+    id BIGINT NOT NULL,
+    fecha DATETIME(6) NULL,
+    estado CHAR(1) NULL,
+    cantidad INT NOT NULL,
+    total DOUBLE NOT NULL,
+    cliente_id BIGINT NULL,
+    cliente_nombre VARCHAR(255) NULL,
+    lineas JSON NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_pedido_vista_cliente ON pedido_vista (cliente_id);
@@ -0,0 +1,14 @@
+-- Columnas normalizadas e indexadas para la búsqueda de clientes (MariaDB).
+-- Quedan vacías al migrar: la aplicación las calcula al arrancar, porque la normalización
+-- (sin tildes ni signos) se hace en Java, y después las mantiene en cada escritura.
+
+ALTER TABLE cliente
+    ADD COLUMN IF NOT EXISTS nombre_busqueda VARCHAR(100) NULL,
+    ADD COLUMN IF NOT EXISTS correo_busqueda VARCHAR(100) NULL,
+    ADD COLUMN IF NOT EXISTS telefono_busqueda VARCHAR(20) NULL,
+    ADD COLUMN IF NOT EXISTS telefono_invertido VARCHAR(20) NULL;
+
+CREATE INDEX IF NOT EXISTS idx_cliente_nombre_busqueda ON cliente (nombre_busqueda);
+CREATE INDEX IF NOT EXISTS idx_cliente_correo_busqueda ON cliente (correo_busqueda);
+CREATE INDEX IF NOT EXISTS idx_cliente_telefono_busqueda ON cliente (telefono_busqueda);
+CREATE INDEX IF NOT EXISTS idx_cliente_telefono_invertido ON cliente (telefono_invertido);
@@ -0,0 +1,157 @@
+package com.restaurante.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.restaurante.RestauranteApplication;
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.Producto;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.PedidoRepository;
+import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.services.CatalogoProductos;
+
+/**
+ * Prueba de carga que compara el pool de hilos de plataforma de Tomcat con los hilos virtuales
+ * en {@code /api/pedidos} y {@code /api/productos}.
+ *
+ * <p>Arranca la aplicación completa con el perfil {@code test} (H2 en memoria) en un puerto aleatorio,
+ * con {@code spring.threads.virtual.enabled} según el parámetro {@code hilos}, y lanza las peticiones
+ * desde {@value #CLIENTES} hilos concurrentes, más que el máximo de 200 hilos de Tomcat.</p>
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark verify -Djmh.include=CargaHilosBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(CargaHilosBenchmark.CLIENTES)
+public class CargaHilosBenchmark {
+
+    static final int CLIENTES = 256;
+
+    private static final int PRODUCTOS = 200;
+    private static final int CLIENTES_BD = 100;
+    private static final int PEDIDOS = 2_000;
+
+    @Param({"plataforma", "virtuales"})
+    private String hilos;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient httpClient;
+    private HttpRequest pedidos;
+    private HttpRequest productos;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        contexto = new SpringApplicationBuilder(RestauranteApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + "virtuales".equals(hilos),
+                        "logging.level.root=warn",
+                        "logging.level.org.hibernate.SQL=warn")
+                .run();
+        cargarDatos();
+
+        int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        pedidos = peticion(puerto, "/api/pedidos?limit=50");
+        productos = peticion(puerto, "/api/productos?limit=50");
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int listarPedidos() throws IOException, InterruptedException {
+        return enviar(pedidos);
+    }
+
+    @Benchmark
+    public int listarProductos() throws IOException, InterruptedException {
+        return enviar(productos);
+    }
+
+    private int enviar(HttpRequest peticion) throws IOException, InterruptedException {
+        HttpResponse<byte[]> respuesta = httpClient.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("Respuesta inesperada: " + respuesta.statusCode());
+        }
+        return respuesta.body().length;
+    }
+
+    private static HttpRequest peticion(int puerto, String ruta) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .header("X-API-VERSION", "1.1.0")
+                .GET()
+                .build();
+    }
+
+    /**
+     * Guarda productos, clientes y pedidos en la base de datos en memoria y recarga el catálogo.
+     */
+    private void cargarDatos() {
+        List<Producto> listaProductos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setDescripcion("Descripción del producto " + i);
+            producto.setPrecio(5.0 + (i % 20));
+            listaProductos.add(producto);
+        }
+        listaProductos = contexto.getBean(ProductoRepository.class).saveAll(listaProductos);
+
+        List<Cliente> clientes = new ArrayList<>(CLIENTES_BD);
+        for (int i = 0; i < CLIENTES_BD; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente " + i);
+            cliente.setCorreoElectronico("cliente" + i + "@restaurante.com");
+            clientes.add(cliente);
+        }
+        clientes = contexto.getBean(ClienteRepository.class).saveAll(clientes);
+
+        LocalDateTime inicio = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Pedido> listaPedidos = new ArrayList<>(PEDIDOS);
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setFecha(inicio.plusMinutes(i));
+            pedido.setEstado(EstadoPedido.PENDIENTE);
+            pedido.setCliente(clientes.get(i % clientes.size()));
+            pedido.agregarLinea(listaProductos.get(i % listaProductos.size()), 1);
+            listaPedidos.add(pedido);
+        }
+        contexto.getBean(PedidoRepository.class).saveAll(listaPedidos);
+        contexto.getBean(CatalogoProductos.class).refrescar();
+    }
+}
@@ -0,0 +1,94 @@
+package com.restaurante.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.Perfil;
+import com.restaurante.domain.Producto;
+
+/**
+ * Construye grafos de entidades en memoria para los benchmarks.
+ * Los objetos no pasan por Hibernate, de modo que se mide solo el mapeo o la serialización.
+ */
+public final class DatosBenchmark {
+
+    private static final int PRODUCTOS_POR_PEDIDO = 3;
+
+    private DatosBenchmark() {
+        throw new IllegalStateException("Clase de utilidad");
+    }
+
+    /**
+     * Crea una lista de productos en la que cada par comparte variante.
+     *
+     * @param cantidad El número de productos.
+     * @return Los productos creados.
+     */
+    public static List<Producto> productos(int cantidad) {
+        List<Producto> productos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Producto producto = new Producto();
+            producto.setId((long) i + 1);
+            producto.setNombre("Producto " + i);
+            producto.setDescripcion("Descripción del producto " + i);
+            producto.setPrecio(5.0 + (i % 20));
+            if (i % 2 == 1) {
+                producto.setVariante(productos.get(i - 1));
+            }
+            productos.add(producto);
+        }
+        return productos;
+    }
+
+    /**
+     * Crea una lista de clientes con su perfil.
+     *
+     * @param cantidad El número de clientes.
+     * @return Los clientes creados.
+     */
+    public static List<Cliente> clientes(int cantidad) {
+        List<Cliente> clientes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setId((long) i + 1);
+            cliente.setNombre("Cliente " + i);
+            cliente.setCorreoElectronico("cliente" + i + "@restaurante.com");
+            cliente.setNumeroTelefonico(String.valueOf(600000000 + i));
+            Perfil perfil = new Perfil();
+            perfil.setId((long) i + 1);
+            perfil.setPreferencias("Sin gluten");
+            cliente.setPerfil(perfil);
+            clientes.add(cliente);
+        }
+        return clientes;
+    }
+
+    /**
+     * Crea una lista de pedidos, cada uno con un cliente y varias líneas de productos.
+     *
+     * @param cantidad El número de pedidos.
+     * @return Los pedidos creados.
+     */
+    public static List<Pedido> pedidos(int cantidad) {
+        List<Cliente> clientes = clientes(Math.max(1, cantidad / 10));
+        List<Producto> productos = productos(Math.max(PRODUCTOS_POR_PEDIDO, 50));
+        LocalDateTime inicio = LocalDateTime.of(2024, 3, 1, 12, 0);
+        List<Pedido> pedidos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setId((long) i + 1);
+            pedido.setFecha(inicio.plusMinutes(i));
+            pedido.setEstado(EstadoPedido.PENDIENTE);
+            pedido.setCliente(clientes.get(i % clientes.size()));
+            for (int j = 0; j < PRODUCTOS_POR_PEDIDO; j++) {
+                pedido.agregarLinea(productos.get((i + j) % productos.size()), 1 + j);
+            }
+            pedidos.add(pedido);
+        }
+        return pedidos;
+    }
+}
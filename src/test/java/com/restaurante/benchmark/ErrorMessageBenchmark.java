@@ -0,0 +1,35 @@
+package com.restaurante.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import com.restaurante.exception.ErrorMessage;
+
+/**
+ * Mide la construcción de los mensajes de error que devuelve el manejador global de excepciones.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark verify -Djmh.include=ErrorMessageBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorMessageBenchmark {
+
+    @Benchmark
+    public ErrorMessage construirErrorMessage() {
+        return new ErrorMessage(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor", "uri=/api/pedidos");
+    }
+}
@@ -0,0 +1,39 @@
+package com.restaurante.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.restaurante.domain.EstadoPedido;
+
+/**
+ * Mide la búsqueda de un estado de pedido por su nombre, que se ejecuta al validar cada pedido
+ * y cada cambio de estado.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark verify -Djmh.include=EstadoPedidoBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstadoPedidoBenchmark {
+
+    @Param({"pendiente", "En Proceso", "cancelado"})
+    private String estado;
+
+    @Benchmark
+    public EstadoPedido buscar() {
+        return EstadoPedido.buscar(estado);
+    }
+}
@@ -0,0 +1,99 @@
+package com.restaurante.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.mapper.PedidoMapper;
+import com.restaurante.mapper.ProtobufMapper;
+import com.restaurante.util.ApiResponse;
+import com.restaurante.util.FormatoRespuesta;
+
+/**
+ * Compara el coste de codificar un listado de pedidos en cada formato de respuesta, con y sin gzip,
+ * frente a los bytes que se envían. El tamaño de cada combinación se informa como la métrica secundaria
+ * {@code bytesEnviados} junto al tiempo medio.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark verify -Djmh.include=FormatosBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosBenchmark {
+
+    @Param({"10", "1000"})
+    private int tamano;
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private FormatoRespuesta formato;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ApiResponse<List<PedidoDTO>> respuesta;
+    private ObjectWriter writer;
+    private ProtobufMapper protobufMapper;
+
+    /**
+     * Bytes que se enviarían por cada respuesta codificada, informados por JMH como métrica secundaria.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamano {
+        public long bytesEnviados;
+    }
+
+    @Setup
+    public void preparar() {
+        List<PedidoDTO> pedidos = new PedidoMapper().toDTOs(DatosBenchmark.pedidos(tamano));
+        respuesta = new ApiResponse<>(true, "Lista de pedidos obtenida con éxito", pedidos);
+        // Misma configuración que los convertidores de FormatosRespuestaConfig.
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        switch (formato) {
+            case CBOR -> builder.factory(new CBORFactory());
+            case SMILE -> builder.factory(new SmileFactory());
+            default -> { }
+        }
+        writer = builder.build().writer();
+        protobufMapper = new ProtobufMapper();
+    }
+
+    @Benchmark
+    public byte[] codificarListadoPedidos(Tamano medida) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        OutputStream salida = gzip ? new GZIPOutputStream(buffer) : buffer;
+        if (formato == FormatoRespuesta.PROTOBUF) {
+            protobufMapper.escribir(respuesta, salida);
+        } else {
+            writer.writeValue(salida, respuesta);
+        }
+        salida.close();
+        byte[] codificado = buffer.toByteArray();
+        medida.bytesEnviados = codificado.length;
+        return codificado;
+    }
+}
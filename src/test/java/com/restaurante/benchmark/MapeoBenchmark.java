@@ -0,0 +1,108 @@
+package com.restaurante.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.ClienteDTO;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.dto.ProductoDTO;
+import com.restaurante.mapper.ClienteMapper;
+import com.restaurante.mapper.PedidoMapper;
+import com.restaurante.mapper.ProductoMapper;
+
+/**
+ * Compara el mapeo reflexivo de ModelMapper con los mapeadores escritos a mano
+ * para los listados de pedidos, productos y clientes.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark verify -Djmh.include=MapeoBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int tamano;
+
+    private List<Pedido> pedidos;
+    private List<Producto> productos;
+    private List<Cliente> clientes;
+
+    private ModelMapper modelMapper;
+    private PedidoMapper pedidoMapper;
+    private ProductoMapper productoMapper;
+    private ClienteMapper clienteMapper;
+
+    @Setup
+    public void preparar() {
+        pedidos = DatosBenchmark.pedidos(tamano);
+        productos = DatosBenchmark.productos(tamano);
+        clientes = DatosBenchmark.clientes(tamano);
+        modelMapper = new ModelMapper();
+        pedidoMapper = new PedidoMapper();
+        productoMapper = new ProductoMapper();
+        clienteMapper = new ClienteMapper();
+    }
+
+    @Benchmark
+    public List<PedidoDTO> pedidosModelMapper() {
+        List<PedidoDTO> dtos = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            dtos.add(modelMapper.map(pedido, PedidoDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<PedidoDTO> pedidosMapper() {
+        return pedidoMapper.toDTOs(pedidos);
+    }
+
+    @Benchmark
+    public List<ProductoDTO> productosModelMapper() {
+        List<ProductoDTO> dtos = new ArrayList<>(productos.size());
+        for (Producto producto : productos) {
+            dtos.add(modelMapper.map(producto, ProductoDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ProductoDTO> productosMapper() {
+        return productoMapper.toDTOs(productos);
+    }
+
+    @Benchmark
+    public List<ClienteDTO> clientesModelMapper() {
+        List<ClienteDTO> dtos = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes) {
+            dtos.add(modelMapper.map(cliente, ClienteDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ClienteDTO> clientesMapper() {
+        return clienteMapper.toDTOs(clientes);
+    }
+}
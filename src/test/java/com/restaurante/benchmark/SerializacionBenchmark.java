@@ -0,0 +1,56 @@
+package com.restaurante.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.restaurante.dto.PedidoDTO;
+import com.restaurante.mapper.PedidoMapper;
+import com.restaurante.util.ApiResponse;
+
+/**
+ * Mide la serialización Jackson de la respuesta de un listado de pedidos.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark verify -Djmh.include=SerializacionBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int tamano;
+
+    private ApiResponse<List<PedidoDTO>> respuesta;
+    private ObjectWriter writer;
+
+    @Setup
+    public void preparar() {
+        List<PedidoDTO> pedidos = new PedidoMapper().toDTOs(DatosBenchmark.pedidos(tamano));
+        respuesta = new ApiResponse<>(true, "Lista de pedidos obtenida con éxito", pedidos);
+        // Misma configuración que el ObjectMapper de Spring Boot (módulos JSR-310, fechas ISO).
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+    }
+
+    @Benchmark
+    public byte[] serializarListadoPedidos() throws JsonProcessingException {
+        return writer.writeValueAsBytes(respuesta);
+    }
+}
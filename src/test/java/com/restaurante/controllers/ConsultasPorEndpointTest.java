@@ -0,0 +1,251 @@
+package com.restaurante.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.Perfil;
+import com.restaurante.domain.Producto;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.PedidoRepository;
+import com.restaurante.repositories.PerfilRepository;
+import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.services.CacheService;
+import com.restaurante.services.CatalogoProductos;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Comprueba el número exacto de sentencias SQL que ejecuta cada endpoint de lectura,
+ * para que una consulta N+1 introducida por un cambio en el mapeo haga fallar la build.
+ * Las cachés de segundo nivel se vacían antes de cada petición para contar el peor caso, y la caché
+ * de respuestas se desactiva para que cada petición llegue al controlador.
+ */
+@SpringBootTest(properties = "restaurante.respuestas.cache.habilitada=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConsultasPorEndpointTest {
+
+    private static final int CLIENTES = 5;
+    private static final int PRODUCTOS = 6;
+    private static final int PEDIDOS_POR_CLIENTE = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PerfilRepository perfilRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private CatalogoProductos catalogoProductos;
+
+    @Autowired
+    private CacheService cacheService;
+
+    private Long pedidoId;
+
+    private Long clienteId;
+
+    @BeforeAll
+    void cargarDatos() {
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setDescripcion("Descripción " + i);
+            producto.setPrecio(10 + i);
+            if (i % 2 == 1) {
+                producto.setVariante(productos.get(i - 1));
+            }
+            productos.add(productoRepository.save(producto));
+        }
+
+        for (int i = 0; i < CLIENTES; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente " + i);
+            cliente.setCorreoElectronico("cliente" + i + "@restaurante.com");
+            cliente.setNumeroTelefonico("30000000" + i);
+            cliente = clienteRepository.save(cliente);
+            clienteId = cliente.getId();
+
+            Perfil perfil = new Perfil();
+            perfil.setPreferencias("Preferencias " + i);
+            perfil.setCliente(cliente);
+            perfilRepository.save(perfil);
+
+            for (int j = 0; j < PEDIDOS_POR_CLIENTE; j++) {
+                Pedido pedido = new Pedido();
+                pedido.setFecha(LocalDateTime.of(2024, 3, 1, 12, 0).plusHours(i * PEDIDOS_POR_CLIENTE + j));
+                pedido.setEstado(EstadoPedido.PENDIENTE);
+                pedido.setCliente(cliente);
+                pedido.agregarLinea(productos.get(j % PRODUCTOS), 1);
+                pedido.agregarLinea(productos.get((j + 3) % PRODUCTOS), 2);
+                pedidoId = pedidoRepository.save(pedido).getId();
+            }
+        }
+        catalogoProductos.refrescar();
+    }
+
+    @Test
+    void listarPedidos() throws Exception {
+        // Pedidos con cliente y perfil, más una consulta por lotes para las líneas de toda la página.
+        assertEquals(2, contarSentencias("/api/pedidos?limit=50"));
+    }
+
+    @Test
+    void listarPedidosConLineas() throws Exception {
+        // El mapeador no inicializa colecciones perezosas: el servicio entrega las líneas ya cargadas.
+        mockMvc.perform(get("/api/pedidos?limit=50").header("X-API-VERSION", "1.1.0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].lineas.length()").value(2));
+    }
+
+    @Test
+    void buscarPedido() throws Exception {
+        assertEquals(1, contarSentencias("/api/pedidos/" + pedidoId));
+    }
+
+    @Test
+    void buscarVariosPedidosPorIds() throws Exception {
+        // Los pedidos solicitados en una consulta IN, más la consulta por lotes de sus líneas, como en el listado.
+        assertEquals(2, contarSentencias("/api/pedidos?ids=" + pedidoId + "," + (pedidoId - 1) + ",0"));
+    }
+
+    @Test
+    void resumirIngresos() throws Exception {
+        assertEquals(1, contarSentencias("/api/pedidos/ingresos?desde=2024-03-01T00:00:00&hasta=2024-04-01T00:00:00"));
+    }
+
+    @Test
+    void listarClientes() throws Exception {
+        assertEquals(1, contarSentencias("/api/clientes?limit=50"));
+    }
+
+    @Test
+    void listarPerfiles() throws Exception {
+        assertEquals(1, contarSentencias("/api/perfiles?limit=50"));
+    }
+
+    @Test
+    void listarProductosDesdeElCatalogo() throws Exception {
+        assertEquals(0, contarSentencias("/api/productos?limit=50"));
+    }
+
+    @Test
+    void listarPedidosConCamposSinCargarEntidades() throws Exception {
+        assertEquals(1, contarSentencias("/api/pedidos?limit=50&fields=id,estado,fecha"));
+        assertEquals(0, entidadesCargadas());
+    }
+
+    @Test
+    void buscarClienteConCamposSinCargarEntidades() throws Exception {
+        assertEquals(1, contarSentencias("/api/clientes/" + clienteId + "?fields=nombre"));
+        assertEquals(0, entidadesCargadas());
+    }
+
+    @Test
+    void listarClientesSinCambiosResponde304() throws Exception {
+        assertEquals(0, contarSentenciasCondicionales("/api/clientes?limit=50"));
+    }
+
+    @Test
+    void listarProductosSinCambiosResponde304() throws Exception {
+        assertEquals(0, contarSentenciasCondicionales("/api/productos?limit=50"));
+    }
+
+    @Test
+    void lasEstadisticasDeCacheCuentanLosAciertosSinEstadisticasDeHibernate() throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        long aciertos = aciertosRegion("cliente");
+
+        mockMvc.perform(get("/api/clientes/" + clienteId).header("X-API-VERSION", "1.1.0")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/clientes/" + clienteId).header("X-API-VERSION", "1.1.0")).andExpect(status().isOk());
+
+        assertTrue(aciertosRegion("cliente") > aciertos);
+    }
+
+    /**
+     * Devuelve los aciertos acumulados de una región según el servicio de estadísticas de caché.
+     */
+    private long aciertosRegion(String region) {
+        return cacheService.estadisticasRegiones().stream()
+                .filter(metricas -> metricas.getRegion().equals(region))
+                .findFirst()
+                .orElseThrow()
+                .getAciertos();
+    }
+
+    /**
+     * Ejecuta una petición GET con las cachés vacías y devuelve las sentencias preparadas durante ella.
+     */
+    private long contarSentencias(String url) throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics estadisticas = sessionFactory.getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(get(url).header("X-API-VERSION", "1.1.0")).andExpect(status().isOk());
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Devuelve las entidades cargadas desde la última petición contada.
+     */
+    private long entidadesCargadas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getEntityLoadCount();
+    }
+
+    /**
+     * Repite una petición GET con el ETag de la primera respuesta y devuelve las sentencias
+     * preparadas durante la respuesta 304.
+     */
+    private long contarSentenciasCondicionales(String url) throws Exception {
+        String etag = mockMvc.perform(get(url).header("X-API-VERSION", "1.1.0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics estadisticas = sessionFactory.getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(get(url).header("X-API-VERSION", "1.1.0").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        return estadisticas.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,93 @@
+package com.restaurante.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.events.PedidoEvento;
+import com.restaurante.services.FlujoPedidoServiceImp;
+
+/**
+ * Comprueba que, al reconectar con la cabecera Last-Event-ID, el flujo de pedidos reenvía solo los
+ * cambios posteriores y avisa con un evento {@code reinicio} cuando no puede recuperarlos.
+ */
+@SpringBootTest(properties = "restaurante.respuestas.cache.habilitada=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FlujoPedidosTest {
+
+    /** Tiempo máximo de espera de los eventos enviados por el hilo del suscriptor. */
+    private static final long ESPERA_MS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FlujoPedidoServiceImp flujoPedidoService;
+
+    @Test
+    void reenviaLosCambiosPosterioresAlUltimoRecibido() throws Exception {
+        long primero = publicar(-101L);
+        long segundo = publicar(-102L);
+        long tercero = publicar(-103L);
+
+        String eventos = recibir(String.valueOf(primero), "\"pedidoId\":-103");
+
+        assertFalse(eventos.contains("id:" + primero + "\n"));
+        assertTrue(eventos.contains("id:" + segundo + "\n"));
+        assertTrue(eventos.contains("id:" + tercero + "\n"));
+        assertTrue(eventos.indexOf("\"pedidoId\":-102") < eventos.indexOf("\"pedidoId\":-103"));
+        assertFalse(eventos.contains("event:reinicio"));
+    }
+
+    @Test
+    void avisaDeUnReinicioSiElIdNoSePuedeRecuperar() throws Exception {
+        publicar(-201L);
+
+        assertTrue(recibir("no-es-un-numero", "event:reinicio").contains("event:reinicio"));
+        // Un ID de una ejecución anterior es menor que cualquiera de esta y sus cambios ya no están.
+        assertTrue(recibir("1", "event:reinicio").contains("event:reinicio"));
+    }
+
+    /**
+     * Registra un cambio de pedido como si lo hubiera confirmado el servicio de pedidos.
+     * @return La secuencia asignada al cambio.
+     */
+    private long publicar(long pedidoId) {
+        PedidoEvento.Datos datos = new PedidoEvento.Datos(LocalDateTime.of(2024, 5, 1, 13, 0), EstadoPedido.PENDIENTE,
+                1, null, 10, List.of());
+        flujoPedidoService.alModificarPedido(new PedidoEvento(pedidoId, null, datos));
+        return (long) ReflectionTestUtils.getField(flujoPedidoService, "ultimaSecuencia");
+    }
+
+    /**
+     * Se suscribe con la cabecera Last-Event-ID y espera a que la respuesta contenga el texto indicado.
+     * @return Lo recibido hasta ese momento.
+     */
+    private String recibir(String ultimoEventoId, String esperado) throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/stream").header("Last-Event-ID", ultimoEventoId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        String contenido = resultado.getResponse().getContentAsString();
+        while (!contenido.contains(esperado) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            contenido = resultado.getResponse().getContentAsString();
+        }
+        return contenido;
+    }
+}
@@ -0,0 +1,236 @@
+package com.restaurante.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import com.restaurante.config.FiltroLongitudRespuestas;
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Producto;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.ProductoRepository;
+import com.restaurante.services.CatalogoProductos;
+import com.restaurante.util.FormatoRespuesta;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Comprueba la negociación del formato protobuf: las respuestas sin mensaje en el esquema se
+ * rechazan con un 406 y el resto se codifican. También comprueba que las respuestas por debajo del
+ * umbral de compresión salen con Content-Length, para que el servidor no las comprima.
+ *
+ * <p>Las respuestas protobuf se decodifican con el esquema de {@code src/main/proto/restaurante.proto},
+ * para que un número o tipo de campo de {@code ProtobufMapper} que no coincida con él haga fallar la build.</p>
+ */
+@SpringBootTest(properties = "restaurante.respuestas.cache.habilitada=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FormatosRespuestaTest {
+
+    /** Tipos escalares usados en el esquema. */
+    private static final Map<String, FieldDescriptorProto.Type> TIPOS_ESCALARES = Map.of(
+            "bool", FieldDescriptorProto.Type.TYPE_BOOL,
+            "string", FieldDescriptorProto.Type.TYPE_STRING,
+            "int32", FieldDescriptorProto.Type.TYPE_INT32,
+            "int64", FieldDescriptorProto.Type.TYPE_INT64,
+            "double", FieldDescriptorProto.Type.TYPE_DOUBLE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FiltroLongitudRespuestas filtroLongitudRespuestas;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CatalogoProductos catalogoProductos;
+
+    @Test
+    void rechazaConUn406LosDatosSinMensajeProtobuf() throws Exception {
+        mockMvc.perform(get("/api/pedidos/ingresos?desde=2024-03-01T00:00:00&hasta=2024-04-01T00:00:00")
+                        .header("X-API-VERSION", "1.1.0")
+                        .accept(FormatoRespuesta.PROTOBUF.getTipoContenido()))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void laRespuestaProtobufCumpleElEsquema() throws Exception {
+        Producto base = productoGuardado("Base de FormatosRespuestaTest", null);
+        Producto variante = productoGuardado("Variante de FormatosRespuestaTest", base);
+        catalogoProductos.refrescar();
+        long inexistente = Long.MAX_VALUE;
+
+        byte[] cuerpo = mockMvc.perform(get("/api/productos?ids=" + variante.getId() + "," + inexistente)
+                        .header("X-API-VERSION", "1.1.0")
+                        .accept(FormatoRespuesta.PROTOBUF.getTipoContenido()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Descriptor respuesta = esquema().findMessageTypeByName("Respuesta");
+        DynamicMessage mensaje = DynamicMessage.parseFrom(respuesta, cuerpo);
+        assertSinCamposDesconocidos(mensaje);
+        assertEquals(true, mensaje.getField(respuesta.findFieldByName("success")));
+        assertEquals(List.of(inexistente), mensaje.getField(respuesta.findFieldByName("no_encontrados")));
+
+        FieldDescriptor productos = respuesta.findFieldByName("productos");
+        assertEquals(1, mensaje.getRepeatedFieldCount(productos));
+        DynamicMessage producto = (DynamicMessage) mensaje.getRepeatedField(productos, 0);
+        Descriptor tipoProducto = producto.getDescriptorForType();
+        assertEquals(variante.getId(), producto.getField(tipoProducto.findFieldByName("id")));
+        assertEquals(variante.getNombre(), producto.getField(tipoProducto.findFieldByName("nombre")));
+        assertEquals(variante.getPrecio(), (double) producto.getField(tipoProducto.findFieldByName("precio")));
+
+        DynamicMessage anidada = (DynamicMessage) producto.getField(tipoProducto.findFieldByName("variante"));
+        assertEquals(base.getId(), anidada.getField(tipoProducto.findFieldByName("id")));
+        assertEquals(base.getNombre(), anidada.getField(tipoProducto.findFieldByName("nombre")));
+    }
+
+    @Test
+    void lasRespuestasPequenasSalenConSuLongitud() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/cache/respuestas").header("X-API-VERSION", "1.1.0"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(resultado.getResponse().getContentAsByteArray().length, resultado.getResponse().getContentLength());
+    }
+
+    @Test
+    void lasRespuestasGrandesSiguenEnFlujo() throws Exception {
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        byte[] cuerpo = new byte[3000];
+        MockFilterChain cadena = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getOutputStream().write(cuerpo);
+            }
+        });
+
+        filtroLongitudRespuestas.doFilter(new MockHttpServletRequest("GET", "/api/pedidos"), respuesta, cadena);
+
+        assertEquals(cuerpo.length, respuesta.getContentAsByteArray().length);
+        assertNull(respuesta.getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void codificaEnProtobufLosClientesSegunElEsquema() throws Exception {
+        if (clienteRepository.findByNombre("Cliente de FormatosRespuestaTest").isEmpty()) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente de FormatosRespuestaTest");
+            clienteRepository.save(cliente);
+        }
+
+        byte[] cuerpo = mockMvc.perform(get("/api/clientes?limit=5")
+                        .header("X-API-VERSION", "1.1.0")
+                        .accept(FormatoRespuesta.PROTOBUF.getTipoContenido()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(FormatoRespuesta.PROTOBUF.getTipoContenido()))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Descriptor respuesta = esquema().findMessageTypeByName("Respuesta");
+        DynamicMessage mensaje = DynamicMessage.parseFrom(respuesta, cuerpo);
+        assertSinCamposDesconocidos(mensaje);
+        assertTrue(mensaje.getRepeatedFieldCount(respuesta.findFieldByName("clientes")) > 0);
+    }
+
+    private Producto productoGuardado(String nombre, Producto variante) {
+        return productoRepository.findByNombre(nombre).orElseGet(() -> {
+            Producto producto = new Producto();
+            producto.setNombre(nombre);
+            producto.setPrecio(7.5);
+            producto.setVariante(variante);
+            return productoRepository.save(producto);
+        });
+    }
+
+    /**
+     * Construye los descriptores de los mensajes declarados en el fichero .proto de la API.
+     * El esquema solo usa mensajes de primer nivel con campos simples, repetidos o de otro mensaje.
+     */
+    private static FileDescriptor esquema() throws Exception {
+        String texto = Files.readString(Path.of("src/main/proto/restaurante.proto")).replaceAll("//[^\\n]*", "");
+        FileDescriptorProto.Builder fichero = FileDescriptorProto.newBuilder()
+                .setName("restaurante.proto")
+                .setPackage("restaurante")
+                .setSyntax("proto3");
+        Matcher mensajes = Pattern.compile("message\\s+(\\w+)\\s*\\{([^}]*)\\}").matcher(texto);
+        while (mensajes.find()) {
+            DescriptorProto.Builder mensaje = DescriptorProto.newBuilder().setName(mensajes.group(1));
+            Matcher campos = Pattern.compile("(repeated\\s+)?(\\w+)\\s+(\\w+)\\s*=\\s*(\\d+)\\s*;").matcher(mensajes.group(2));
+            while (campos.find()) {
+                FieldDescriptorProto.Builder campo = FieldDescriptorProto.newBuilder()
+                        .setName(campos.group(3))
+                        .setNumber(Integer.parseInt(campos.group(4)))
+                        .setLabel(campos.group(1) != null ? FieldDescriptorProto.Label.LABEL_REPEATED
+                                : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+                FieldDescriptorProto.Type tipo = TIPOS_ESCALARES.get(campos.group(2));
+                if (tipo != null) {
+                    campo.setType(tipo);
+                } else {
+                    campo.setType(FieldDescriptorProto.Type.TYPE_MESSAGE).setTypeName(".restaurante." + campos.group(2));
+                }
+                mensaje.addField(campo);
+            }
+            fichero.addMessageType(mensaje);
+        }
+        return FileDescriptor.buildFrom(fichero.build(), new FileDescriptor[0]);
+    }
+
+    /**
+     * Comprueba que no quedan campos sin reconocer: un número o un tipo de cable distinto del esquema
+     * acaba en los campos desconocidos del mensaje.
+     */
+    private static void assertSinCamposDesconocidos(Message mensaje) {
+        assertTrue(mensaje.getUnknownFields().asMap().isEmpty(),
+                () -> "Campos fuera del esquema en " + mensaje.getDescriptorForType().getName() + ": " + mensaje.getUnknownFields());
+        for (Map.Entry<FieldDescriptor, Object> campo : mensaje.getAllFields().entrySet()) {
+            if (campo.getKey().getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+                continue;
+            }
+            if (campo.getKey().isRepeated()) {
+                for (Object elemento : (List<?>) campo.getValue()) {
+                    assertSinCamposDesconocidos((Message) elemento);
+                }
+            } else {
+                assertSinCamposDesconocidos((Message) campo.getValue());
+            }
+        }
+    }
+}
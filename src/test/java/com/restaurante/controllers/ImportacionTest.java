@@ -0,0 +1,107 @@
+package com.restaurante.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.ProductoRepository;
+
+/**
+ * Comprueba las respuestas de la importación masiva: 201 si se guardan todas las filas, 207 si se
+ * saltan las no válidas, y 400 sin guardar nada si se detiene en una fila o falta una columna.
+ */
+@SpringBootTest(properties = "restaurante.respuestas.cache.habilitada=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportacionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void guardaTodasLasFilasValidas() throws Exception {
+        importarProductos("", "nombre,precio,descripcion\nImportado A,3.5,Primero\nImportado B,4,\n")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.guardadas").value(2))
+                .andExpect(jsonPath("$.data.rechazadas").value(0));
+
+        assertTrue(productoRepository.findByNombre("Importado A").isPresent());
+        assertTrue(productoRepository.findByNombre("Importado B").isPresent());
+    }
+
+    @Test
+    void seDetieneEnLaPrimeraFilaNoValidaSinGuardarNada() throws Exception {
+        importarProductos("", "nombre,precio\nDetenido A,3\nDetenido B,gratis\nDetenido C,5\n")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data.detenida").value(true))
+                .andExpect(jsonPath("$.data.guardadas").value(0))
+                .andExpect(jsonPath("$.data.leidas").value(2))
+                .andExpect(jsonPath("$.data.errores[0].indice").value(1));
+
+        assertFalse(productoRepository.findByNombre("Detenido A").isPresent());
+        assertFalse(productoRepository.findByNombre("Detenido C").isPresent());
+    }
+
+    @Test
+    void continuaTrasLasFilasNoValidasConUn207() throws Exception {
+        importarProductos("?continuar=true", "nombre,precio\nContinuado A,3\nContinuado B,-1\nContinuado C,5\n")
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data.detenida").value(false))
+                .andExpect(jsonPath("$.data.guardadas").value(2))
+                .andExpect(jsonPath("$.data.rechazadas").value(1))
+                .andExpect(jsonPath("$.data.errores[0].indice").value(1));
+
+        assertTrue(productoRepository.findByNombre("Continuado A").isPresent());
+        assertFalse(productoRepository.findByNombre("Continuado B").isPresent());
+        assertTrue(productoRepository.findByNombre("Continuado C").isPresent());
+    }
+
+    @Test
+    void rechazaUnaCabeceraSinColumnaObligatoria() throws Exception {
+        importarProductos("?continuar=true", "nombre,descripcion\nSin precio,Nada\n")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data").doesNotExist());
+
+        assertFalse(productoRepository.findByNombre("Sin precio").isPresent());
+    }
+
+    @Test
+    void continuaTrasUnNombreRepetidoEnElFicheroNdjson() throws Exception {
+        String ndjson = "{\"nombre\":\"Cliente importado\"}\n{\"nombre\":\"cliente IMPORTADO\"}\n";
+        mockMvc.perform(post("/api/clientes/importar?continuar=true")
+                        .header("X-API-VERSION", "1.1.0")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.data.guardadas").value(1))
+                .andExpect(jsonPath("$.data.errores[0].indice").value(1));
+
+        assertEquals(1, clienteRepository.findByNombre("Cliente importado").size());
+    }
+
+    private ResultActions importarProductos(String parametros, String csv) throws Exception {
+        return mockMvc.perform(post("/api/productos/importar" + parametros)
+                .header("X-API-VERSION", "1.1.0")
+                .contentType("text/csv")
+                .content(csv));
+    }
+}
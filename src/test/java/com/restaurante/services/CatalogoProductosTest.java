@@ -0,0 +1,75 @@
+package com.restaurante.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.restaurante.domain.Producto;
+import com.restaurante.repositories.ProductoRepository;
+
+/**
+ * Comprueba que la instantánea del catálogo no comparte objetos modificables entre lecturas
+ * y que, sin instantánea, las lecturas recurren al repositorio.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogoProductosTest {
+
+    @Autowired
+    private CatalogoProductos catalogoProductos;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void modificarUnProductoLeidoNoCambiaLaInstantanea() {
+        Producto base = guardar("Catálogo base", 5, null);
+        Producto conVariante = guardar("Catálogo con variante", 7, base);
+        catalogoProductos.refrescar();
+
+        Producto leido = catalogoProductos.buscar(conVariante.getId());
+        leido.setNombre("Modificado");
+        leido.getVariante().setPrecio(99);
+        for (Producto producto : catalogoProductos.listar()) {
+            producto.setPrecio(-1);
+        }
+
+        Producto releido = catalogoProductos.buscar(conVariante.getId());
+        assertNotSame(leido, releido);
+        assertEquals("Catálogo con variante", releido.getNombre());
+        assertEquals(7, releido.getPrecio());
+        assertEquals(base.getId(), releido.getVariante().getId());
+        assertEquals(5, releido.getVariante().getPrecio());
+    }
+
+    @Test
+    void buscarSinInstantaneaConsultaElRepositorio() throws Exception {
+        guardar("Catálogo 100% natural", 3, null);
+        ReflectionTestUtils.setField(catalogoProductos, "instantanea", null);
+        try {
+            List<Producto> encontrados = productoService.buscar("100% NAT", 10);
+            assertEquals(List.of("Catálogo 100% natural"), encontrados.stream().map(Producto::getNombre).toList());
+        } finally {
+            catalogoProductos.cargarSiFalta();
+        }
+        assertEquals(1, productoService.buscar("natural", 10).size());
+    }
+
+    private Producto guardar(String nombre, double precio, Producto variante) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setPrecio(precio);
+        producto.setVariante(variante);
+        return productoRepository.save(producto);
+    }
+}
@@ -0,0 +1,86 @@
+package com.restaurante.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.restaurante.dto.PedidoSolicitudDTO;
+import com.restaurante.dto.ResultadoLoteDTO;
+import com.restaurante.dto.TicketPedidoDTO;
+import com.restaurante.exception.QueueFullException;
+
+/**
+ * Comprueba que un lote fallido se reintenta pedido a pedido y que, al detener la ingesta,
+ * se resuelven todos los tickets emitidos y se rechazan los pedidos nuevos.
+ */
+class IngestaPedidoServiceImpTest {
+
+    /** Cliente cuyo pedido hace fallar cualquier lote que lo contenga. */
+    private static final long CLIENTE_ERRONEO = 99L;
+
+    private IngestaPedidoServiceImp ingesta;
+
+    @BeforeEach
+    void crearIngesta() throws Exception {
+        PedidoService pedidoService = mock(PedidoService.class);
+        when(pedidoService.crearPedidosEnLote(anyList())).thenAnswer(invocacion -> {
+            List<PedidoSolicitudDTO> lote = invocacion.getArgument(0);
+            for (PedidoSolicitudDTO pedido : lote) {
+                if (pedido.getClienteId() == CLIENTE_ERRONEO) {
+                    throw new IllegalStateException("Error de base de datos");
+                }
+            }
+            return lote.stream().map(pedido -> ResultadoLoteDTO.correcto(0, pedido.getClienteId() * 10)).toList();
+        });
+
+        ingesta = new IngestaPedidoServiceImp();
+        ReflectionTestUtils.setField(ingesta, "pedidoService", pedidoService);
+        ReflectionTestUtils.setField(ingesta, "habilitada", true);
+        ReflectionTestUtils.setField(ingesta, "capacidad", 10);
+        ReflectionTestUtils.setField(ingesta, "tamanoLote", 10);
+        ReflectionTestUtils.setField(ingesta, "esperaLoteMs", 5L);
+        ReflectionTestUtils.setField(ingesta, "ticketsMaximos", 10);
+        ReflectionTestUtils.setField(ingesta, "reintentarEnSegundos", 1L);
+        ingesta.inicializar();
+    }
+
+    @Test
+    void unPedidoErroneoNoRechazaAlRestoDelLote() throws Exception {
+        String primero = ingesta.encolar(pedido(1L)).getTicket();
+        String erroneo = ingesta.encolar(pedido(CLIENTE_ERRONEO)).getTicket();
+        String tercero = ingesta.encolar(pedido(3L)).getTicket();
+
+        // El escritor toma los tres pedidos en un lote y, al detenerse, vacía el búfer antes de terminar.
+        ingesta.arrancar();
+        ingesta.detener();
+
+        assertEquals(TicketPedidoDTO.CREADO, ingesta.consultar(primero).getEstado());
+        assertEquals(10L, ingesta.consultar(primero).getPedidoId());
+        assertEquals(TicketPedidoDTO.RECHAZADO, ingesta.consultar(erroneo).getEstado());
+        assertEquals(TicketPedidoDTO.CREADO, ingesta.consultar(tercero).getEstado());
+        assertEquals(30L, ingesta.consultar(tercero).getPedidoId());
+    }
+
+    @Test
+    void rechazaPedidosDespuesDeDetener() throws Exception {
+        ingesta.arrancar();
+        ingesta.detener();
+
+        assertThrows(QueueFullException.class, () -> ingesta.encolar(pedido(1L)));
+    }
+
+    private static PedidoSolicitudDTO pedido(long clienteId) {
+        PedidoSolicitudDTO pedido = new PedidoSolicitudDTO();
+        pedido.setClienteId(clienteId);
+        pedido.setProductosIds(List.of(1L));
+        return pedido;
+    }
+}
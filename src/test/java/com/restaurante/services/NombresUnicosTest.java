@@ -0,0 +1,83 @@
+package com.restaurante.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.Producto;
+import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.ProductoRepository;
+
+/**
+ * Comprueba la unicidad de los nombres: el filtro de nombres solo evita consultas, el índice único
+ * rechaza los nombres que el filtro no conoce y las demás violaciones de integridad no se
+ * confunden con un nombre repetido.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NombresUnicosTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void rechazaUnNombreDeClienteRegistrado() throws Exception {
+        clienteService.grabar(cliente("Cliente repetido de NombresUnicosTest"));
+
+        IllegalOperationException e = assertThrows(IllegalOperationException.class,
+                () -> clienteService.grabar(cliente("Cliente repetido de NombresUnicosTest")));
+        assertEquals("El nombre del cliente ya existe", e.getMessage());
+        assertEquals(1, clienteRepository.findByNombre("Cliente repetido de NombresUnicosTest").size());
+    }
+
+    @Test
+    void elIndiceUnicoRechazaLosNombresQueElFiltroNoConoce() {
+        // Guardado sin pasar por el servicio, como desde otra instancia: el filtro no tiene el nombre.
+        productoRepository.save(producto("Producto ajeno de NombresUnicosTest", null));
+
+        IllegalOperationException e = assertThrows(IllegalOperationException.class,
+                () -> productoService.grabar(producto("Producto ajeno de NombresUnicosTest", null)));
+        assertEquals("El nombre del producto ya existe", e.getMessage());
+    }
+
+    @Test
+    void unaVarianteInexistenteNoSeNotificaComoNombreRepetido() {
+        Producto inexistente = new Producto();
+        inexistente.setId(Long.MAX_VALUE);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> productoService.crearVariante(producto("Variante huérfana de NombresUnicosTest", inexistente)));
+        assertFalse(productoRepository.findByNombre("Variante huérfana de NombresUnicosTest").isPresent());
+    }
+
+    private static Cliente cliente(String nombre) {
+        Cliente cliente = new Cliente();
+        cliente.setNombre(nombre);
+        return cliente;
+    }
+
+    private static Producto producto(String nombre, Producto variante) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setPrecio(4);
+        producto.setVariante(variante);
+        return producto;
+    }
+}
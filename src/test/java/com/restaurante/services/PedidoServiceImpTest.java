@@ -0,0 +1,150 @@
+package com.restaurante.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.restaurante.domain.Cliente;
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.ColaEstadoDTO;
+import com.restaurante.exception.IllegalOperationException;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.PedidoRepository;
+import com.restaurante.repositories.ProductoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas del servicio de pedidos sobre la base de datos en memoria.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PedidoServiceImpTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cliente cliente;
+
+    private Producto producto;
+
+    @BeforeAll
+    void cargarDatos() {
+        cliente = new Cliente();
+        cliente.setNombre("Cliente de PedidoServiceImpTest");
+        cliente = clienteRepository.save(cliente);
+
+        producto = new Producto();
+        producto.setNombre("Producto de PedidoServiceImpTest");
+        producto.setPrecio(12.5);
+        producto = productoRepository.save(producto);
+    }
+
+    @Test
+    void reintentoConLaMismaClaveDevuelveLaRespuestaOriginalSinConsultas() throws Exception {
+        JsonNode creado = pedidoService.crearPedido(nuevoPedido(), "reintento-1");
+        pedidoService.actualizarEstado(creado.get("id").asLong(), EstadoPedido.EN_PROCESO.getNombre());
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        JsonNode reintento = pedidoService.crearPedido(nuevoPedido(), "reintento-1");
+        long sentencias = estadisticas.getPrepareStatementCount();
+
+        assertEquals(0, sentencias);
+        assertEquals(creado, reintento);
+        assertEquals(EstadoPedido.PENDIENTE.getNombre(), reintento.get("estado").asText());
+        assertEquals(1, reintento.get("lineas").size());
+        assertNotSame(reintento, pedidoService.crearPedido(nuevoPedido(), "reintento-1"));
+        assertEquals(1, contarConClave("reintento-1"));
+    }
+
+    @Test
+    void claveRegistradaPorOtraPeticionDevuelveSuPedido() throws Exception {
+        // Pedido guardado con la clave sin pasar por el servicio, como si lo hubiera creado otra
+        // instancia o la aplicación antes de reiniciarse: la caché de respuestas no lo conoce.
+        Pedido previo = nuevoPedido();
+        previo.setEstado(EstadoPedido.PENDIENTE);
+        previo.setClaveIdempotencia("carrera-1");
+        previo = pedidoRepository.save(previo);
+
+        JsonNode resultado = pedidoService.crearPedido(nuevoPedido(), "carrera-1");
+
+        assertEquals(previo.getId(), resultado.get("id").asLong());
+        assertEquals(1, contarConClave("carrera-1"));
+    }
+
+    @Test
+    void rechazaLasTransicionesNoPermitidas() throws Exception {
+        long id = pedidoService.crearPedido(nuevoPedido(LocalDateTime.of(2024, 5, 2, 13, 0)), null).get("id").asLong();
+
+        assertThrows(IllegalOperationException.class,
+                () -> pedidoService.actualizarEstado(id, EstadoPedido.ENTREGADO.getNombre()));
+        pedidoService.actualizarEstado(id, EstadoPedido.EN_PROCESO.getNombre());
+        pedidoService.actualizarEstado(id, EstadoPedido.ENTREGADO.getNombre());
+        assertThrows(IllegalOperationException.class,
+                () -> pedidoService.actualizarEstado(id, EstadoPedido.PENDIENTE.getNombre()));
+        assertThrows(IllegalOperationException.class,
+                () -> pedidoService.actualizarEstado(id, EstadoPedido.EN_PROCESO.getNombre()));
+        assertThrows(IllegalOperationException.class,
+                () -> pedidoService.actualizarEstado(id, "cancelado"));
+
+        assertEquals(EstadoPedido.ENTREGADO, pedidoRepository.findById(id).orElseThrow().getEstado());
+    }
+
+    @Test
+    void siguientesDeUnEstadoFinalConsultaLaBaseDeDatos() throws Exception {
+        long id = pedidoService.crearPedido(nuevoPedido(LocalDateTime.of(2024, 5, 3, 13, 0)), null).get("id").asLong();
+        pedidoService.actualizarEstado(id, EstadoPedido.EN_PROCESO.getNombre());
+        pedidoService.actualizarEstado(id, EstadoPedido.ENTREGADO.getNombre());
+
+        ColaEstadoDTO cola = pedidoService.siguientesPorEstado(EstadoPedido.ENTREGADO.getNombre(), Integer.MAX_VALUE);
+
+        assertEquals(pedidoRepository.countByEstado(EstadoPedido.ENTREGADO), cola.getTotal());
+        assertTrue(cola.getPedidosIds().contains(id));
+        assertThrows(IllegalOperationException.class, () -> pedidoService.siguientesPorEstado("cancelado", 10));
+    }
+
+    private Pedido nuevoPedido() {
+        return nuevoPedido(LocalDateTime.of(2024, 5, 1, 13, 0));
+    }
+
+    private Pedido nuevoPedido(LocalDateTime fecha) {
+        Pedido pedido = new Pedido();
+        pedido.setFecha(fecha);
+        pedido.setCliente(cliente);
+        pedido.agregarLinea(producto, 1);
+        return pedido;
+    }
+
+    private long contarConClave(String clave) {
+        return pedidoRepository.findAll().stream().filter(pedido -> clave.equals(pedido.getClaveIdempotencia())).count();
+    }
+}
@@ -0,0 +1,145 @@
+package com.restaurante.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.restaurante.domain.EstadoPedido;
+import com.restaurante.domain.Pedido;
+import com.restaurante.domain.PedidoVista;
+import com.restaurante.domain.Producto;
+import com.restaurante.dto.PedidoVistaLineaDTO;
+import com.restaurante.events.PedidoEvento;
+import com.restaurante.events.ProductoEvento;
+import com.restaurante.repositories.ClienteRepository;
+import com.restaurante.repositories.PedidoRepository;
+import com.restaurante.repositories.PedidoVistaRepository;
+import com.restaurante.repositories.ProductoRepository;
+
+/**
+ * Comprueba que una proyección fallida deja el pedido pendiente y se repara en la reparación programada,
+ * que las filas se proyectan con el estado confirmado y no con los datos del evento, y que el cambio de
+ * nombre de un producto se aplica por páginas.
+ */
+class PedidoVistaServiceImpTest {
+
+    private PedidoRepository pedidoRepository;
+
+    private PedidoVistaRepository pedidoVistaRepository;
+
+    private ProductoRepository productoRepository;
+
+    private PedidoVistaServiceImp pedidoVistaService;
+
+    @BeforeEach
+    void crearServicio() {
+        pedidoRepository = mock(PedidoRepository.class);
+        pedidoVistaRepository = mock(PedidoVistaRepository.class);
+        productoRepository = mock(ProductoRepository.class);
+
+        pedidoVistaService = new PedidoVistaServiceImp();
+        ReflectionTestUtils.setField(pedidoVistaService, "pedidoRepository", pedidoRepository);
+        ReflectionTestUtils.setField(pedidoVistaService, "pedidoVistaRepository", pedidoVistaRepository);
+        ReflectionTestUtils.setField(pedidoVistaService, "clienteRepository", mock(ClienteRepository.class));
+        ReflectionTestUtils.setField(pedidoVistaService, "productoRepository", productoRepository);
+        ReflectionTestUtils.setField(pedidoVistaService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        pedidoVistaService.inicializar();
+    }
+
+    @Test
+    void unaProyeccionFallidaSeReparaEnLaReparacionProgramada() throws Exception {
+        Pedido pedido = pedido(7L, EstadoPedido.EN_PROCESO);
+        when(pedidoRepository.findConLineasById(7L))
+                .thenThrow(new IllegalStateException("Error de base de datos"))
+                .thenReturn(Optional.of(pedido));
+
+        pedidoVistaService.alModificarPedido(new PedidoEvento(7L, null, null));
+        verify(pedidoVistaRepository, never()).save(any());
+
+        // Las lecturas no reparan ni esperan a las reparaciones.
+        when(pedidoVistaRepository.findById(7L)).thenReturn(Optional.of(new PedidoVista()));
+        pedidoVistaService.buscarPorId(7L);
+        verify(pedidoRepository, times(1)).findConLineasById(7L);
+
+        pedidoVistaService.repararPendientes();
+
+        ArgumentCaptor<PedidoVista> guardada = ArgumentCaptor.forClass(PedidoVista.class);
+        verify(pedidoVistaRepository).save(guardada.capture());
+        assertEquals(7L, guardada.getValue().getId());
+        assertEquals(EstadoPedido.EN_PROCESO, guardada.getValue().getEstado());
+    }
+
+    @Test
+    void renombraUnProductoPorPaginasDePedidos() {
+        Producto producto = new Producto();
+        producto.setId(5L);
+        producto.setNombre("Nuevo nombre");
+        when(productoRepository.findById(5L)).thenReturn(Optional.of(producto));
+        List<Long> primeraPagina = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(pedidoRepository.buscarIdsConProducto(eq(5L), eq(0L), any())).thenReturn(primeraPagina);
+        when(pedidoRepository.buscarIdsConProducto(eq(5L), eq(500L), any())).thenReturn(List.of(501L));
+        PedidoVista vista = new PedidoVista();
+        vista.setLineas(List.of(new PedidoVistaLineaDTO(5L, "Nombre anterior", 1, 2.0, 2.0)));
+        when(pedidoVistaRepository.findAllById(List.of(501L))).thenReturn(List.of(vista));
+
+        pedidoVistaService.alModificarProducto(new ProductoEvento(5L));
+
+        verify(pedidoVistaRepository).findAllById(primeraPagina);
+        verify(pedidoVistaRepository).findAllById(List.of(501L));
+        verify(pedidoRepository, never()).buscarIdsConProducto(eq(5L), eq(501L), any());
+        assertEquals("Nuevo nombre", vista.getLineas().get(0).getProductoNombre());
+    }
+
+    @Test
+    void unEventoAntiguoProyectaElEstadoConfirmado() {
+        // El evento de creación llega después de que el pedido haya avanzado: la fila refleja la tabla.
+        when(pedidoRepository.findConLineasById(8L)).thenReturn(Optional.of(pedido(8L, EstadoPedido.ENTREGADO)));
+
+        pedidoVistaService.alModificarPedido(new PedidoEvento(8L, null, null));
+
+        ArgumentCaptor<PedidoVista> guardada = ArgumentCaptor.forClass(PedidoVista.class);
+        verify(pedidoVistaRepository).save(guardada.capture());
+        assertEquals(EstadoPedido.ENTREGADO, guardada.getValue().getEstado());
+    }
+
+    @Test
+    void alArrancarReproyectaLasFilasQueNoCoinciden() {
+        when(pedidoVistaRepository.count()).thenReturn(2L);
+        when(pedidoVistaRepository.buscarIdsDesactualizados()).thenReturn(List.of(9L));
+        when(pedidoVistaRepository.buscarIdsSinPedido()).thenReturn(List.of(10L));
+        when(pedidoRepository.findConLineasById(9L)).thenReturn(Optional.of(pedido(9L, EstadoPedido.PENDIENTE)));
+        when(pedidoRepository.findConLineasById(10L)).thenReturn(Optional.empty());
+
+        pedidoVistaService.reconstruirSiFalta();
+
+        verify(pedidoVistaRepository).save(any(PedidoVista.class));
+        verify(pedidoVistaRepository).deleteById(10L);
+        verify(pedidoVistaRepository, never()).deleteAllInBatch();
+    }
+
+    private static Pedido pedido(Long id, EstadoPedido estado) {
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setFecha(LocalDateTime.of(2024, 5, 1, 13, 0));
+        pedido.setEstado(estado);
+        return pedido;
+    }
+}
@@ -0,0 +1,42 @@
+package com.restaurante.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.restaurante.exception.IllegalOperationException;
+
+/**
+ * Comprueba la decodificación del cursor opaco de los listados.
+ */
+class PaginacionTest {
+
+    @Test
+    void decodificaElCursorQueCodifica() throws Exception {
+        assertEquals(0L, Paginacion.decodificarCursor(null));
+        assertEquals(0L, Paginacion.decodificarCursor(" "));
+        assertEquals(42L, Paginacion.decodificarCursor(Paginacion.codificarCursor(42L)));
+    }
+
+    @Test
+    void rechazaLosCursoresNoValidos() {
+        assertCursorNoValido("no es base64!");
+        assertCursorNoValido(codificar("42"));
+        assertCursorNoValido(codificar("id:"));
+        assertCursorNoValido(codificar("id:cuarenta"));
+        assertCursorNoValido(codificar("id:99999999999999999999"));
+    }
+
+    private static void assertCursorNoValido(String cursor) {
+        IllegalOperationException e = assertThrows(IllegalOperationException.class, () -> Paginacion.decodificarCursor(cursor));
+        assertEquals("El cursor proporcionado no es válido", e.getMessage());
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}